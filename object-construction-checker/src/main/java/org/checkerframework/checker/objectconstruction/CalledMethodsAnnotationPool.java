@@ -0,0 +1,111 @@
+package org.checkerframework.checker.objectconstruction;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import org.checkerframework.checker.objectconstruction.qual.CalledMethods;
+import org.checkerframework.javacutil.AnnotationBuilder;
+
+/**
+ * An interning pool for @CalledMethods annotations. Each distinct set of method names is
+ * represented by exactly one {@link AnnotationMirror} for the lifetime of the pool, so equal types
+ * produced by the transfer function, the tree annotator, and the qualifier hierarchy share a single
+ * object instead of each allocating their own.
+ *
+ * <p>The pool is keyed by the canonical form of a method-name set: its elements sorted and without
+ * duplicates. The empty set is always represented by the top annotation.
+ */
+final class CalledMethodsAnnotationPool {
+
+  private final ProcessingEnvironment processingEnv;
+
+  /** The annotation that represents the empty set of called methods. */
+  private final AnnotationMirror top;
+
+  /** Maps each canonical method-name list to the unique annotation with that value. */
+  private final Map<List<String>, AnnotationMirror> pool = new HashMap<>();
+
+  /** The number of requests that were answered by an already-interned annotation. */
+  private long hits = 0;
+
+  /** The number of requests that required a new annotation to be built. */
+  private long misses = 0;
+
+  /**
+   * Creates a new, empty pool.
+   *
+   * @param processingEnv the processing environment used to build new annotations
+   * @param top the annotation that represents the empty set of called methods
+   */
+  CalledMethodsAnnotationPool(ProcessingEnvironment processingEnv, AnnotationMirror top) {
+    this.processingEnv = processingEnv;
+    this.top = top;
+  }
+
+  /**
+   * Returns the unique @CalledMethods annotation whose value is the given set of method names. The
+   * argument is not modified.
+   *
+   * @param methodNames the methods that have been called, in any order and possibly with duplicates
+   * @return the interned annotation for that set
+   */
+  AnnotationMirror intern(String... methodNames) {
+    if (methodNames.length == 0) {
+      return top;
+    }
+    String[] canonical = canonicalize(methodNames);
+    List<String> key = Arrays.asList(canonical);
+    AnnotationMirror result = pool.get(key);
+    if (result != null) {
+      hits++;
+      return result;
+    }
+    misses++;
+    AnnotationBuilder builder = new AnnotationBuilder(processingEnv, CalledMethods.class);
+    builder.setValue("value", canonical);
+    result = builder.build();
+    pool.put(key, result);
+    return result;
+  }
+
+  /**
+   * Returns a sorted copy of the argument with duplicate entries removed.
+   *
+   * @param methodNames method names, in any order
+   * @return a new sorted array with each name exactly once
+   */
+  private static String[] canonicalize(String[] methodNames) {
+    String[] sorted = methodNames.clone();
+    Arrays.sort(sorted);
+    int unique = 1;
+    for (int i = 1; i < sorted.length; i++) {
+      if (!sorted[i].equals(sorted[unique - 1])) {
+        sorted[unique++] = sorted[i];
+      }
+    }
+    return unique == sorted.length ? sorted : Arrays.copyOf(sorted, unique);
+  }
+
+  /** @return the number of requests answered by an already-interned annotation */
+  long getHits() {
+    return hits;
+  }
+
+  /** @return the number of requests that built a new annotation */
+  long getMisses() {
+    return misses;
+  }
+
+  /** @return the number of distinct non-empty method-name sets in the pool */
+  int size() {
+    return pool.size();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d hits, %d misses, %d interned annotations", hits, misses, size());
+  }
+}
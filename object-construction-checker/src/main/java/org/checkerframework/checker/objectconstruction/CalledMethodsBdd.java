@@ -0,0 +1,339 @@
+package org.checkerframework.checker.objectconstruction;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A reduced, ordered binary decision diagram over method ids, used to reason
+ * about @CalledMethodsPredicate annotations.
+ *
+ * <p>Nodes are hash-consed: each distinct triple of variable, low child and high child is stored
+ * exactly once, so two predicates are logically equivalent iff they compile to the same node id.
+ * Variables are ordered by method id, which is assigned by {@link CalledMethodsLattice}. Node 0 is
+ * the constant false and node 1 is the constant true. The results of the boolean operations are
+ * memoized, so checking the same implication twice costs a single map lookup.
+ */
+final class CalledMethodsBdd {
+
+  /** The node id of the constant false. */
+  static final int FALSE = 0;
+
+  /** The node id of the constant true. */
+  static final int TRUE = 1;
+
+  /** The variable of the two terminal nodes, which sorts after every real variable. */
+  private static final int TERMINAL_VAR = Integer.MAX_VALUE;
+
+  /** Memoized results are flushed when there are this many, to bound their memory use. */
+  private static final int MAX_MEMO_SIZE = 1 << 16;
+
+  /** The variable of each node, indexed by node id. */
+  private int[] vars = new int[64];
+
+  /** The child of each node that is taken when its variable is false. */
+  private int[] lows = new int[64];
+
+  /** The child of each node that is taken when its variable is true. */
+  private int[] highs = new int[64];
+
+  /** The number of nodes, including the two terminals. */
+  private int size = 2;
+
+  /** For each variable, maps a pair of low and high child to the unique node with them. */
+  private final List<Map<Long, Integer>> uniqueTable = new ArrayList<>();
+
+  private final Map<Long, Integer> andMemo = new HashMap<>();
+
+  private final Map<Long, Integer> orMemo = new HashMap<>();
+
+  private final Map<Integer, Integer> notMemo = new HashMap<>();
+
+  private final Map<Long, Integer> existsMemo = new HashMap<>();
+
+  private final Map<Long, Boolean> impliesMemo = new HashMap<>();
+
+  private long implicationChecks = 0;
+
+  private long implicationMemoHits = 0;
+
+  CalledMethodsBdd() {
+    vars[FALSE] = TERMINAL_VAR;
+    vars[TRUE] = TERMINAL_VAR;
+  }
+
+  /**
+   * Returns the node that is true iff the given variable is true.
+   *
+   * @param var a method id
+   * @return the node for that variable
+   */
+  int variable(int var) {
+    return mk(var, FALSE, TRUE);
+  }
+
+  /** @return the negation of a node */
+  int not(int a) {
+    if (a == FALSE || a == TRUE) {
+      return a == FALSE ? TRUE : FALSE;
+    }
+    Integer result = notMemo.get(a);
+    if (result == null) {
+      result = mk(vars[a], not(lows[a]), not(highs[a]));
+      if (notMemo.size() >= MAX_MEMO_SIZE) {
+        notMemo.clear();
+      }
+      notMemo.put(a, result);
+    }
+    return result;
+  }
+
+  /** @return the conjunction of two nodes */
+  int and(int a, int b) {
+    if (a == FALSE || b == FALSE) {
+      return FALSE;
+    } else if (a == TRUE) {
+      return b;
+    } else if (b == TRUE || a == b) {
+      return a;
+    }
+    return apply(true, a, b);
+  }
+
+  /** @return the disjunction of two nodes */
+  int or(int a, int b) {
+    if (a == TRUE || b == TRUE) {
+      return TRUE;
+    } else if (a == FALSE) {
+      return b;
+    } else if (b == FALSE || a == b) {
+      return a;
+    }
+    return apply(false, a, b);
+  }
+
+  /**
+   * Existentially quantifies a variable: the result is true for an assignment iff {@code a} is true
+   * for that assignment with the variable set either way.
+   *
+   * @param a a node
+   * @param var the variable to quantify
+   * @return a node that does not depend on {@code var}
+   */
+  int exists(int a, int var) {
+    if (vars[a] > var) {
+      // Variables are ordered, so var does not occur below a. This includes the terminals.
+      return a;
+    } else if (vars[a] == var) {
+      return or(lows[a], highs[a]);
+    }
+    long key = pairKey(a, var);
+    Integer result = existsMemo.get(key);
+    if (result == null) {
+      result = mk(vars[a], exists(lows[a], var), exists(highs[a], var));
+      memoize(existsMemo, key, result);
+    }
+    return result;
+  }
+
+  /**
+   * Returns whether every assignment that satisfies {@code a} also satisfies {@code b}.
+   *
+   * @param a a node
+   * @param b a node
+   * @return true iff {@code a} implies {@code b}
+   */
+  boolean implies(int a, int b) {
+    implicationChecks++;
+    if (a == FALSE || b == TRUE || a == b) {
+      return true;
+    }
+    long key = pairKey(a, b);
+    Boolean result = impliesMemo.get(key);
+    if (result != null) {
+      implicationMemoHits++;
+      return result;
+    }
+    result = and(a, not(b)) == FALSE;
+    memoize(impliesMemo, key, result);
+    return result;
+  }
+
+  /**
+   * Evaluates a node under an assignment.
+   *
+   * @param a a node
+   * @param assignment the value of each variable
+   * @return the value of the node
+   */
+  boolean evaluate(int a, IntPredicate assignment) {
+    while (a != FALSE && a != TRUE) {
+      a = assignment.test(vars[a]) ? highs[a] : lows[a];
+    }
+    return a == TRUE;
+  }
+
+  /**
+   * Returns the variables that a node depends on.
+   *
+   * @param a a node
+   * @return the variables that are tested on some path from the node to a terminal
+   */
+  BitSet support(int a) {
+    BitSet result = new BitSet();
+    Set<Integer> visited = new HashSet<>();
+    Deque<Integer> worklist = new ArrayDeque<>();
+    worklist.push(a);
+    while (!worklist.isEmpty()) {
+      int n = worklist.pop();
+      if (n != FALSE && n != TRUE && visited.add(n)) {
+        result.set(vars[n]);
+        worklist.push(lows[n]);
+        worklist.push(highs[n]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * If the given node is a conjunction of variables, none of them negated, returns those variables.
+   *
+   * @param a a node
+   * @return the variables of the conjunction in order, or null if the node is not a conjunction of
+   *     variables
+   */
+  int @Nullable [] positiveConjunction(int a) {
+    int length = 0;
+    for (int n = a; n != TRUE; n = highs[n]) {
+      if (n == FALSE || lows[n] != FALSE) {
+        return null;
+      }
+      length++;
+    }
+    int[] result = new int[length];
+    int i = 0;
+    for (int n = a; n != TRUE; n = highs[n]) {
+      result[i++] = vars[n];
+    }
+    return result;
+  }
+
+  /**
+   * Returns a disjunction of conjunctions of literals equivalent to a node, with one conjunction
+   * for each path from the node to the true terminal. A literal is a variable if it is positive, or
+   * the bitwise complement of a variable if it is negated.
+   *
+   * @param a a node other than a terminal
+   * @param maxPaths the maximum number of conjunctions
+   * @return the conjunctions, or null if there would be more than {@code maxPaths} of them
+   */
+  @Nullable
+  List<int[]> paths(int a, int maxPaths) {
+    List<int[]> result = new ArrayList<>();
+    return collectPaths(a, new int[0], result, maxPaths) ? result : null;
+  }
+
+  private boolean collectPaths(int a, int[] prefix, List<int[]> result, int maxPaths) {
+    if (a == FALSE) {
+      return true;
+    } else if (a == TRUE) {
+      result.add(prefix);
+      return result.size() <= maxPaths;
+    }
+    int[] path = Arrays.copyOf(prefix, prefix.length + 1);
+    path[prefix.length] = vars[a];
+    if (!collectPaths(highs[a], path, result, maxPaths)) {
+      return false;
+    }
+    path = path.clone();
+    path[prefix.length] = ~vars[a];
+    return collectPaths(lows[a], path, result, maxPaths);
+  }
+
+  /**
+   * Combines two non-terminal nodes by Shannon expansion on their topmost variable.
+   *
+   * @param isAnd true for conjunction, false for disjunction
+   * @param a a node
+   * @param b a node
+   * @return the combined node
+   */
+  private int apply(boolean isAnd, int a, int b) {
+    long key = pairKey(Math.min(a, b), Math.max(a, b));
+    Map<Long, Integer> memo = isAnd ? andMemo : orMemo;
+    Integer result = memo.get(key);
+    if (result != null) {
+      return result;
+    }
+    int var = Math.min(vars[a], vars[b]);
+    int aLow = vars[a] == var ? lows[a] : a;
+    int aHigh = vars[a] == var ? highs[a] : a;
+    int bLow = vars[b] == var ? lows[b] : b;
+    int bHigh = vars[b] == var ? highs[b] : b;
+    int low = isAnd ? and(aLow, bLow) : or(aLow, bLow);
+    int high = isAnd ? and(aHigh, bHigh) : or(aHigh, bHigh);
+    result = mk(var, low, high);
+    memoize(memo, key, result);
+    return result;
+  }
+
+  /**
+   * Returns the unique node with the given variable and children, creating it if necessary.
+   *
+   * @param var the variable tested by the node
+   * @param low the child when the variable is false
+   * @param high the child when the variable is true
+   * @return the node
+   */
+  private int mk(int var, int low, int high) {
+    if (low == high) {
+      return low;
+    }
+    while (uniqueTable.size() <= var) {
+      uniqueTable.add(new HashMap<>());
+    }
+    Map<Long, Integer> table = uniqueTable.get(var);
+    long key = pairKey(low, high);
+    Integer node = table.get(key);
+    if (node == null) {
+      if (size == vars.length) {
+        vars = Arrays.copyOf(vars, size * 2);
+        lows = Arrays.copyOf(lows, size * 2);
+        highs = Arrays.copyOf(highs, size * 2);
+      }
+      node = size++;
+      vars[node] = var;
+      lows[node] = low;
+      highs[node] = high;
+      table.put(key, node);
+    }
+    return node;
+  }
+
+  private static long pairKey(int a, int b) {
+    return ((long) a << 32) | (b & 0xFFFFFFFFL);
+  }
+
+  private static <V> void memoize(Map<Long, V> memo, long key, V value) {
+    if (memo.size() >= MAX_MEMO_SIZE) {
+      memo.clear();
+    }
+    memo.put(key, value);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%d nodes, %d implication checks, %d implication memo hits",
+        size, implicationChecks, implicationMemoHits);
+  }
+}
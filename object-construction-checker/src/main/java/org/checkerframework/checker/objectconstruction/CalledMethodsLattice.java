@@ -0,0 +1,363 @@
+package org.checkerframework.checker.objectconstruction;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.lang.model.element.AnnotationMirror;
+import org.checkerframework.checker.objectconstruction.qual.CalledMethods;
+import org.checkerframework.checker.objectconstruction.qual.CalledMethodsBottom;
+import org.checkerframework.checker.objectconstruction.qual.CalledMethodsPredicate;
+import org.checkerframework.checker.objectconstruction.qual.CalledMethodsTop;
+import org.checkerframework.javacutil.AnnotationUtils;
+
+/**
+ * The set-valued part of the @CalledMethods lattice, implemented over bitsets.
+ *
+ * <p>Every method name seen during a compilation is assigned a dense integer id, and every distinct
+ * set of method names is assigned a set id whose members are stored as a {@link BitSet}. Union,
+ * intersection and subset checks are therefore word-wise operations, and their results are memoized
+ * per pair of set ids. Set id 0 is always the empty set, which is represented by the top
+ * annotation.
+ *
+ * <p>Annotations returned by {@link #annotationOf} are mapped back to their set id by identity, so
+ * looking up an annotation that was produced by the type factory does not read its elements.
+ * Other @CalledMethods annotations, such as those written in source code, are decoded each time
+ * they are seen.
+ */
+final class CalledMethodsLattice {
+
+  /** The kinds of annotation in the object construction type hierarchy. */
+  enum Kind {
+    TOP,
+    BOTTOM,
+    CALLED_METHODS,
+    PREDICATE
+  }
+
+  /** The set id of the empty set. */
+  static final int EMPTY_SET = 0;
+
+  /** Caches are flushed when they reach this many entries, to bound their memory use. */
+  private static final int MAX_MEMO_SIZE = 1 << 16;
+
+  private static final String CALLED_METHODS_NAME = CalledMethods.class.getCanonicalName();
+
+  private static final String CALLED_METHODS_TOP_NAME = CalledMethodsTop.class.getCanonicalName();
+
+  private static final String CALLED_METHODS_BOTTOM_NAME =
+      CalledMethodsBottom.class.getCanonicalName();
+
+  private static final String CALLED_METHODS_PREDICATE_NAME =
+      CalledMethodsPredicate.class.getCanonicalName();
+
+  private final CalledMethodsAnnotationPool pool;
+
+  private final AnnotationMirror top;
+
+  private final AnnotationMirror bottom;
+
+  /** Maps each method name to its dense id. */
+  private final Map<String, Integer> methodIds = new HashMap<>();
+
+  /** The inverse of {@link #methodIds}. */
+  private final List<String> methodNames = new ArrayList<>();
+
+  /** Maps each distinct set of method ids to its set id. */
+  private final Map<BitSet, Integer> setIds = new HashMap<>();
+
+  /** The members of each set, indexed by set id. These bitsets must never be mutated. */
+  private final List<BitSet> sets = new ArrayList<>();
+
+  /** The interned annotation for each set, indexed by set id, or null if not yet created. */
+  private final List<AnnotationMirror> setAnnotations = new ArrayList<>();
+
+  /** Maps interned annotations to their set id. */
+  private final Map<AnnotationMirror, Integer> internedSetIds = new IdentityHashMap<>();
+
+  private final Map<Long, Integer> unionMemo = new HashMap<>();
+
+  private final Map<Long, Integer> intersectionMemo = new HashMap<>();
+
+  private final Map<Long, Boolean> subsetMemo = new HashMap<>();
+
+  private long memoHits = 0;
+
+  private long memoMisses = 0;
+
+  /**
+   * Creates a new lattice.
+   *
+   * @param pool the pool used to create the annotation for each set
+   * @param top the top annotation, which represents the empty set
+   * @param bottom the bottom annotation
+   */
+  CalledMethodsLattice(
+      CalledMethodsAnnotationPool pool, AnnotationMirror top, AnnotationMirror bottom) {
+    this.pool = pool;
+    this.top = top;
+    this.bottom = bottom;
+    BitSet empty = new BitSet();
+    setIds.put(empty, EMPTY_SET);
+    sets.add(empty);
+    setAnnotations.add(top);
+    internedSetIds.put(top, EMPTY_SET);
+  }
+
+  /**
+   * Classifies an annotation in the object construction hierarchy. A @CalledMethods annotation
+   * without an explicit value is classified as top.
+   *
+   * @param anno an annotation in the object construction hierarchy
+   * @return the kind of the annotation
+   */
+  Kind kindOf(AnnotationMirror anno) {
+    if (anno == top || anno == bottom) {
+      return anno == top ? Kind.TOP : Kind.BOTTOM;
+    }
+    if (internedSetIds.containsKey(anno)) {
+      return Kind.CALLED_METHODS;
+    }
+    String name = AnnotationUtils.annotationName(anno);
+    if (CALLED_METHODS_NAME.equals(name)) {
+      return AnnotationUtils.hasElementValue(anno, "value") ? Kind.CALLED_METHODS : Kind.TOP;
+    } else if (CALLED_METHODS_PREDICATE_NAME.equals(name)) {
+      return Kind.PREDICATE;
+    } else if (CALLED_METHODS_BOTTOM_NAME.equals(name)) {
+      return Kind.BOTTOM;
+    } else if (CALLED_METHODS_TOP_NAME.equals(name)) {
+      return Kind.TOP;
+    }
+    // Aliases, such as the old @CalledMethods annotation used by Lombok, are replaced by the
+    // factory before they reach the hierarchy, so this annotation has a "value" of method names.
+    return AnnotationUtils.hasElementValue(anno, "value") ? Kind.CALLED_METHODS : Kind.TOP;
+  }
+
+  /**
+   * Returns the set id of a top or @CalledMethods annotation.
+   *
+   * @param anno an annotation whose kind is {@link Kind#TOP} or {@link Kind#CALLED_METHODS}
+   * @return the id of the set of methods it represents
+   */
+  int setIdOf(AnnotationMirror anno) {
+    Integer id = internedSetIds.get(anno);
+    if (id != null) {
+      return id;
+    }
+    if (kindOf(anno) == Kind.TOP) {
+      return EMPTY_SET;
+    }
+    List<String> names =
+        ObjectConstructionAnnotatedTypeFactory.getValueOfAnnotationWithStringArgument(anno);
+    BitSet bits = new BitSet();
+    for (String name : names) {
+      bits.set(methodIdOf(name));
+    }
+    return setIdOf(bits);
+  }
+
+  /**
+   * Returns the set id of the given set of method names, creating it if necessary.
+   *
+   * @param methodNames method names, in any order
+   * @return the id of the set
+   */
+  int setIdOf(String... methodNames) {
+    BitSet bits = new BitSet();
+    for (String name : methodNames) {
+      bits.set(methodIdOf(name));
+    }
+    return setIdOf(bits);
+  }
+
+  /**
+   * Returns the interned annotation for a set.
+   *
+   * @param setId the id of a set
+   * @return the unique annotation that represents the set
+   */
+  AnnotationMirror annotationOf(int setId) {
+    AnnotationMirror anno = setAnnotations.get(setId);
+    if (anno == null) {
+      anno = pool.intern(methodNamesOf(setId).toArray(new String[0]));
+      setAnnotations.set(setId, anno);
+      internedSetIds.put(anno, setId);
+    }
+    return anno;
+  }
+
+  /**
+   * Returns the method names in a set, in order of their ids.
+   *
+   * @param setId the id of a set
+   * @return the names of the methods in the set
+   */
+  List<String> methodNamesOf(int setId) {
+    BitSet bits = sets.get(setId);
+    List<String> result = new ArrayList<>(bits.cardinality());
+    for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+      result.add(methodNames.get(i));
+    }
+    return result;
+  }
+
+  /** @return the number of methods in a set */
+  int sizeOf(int setId) {
+    return sets.get(setId).cardinality();
+  }
+
+  /**
+   * Returns whether a set contains a method.
+   *
+   * @param setId the id of a set
+   * @param methodId the id of a method name
+   * @return true iff the method is in the set
+   */
+  boolean containsMethod(int setId, int methodId) {
+    return sets.get(setId).get(methodId);
+  }
+
+  /**
+   * Returns the id of the given method name, assigning a fresh one if it has not been seen before.
+   *
+   * @param methodName a method name
+   * @return the dense id of the method name
+   */
+  int methodIdOf(String methodName) {
+    Integer id = methodIds.get(methodName);
+    if (id == null) {
+      id = methodNames.size();
+      methodIds.put(methodName, id);
+      methodNames.add(methodName);
+    }
+    return id;
+  }
+
+  /**
+   * Returns the method name with the given id.
+   *
+   * @param methodId an id returned by {@link #methodIdOf}
+   * @return the method name
+   */
+  String methodNameOf(int methodId) {
+    return methodNames.get(methodId);
+  }
+
+  /** @return the id of the union of two sets */
+  int union(int a, int b) {
+    if (a == b || b == EMPTY_SET) {
+      return a;
+    } else if (a == EMPTY_SET) {
+      return b;
+    }
+    long key = pairKey(Math.min(a, b), Math.max(a, b));
+    Integer result = unionMemo.get(key);
+    if (result != null) {
+      memoHits++;
+      return result;
+    }
+    memoMisses++;
+    BitSet bits = (BitSet) sets.get(a).clone();
+    bits.or(sets.get(b));
+    result = setIdOf(bits);
+    memoize(unionMemo, key, result);
+    return result;
+  }
+
+  /** @return the id of the intersection of two sets */
+  int intersection(int a, int b) {
+    if (a == b) {
+      return a;
+    } else if (a == EMPTY_SET || b == EMPTY_SET) {
+      return EMPTY_SET;
+    }
+    long key = pairKey(Math.min(a, b), Math.max(a, b));
+    Integer result = intersectionMemo.get(key);
+    if (result != null) {
+      memoHits++;
+      return result;
+    }
+    memoMisses++;
+    BitSet bits = (BitSet) sets.get(a).clone();
+    bits.and(sets.get(b));
+    result = setIdOf(bits);
+    memoize(intersectionMemo, key, result);
+    return result;
+  }
+
+  /**
+   * Returns the methods that are in one set but not in another. Not memoized: it is only used to
+   * describe errors.
+   *
+   * @param a the id of a set
+   * @param b the id of a set
+   * @return the names of the methods in {@code a} and not in {@code b}, in order of their ids
+   */
+  List<String> methodNamesOfDifference(int a, int b) {
+    BitSet bits = (BitSet) sets.get(a).clone();
+    bits.andNot(sets.get(b));
+    List<String> result = new ArrayList<>(bits.cardinality());
+    for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+      result.add(methodNames.get(i));
+    }
+    return result;
+  }
+
+  /** @return true iff every method in the set {@code sub} is also in the set {@code sup} */
+  boolean isSubset(int sub, int sup) {
+    if (sub == sup || sub == EMPTY_SET) {
+      return true;
+    } else if (sup == EMPTY_SET) {
+      return false;
+    }
+    long key = pairKey(sub, sup);
+    Boolean result = subsetMemo.get(key);
+    if (result != null) {
+      memoHits++;
+      return result;
+    }
+    memoMisses++;
+    BitSet difference = (BitSet) sets.get(sub).clone();
+    difference.andNot(sets.get(sup));
+    result = difference.isEmpty();
+    memoize(subsetMemo, key, result);
+    return result;
+  }
+
+  /**
+   * Returns the id of the given set, creating it if necessary.
+   *
+   * @param bits a set of method ids; must not be mutated after this call
+   * @return the id of the set
+   */
+  private int setIdOf(BitSet bits) {
+    Integer id = setIds.get(bits);
+    if (id == null) {
+      id = sets.size();
+      setIds.put(bits, id);
+      sets.add(bits);
+      setAnnotations.add(null);
+    }
+    return id;
+  }
+
+  private static long pairKey(int a, int b) {
+    return ((long) a << 32) | (b & 0xFFFFFFFFL);
+  }
+
+  private static <V> void memoize(Map<Long, V> memo, long key, V value) {
+    if (memo.size() >= MAX_MEMO_SIZE) {
+      memo.clear();
+    }
+    memo.put(key, value);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%d method names, %d sets, %d memo hits, %d memo misses",
+        methodNames.size(), sets.size(), memoHits, memoMisses);
+  }
+}
@@ -1,34 +1,418 @@
 package org.checkerframework.checker.objectconstruction;
 
-import java.util.Collection;
-import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
-/** This class parses and evaluates a single @CalledMethodsPredicate argument. */
+/**
+ * This class parses and evaluates @CalledMethodsPredicate arguments. Predicates are produced by
+ * this grammar, where {@code !} binds tightest and {@code ||} loosest:
+ *
+ * <pre>S --&gt; method name | (S) | !S | S &amp;&amp; S | S || S</pre>
+ *
+ * <p>Each distinct predicate string is parsed once and compiled into a node of a {@link
+ * CalledMethodsBdd} whose variables are the method ids of a {@link CalledMethodsLattice}.
+ * Evaluation against a set of called methods is a walk from that node to a terminal, and results
+ * are additionally memoized per pair of predicate and set id. Because the diagram is shared by
+ * every predicate, implication between two predicates is also cheap to decide.
+ */
 public class CalledMethodsPredicateEvaluator {
 
-  // All the names of methods that ought to evaluate to true.
-  private final Collection<String> cmMethods;
+  /** The value returned by {@link #bddOf} for an unparseable predicate. */
+  static final int INVALID = -1;
 
-  public CalledMethodsPredicateEvaluator(final Collection<String> cmMethods) {
-    this.cmMethods = cmMethods;
+  /** Memoized results are flushed when there are this many, to bound their memory use. */
+  private static final int MAX_MEMO_SIZE = 1 << 16;
+
+  /**
+   * {@link #toExpression} gives up on diagrams with more than this many paths to true, because the
+   * resulting predicate would be too large to be useful in an error message.
+   */
+  private static final int MAX_EXPRESSION_PATHS = 32;
+
+  /** The lattice whose method ids the compiled predicates refer to. */
+  private final CalledMethodsLattice lattice;
+
+  /** The diagram that every predicate is compiled into. */
+  private final CalledMethodsBdd bdd = new CalledMethodsBdd();
+
+  /** Maps each predicate string that has been seen to its compiled form. */
+  private final Map<String, CompiledPredicate> compiled = new HashMap<>();
+
+  /** Maps a pair of compiled predicate index and set id to the result of evaluation. */
+  private final Map<Long, Boolean> evaluationMemo = new HashMap<>();
+
+  private long evaluations = 0;
+
+  private long memoHits = 0;
+
+  /**
+   * Creates a new evaluator.
+   *
+   * @param lattice the lattice whose sets predicates will be evaluated against
+   */
+  CalledMethodsPredicateEvaluator(final CalledMethodsLattice lattice) {
+    this.lattice = lattice;
   }
 
-  protected boolean evaluate(String expression) {
+  /**
+   * Evaluates a predicate, treating exactly the methods in the given set as having been called. An
+   * unparseable predicate evaluates to false.
+   *
+   * @param expression a predicate
+   * @param setId the id of a set in the lattice
+   * @return the value of the predicate
+   */
+  boolean evaluate(String expression, int setId) {
+    evaluations++;
+    CompiledPredicate predicate = compile(expression);
+    if (predicate.node == INVALID) {
+      return false;
+    }
+    long key = ((long) predicate.index << 32) | (setId & 0xFFFFFFFFL);
+    Boolean result = evaluationMemo.get(key);
+    if (result != null) {
+      memoHits++;
+      return result;
+    }
+    result = bdd.evaluate(predicate.node, methodId -> lattice.containsMethod(setId, methodId));
+    if (evaluationMemo.size() >= MAX_MEMO_SIZE) {
+      evaluationMemo.clear();
+    }
+    evaluationMemo.put(key, result);
+    return result;
+  }
+
+  /**
+   * Returns whether every set of called methods that satisfies one predicate also satisfies
+   * another. Unparseable predicates imply, and are implied by, nothing.
+   *
+   * @param expression a predicate
+   * @param implied another predicate
+   * @return true iff {@code expression} implies {@code implied}
+   */
+  boolean implies(String expression, String implied) {
+    int a = bddOf(expression);
+    int b = bddOf(implied);
+    return a != INVALID && b != INVALID && bdd.implies(a, b);
+  }
+
+  /**
+   * Returns whether every set of called methods that satisfies a predicate contains all of the
+   * methods in the given set.
+   *
+   * @param expression a predicate
+   * @param setId the id of a set in the lattice
+   * @return true iff {@code expression} implies the conjunction of the methods in the set
+   */
+  boolean impliesCalledMethods(String expression, int setId) {
+    int a = bddOf(expression);
+    if (a == INVALID) {
+      return false;
+    }
+    int conjunction = CalledMethodsBdd.TRUE;
+    for (String methodName : lattice.methodNamesOf(setId)) {
+      conjunction = bdd.and(conjunction, bdd.variable(lattice.methodIdOf(methodName)));
+    }
+    return bdd.implies(a, conjunction);
+  }
 
-    for (String cmMethod : cmMethods) {
-      expression = expression.replaceAll(cmMethod, "true");
+  /**
+   * Returns the method names that the value of a predicate depends on. Names whose value cannot
+   * affect the result, such as {@code b} in {@code a || (b && !b)}, are omitted.
+   *
+   * @param expression a predicate
+   * @return the method names it depends on, or the empty list if it is unparseable
+   */
+  List<String> methodNamesOf(String expression) {
+    int node = bddOf(expression);
+    if (node == INVALID) {
+      return Collections.emptyList();
+    }
+    BitSet support = bdd.support(node);
+    List<String> result = new ArrayList<>(support.cardinality());
+    for (int i = support.nextSetBit(0); i >= 0; i = support.nextSetBit(i + 1)) {
+      result.add(lattice.methodNameOf(i));
     }
+    return result;
+  }
 
-    expression = expression.replaceAll("((?!true)[a-zA-Z0-9])+", "false");
+  /**
+   * Returns the number of method names that the value of a predicate depends on, as listed by
+   * {@link #methodNamesOf}.
+   *
+   * @param expression a predicate
+   * @return the number of method names it depends on, or 0 if it is unparseable
+   */
+  int methodCountOf(String expression) {
+    int node = bddOf(expression);
+    return node == INVALID ? 0 : bdd.support(node).cardinality();
+  }
 
-    // horrible hack but I can't figure out the right regex to make the above not replace "true"
-    // with "tfalse"
-    expression = expression.replaceAll("tfalse", "true");
+  /**
+   * Returns the diagram node of a predicate.
+   *
+   * @param expression a predicate
+   * @return its node in {@link #getBdd()}, or {@link #INVALID} if it is unparseable
+   */
+  int bddOf(String expression) {
+    return compile(expression).node;
+  }
+
+  /** @return the diagram that predicates are compiled into */
+  CalledMethodsBdd getBdd() {
+    return bdd;
+  }
+
+  /**
+   * Converts a diagram node back into a predicate, as a disjunction with one conjunction per path
+   * to true. The result is the same for equivalent nodes, so it can be used to intern annotations.
+   *
+   * @param node a node of {@link #getBdd()} other than a terminal
+   * @return an equivalent predicate, or null if it would be unreasonably large
+   */
+  @Nullable
+  String toExpression(int node) {
+    List<int[]> paths = bdd.paths(node, MAX_EXPRESSION_PATHS);
+    if (paths == null) {
+      return null;
+    }
+    StringBuilder result = new StringBuilder();
+    for (int[] path : paths) {
+      if (result.length() > 0) {
+        result.append(" || ");
+      }
+      if (paths.size() > 1 && path.length > 1) {
+        result.append('(');
+      }
+      for (int i = 0; i < path.length; i++) {
+        if (i > 0) {
+          result.append(" && ");
+        }
+        if (path[i] < 0) {
+          result.append('!');
+        }
+        result.append(lattice.methodNameOf(path[i] < 0 ? ~path[i] : path[i]));
+      }
+      if (paths.size() > 1 && path.length > 1) {
+        result.append(')');
+      }
+    }
+    return result.toString();
+  }
+
+  /**
+   * Checks whether a predicate is well-formed.
+   *
+   * @param expression a predicate
+   * @return null if the predicate is well-formed, or a message describing why it is not
+   */
+  @Nullable
+  String getParseError(String expression) {
+    return compile(expression).error;
+  }
+
+  /**
+   * Returns the compiled form of the given predicate, parsing it if it has not been seen before.
+   *
+   * @param expression a predicate
+   * @return its compiled form
+   */
+  private CompiledPredicate compile(String expression) {
+    CompiledPredicate result = compiled.get(expression);
+    if (result == null) {
+      result = new CompiledPredicate(compiled.size());
+      try {
+        result.node = new Parser(expression).parse().toBdd(bdd);
+      } catch (PredicateParseException e) {
+        result.error = e.getMessage();
+      }
+      compiled.put(expression, result);
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%d predicates, %d evaluations, %d memo hits; BDD: %s",
+        compiled.size(), evaluations, memoHits, bdd);
+  }
+
+  /** A predicate string after parsing. */
+  private static final class CompiledPredicate {
+    /** A unique index for this predicate, used as part of memoization keys. */
+    final int index;
+
+    /** The node of the predicate in the diagram, or {@link #INVALID} if it was unparseable. */
+    int node = INVALID;
+
+    /** The reason the predicate was unparseable, or null if it was parsed successfully. */
+    @Nullable String error;
+
+    CompiledPredicate(int index) {
+      this.index = index;
+    }
+  }
 
-    ExpressionParser parser = new SpelExpressionParser();
-    Expression exp = parser.parseExpression(expression);
-    return exp.getValue(Boolean.class);
+  /** A node in the syntax tree of a predicate. */
+  abstract static class Node {
+    /**
+     * Compiles this node.
+     *
+     * @param bdd the diagram to compile into
+     * @return the diagram node equivalent to the predicate represented by this node
+     */
+    abstract int toBdd(CalledMethodsBdd bdd);
+  }
+
+  /** A leaf: a single method name. */
+  static final class MethodName extends Node {
+    final String name;
+    final int methodId;
+
+    MethodName(String name, int methodId) {
+      this.name = name;
+      this.methodId = methodId;
+    }
+
+    @Override
+    int toBdd(CalledMethodsBdd bdd) {
+      return bdd.variable(methodId);
+    }
+  }
+
+  /** The negation of a predicate. */
+  static final class Not extends Node {
+    final Node operand;
+
+    Not(Node operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    int toBdd(CalledMethodsBdd bdd) {
+      return bdd.not(operand.toBdd(bdd));
+    }
+  }
+
+  /** The conjunction or disjunction of two or more predicates. */
+  static final class Junction extends Node {
+    final boolean isAnd;
+    final List<Node> operands;
+
+    Junction(boolean isAnd, List<Node> operands) {
+      this.isAnd = isAnd;
+      this.operands = operands;
+    }
+
+    @Override
+    int toBdd(CalledMethodsBdd bdd) {
+      int result = isAnd ? CalledMethodsBdd.TRUE : CalledMethodsBdd.FALSE;
+      for (Node operand : operands) {
+        int node = operand.toBdd(bdd);
+        result = isAnd ? bdd.and(result, node) : bdd.or(result, node);
+      }
+      return result;
+    }
+  }
+
+  /** Thrown when a predicate cannot be parsed. */
+  private static final class PredicateParseException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    PredicateParseException(String message) {
+      super(message);
+    }
+  }
+
+  /** A recursive-descent parser for the predicate grammar. */
+  private final class Parser {
+    private final String input;
+    private int pos = 0;
+
+    Parser(String input) {
+      this.input = input;
+    }
+
+    /** Parses the whole input, which must be a single predicate. */
+    Node parse() {
+      Node result = parseOr();
+      skipWhitespace();
+      if (pos != input.length()) {
+        throw error("unexpected '" + input.charAt(pos) + "'");
+      }
+      return result;
+    }
+
+    private Node parseOr() {
+      List<Node> operands = new ArrayList<>();
+      operands.add(parseAnd());
+      while (consume("||")) {
+        operands.add(parseAnd());
+      }
+      return operands.size() == 1 ? operands.get(0) : new Junction(false, operands);
+    }
+
+    private Node parseAnd() {
+      List<Node> operands = new ArrayList<>();
+      operands.add(parseUnary());
+      while (consume("&&")) {
+        operands.add(parseUnary());
+      }
+      return operands.size() == 1 ? operands.get(0) : new Junction(true, operands);
+    }
+
+    private Node parseUnary() {
+      if (consume("!")) {
+        return new Not(parseUnary());
+      }
+      if (consume("(")) {
+        Node result = parseOr();
+        if (!consume(")")) {
+          throw error("expected ')'");
+        }
+        return result;
+      }
+      skipWhitespace();
+      int start = pos;
+      if (pos < input.length() && Character.isJavaIdentifierStart(input.charAt(pos))) {
+        pos++;
+        while (pos < input.length() && Character.isJavaIdentifierPart(input.charAt(pos))) {
+          pos++;
+        }
+        String name = input.substring(start, pos);
+        return new MethodName(name, lattice.methodIdOf(name));
+      }
+      if (pos < input.length()) {
+        throw error("unexpected '" + input.charAt(pos) + "'");
+      }
+      throw error("unexpected end");
+    }
+
+    /** If the next token is {@code token}, skips over it and returns true. */
+    private boolean consume(String token) {
+      skipWhitespace();
+      if (input.startsWith(token, pos)) {
+        pos += token.length();
+        return true;
+      }
+      return false;
+    }
+
+    private void skipWhitespace() {
+      while (pos < input.length() && Character.isWhitespace(input.charAt(pos))) {
+        pos++;
+      }
+    }
+
+    private PredicateParseException error(String problem) {
+      return new PredicateParseException(
+          problem + " at position " + pos + " in predicate \"" + input + "\"");
+    }
   }
 }
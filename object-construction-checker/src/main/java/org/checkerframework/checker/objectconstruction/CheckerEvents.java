@@ -0,0 +1,113 @@
+package org.checkerframework.checker.objectconstruction;
+
+/**
+ * Brackets the hot paths of the checker with Java Flight Recorder events, so that profiles of a
+ * build attribute time to the checker's own work rather than to anonymous javac frames. The events
+ * are defined in {@link JfrCheckerEvents}, which is only loaded if the running JVM has the {@code
+ * jdk.jfr} module (JDK 11 and later, and JDK 8 from update 262); otherwise no events are emitted.
+ *
+ * <p>When an event type is not being recorded, its {@code begin} method returns a shared {@link
+ * Span} that does nothing, so the cost is a check of the recording state. Names are passed as
+ * {@link CharSequence}s, such as element names, that are only converted to strings when recording.
+ */
+public abstract class CheckerEvents {
+
+  /** The events of this JVM. */
+  public static final CheckerEvents INSTANCE = load();
+
+  /** A span that is not recorded. */
+  static final Span NONE = new Span();
+
+  /** An event that has begun. Ended exactly once, by {@link #end}. */
+  public static class Span {
+
+    /** @return whether the event is recorded, so that the sizes it carries are worth computing */
+    public boolean isRecording() {
+      return false;
+    }
+
+    /**
+     * Sets the sizes of the sets involved in the event. What they are depends on the event; see
+     * {@link JfrCheckerEvents}.
+     *
+     * @param size the size of the main set of the event
+     * @param otherSize the size of the second set of the event, if it has one
+     */
+    public void setSizes(int size, int otherSize) {}
+
+    /**
+     * Sets the name of the code that the event is about, for events whose name is only worth
+     * computing when they are recorded.
+     *
+     * @param name the name
+     */
+    public void setName(CharSequence name) {}
+
+    /** Ends the event, and commits it if it is recorded. */
+    public void end() {}
+  }
+
+  private static CheckerEvents load() {
+    try {
+      Class.forName("jdk.jfr.Event", false, CheckerEvents.class.getClassLoader());
+      return (CheckerEvents)
+          Class.forName("org.checkerframework.checker.objectconstruction.JfrCheckerEvents")
+              .getDeclaredConstructor()
+              .newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return new CheckerEvents() {};
+    }
+  }
+
+  /**
+   * Begins the type-checking of a top-level class.
+   *
+   * @param className the qualified name of the class
+   * @return the event
+   */
+  public Span beginClassCheck(CharSequence className) {
+    return NONE;
+  }
+
+  /**
+   * Begins the transfer function of a method call.
+   *
+   * @param methodName the name of the called method
+   * @return the event
+   */
+  public Span beginTransfer(CharSequence methodName) {
+    return NONE;
+  }
+
+  /**
+   * Begins the dataflow analysis of a method, a lambda, or the initializers of a class. Its name is
+   * set with {@link Span#setName} if the event is recorded.
+   *
+   * @param kind the kind of code that is analyzed
+   * @return the event
+   */
+  public Span beginDataflow(String kind) {
+    return NONE;
+  }
+
+  /**
+   * Begins the computation of the required methods of a builder by a framework support.
+   *
+   * @param framework the name of the framework
+   * @param builderName the qualified name of the builder class
+   * @return the event
+   */
+  public Span beginFrameworkSummary(String framework, CharSequence builderName) {
+    return NONE;
+  }
+
+  /**
+   * Begins the evaluation of a @CalledMethodsPredicate.
+   *
+   * @param predicate the predicate
+   * @return the event
+   */
+  public Span beginPredicateEvaluation(CharSequence predicate) {
+    return NONE;
+  }
+}
@@ -0,0 +1,217 @@
+package org.checkerframework.checker.objectconstruction;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import org.checkerframework.javacutil.UserError;
+
+/**
+ * A baseline of known finalizer.invocation.invalid findings, which are not reported again. A
+ * finding is identified by a 64-bit fingerprint of its source file, its enclosing method, the type
+ * of the receiver, and the missing methods, so that it survives edits that only move it within its
+ * method. A baseline file holds the sorted fingerprints after a small header; it is loaded into an
+ * open-addressing hash set of primitive longs.
+ *
+ * <p>The same class records the fingerprints of the findings of the current run, when a new
+ * baseline is to be written.
+ */
+final class FindingsBaseline {
+
+  /** The first bytes of a baseline file. */
+  private static final int MAGIC = 0x4F43_424C;
+
+  private static final int VERSION = 1;
+
+  private static final URI WORKING_DIRECTORY = Paths.get("").toAbsolutePath().toUri();
+
+  /** Marks an empty slot of {@link #slots}; a fingerprint of 0 is stored as 1. */
+  private static final long EMPTY = 0;
+
+  /** The fingerprints, in an open-addressing table whose length is a power of two. */
+  private long[] slots;
+
+  private int size = 0;
+
+  /** The number of findings that {@link #contains} found in the baseline. */
+  private int hits = 0;
+
+  private FindingsBaseline(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+    slots = new long[capacity];
+  }
+
+  /** @return an empty baseline, to which the findings of the current run are added */
+  static FindingsBaseline empty() {
+    return new FindingsBaseline(1024);
+  }
+
+  /**
+   * Reads a baseline file.
+   *
+   * @param file a file written by {@link #write}
+   * @return the baseline in the file
+   */
+  static FindingsBaseline load(Path file) {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.remaining() < 12 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+        throw new UserError("%s is not a baseline file of version %d", file, VERSION);
+      }
+      int count = buffer.getInt();
+      LongBuffer fingerprints = buffer.asLongBuffer();
+      if (fingerprints.remaining() < count) {
+        throw new UserError("Baseline file %s is truncated", file);
+      }
+      FindingsBaseline result = new FindingsBaseline(count);
+      for (int i = 0; i < count; i++) {
+        result.add(fingerprints.get(i));
+      }
+      return result;
+    } catch (IOException e) {
+      throw new UserError("Cannot read baseline file %s: %s", file, e.getMessage());
+    }
+  }
+
+  /**
+   * Computes the fingerprint of a finding, with the 64-bit FNV-1a hash of its parts.
+   *
+   * @param file the source file, relative to the working directory if it is under it
+   * @param enclosingMethod the enclosing method, or class if the finding is not in a method
+   * @param receiverType the erased type of the receiver
+   * @param missingMethods the methods that have not been called, in any order
+   * @return the fingerprint of the finding
+   */
+  static long fingerprint(
+      String file, String enclosingMethod, String receiverType, List<String> missingMethods) {
+    long hash = 0xcbf29ce484222325L;
+    hash = hash(hash, file);
+    hash = hash(hash, enclosingMethod);
+    hash = hash(hash, receiverType);
+    // The order of the missing methods follows the lattice, which depends on the order in which
+    // annotations were created; sorting them keeps the fingerprint stable across runs.
+    for (String method : new TreeSet<>(missingMethods)) {
+      hash = hash(hash, method);
+    }
+    return hash;
+  }
+
+  private static long hash(long hash, String part) {
+    for (byte b : part.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b & 0xFF;
+      hash *= 0x100000001b3L;
+    }
+    // Separate the parts, so that moving characters from one part to the next changes the hash.
+    hash ^= 0xFF;
+    hash *= 0x100000001b3L;
+    return hash;
+  }
+
+  /** @return whether the baseline contains a finding; counts the hits */
+  boolean contains(long fingerprint) {
+    if (fingerprint == EMPTY) {
+      fingerprint = 1;
+    }
+    int mask = slots.length - 1;
+    for (int i = mix(fingerprint) & mask; slots[i] != EMPTY; i = (i + 1) & mask) {
+      if (slots[i] == fingerprint) {
+        hits++;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Adds a finding to the baseline. */
+  void add(long fingerprint) {
+    if (fingerprint == EMPTY) {
+      fingerprint = 1;
+    }
+    if (2 * (size + 1) > slots.length) {
+      long[] old = slots;
+      slots = new long[old.length * 2];
+      for (long f : old) {
+        if (f != EMPTY) {
+          insert(f);
+        }
+      }
+    }
+    if (insert(fingerprint)) {
+      size++;
+    }
+  }
+
+  /** @return whether {@code fingerprint} was not in the table yet */
+  private boolean insert(long fingerprint) {
+    int mask = slots.length - 1;
+    int i = mix(fingerprint) & mask;
+    for (; slots[i] != EMPTY; i = (i + 1) & mask) {
+      if (slots[i] == fingerprint) {
+        return false;
+      }
+    }
+    slots[i] = fingerprint;
+    return true;
+  }
+
+  /** @return well-distributed low bits, in case fingerprints come from a weaker hash */
+  private static int mix(long fingerprint) {
+    long h = fingerprint * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  /**
+   * Writes the baseline to a file that {@link #load} can read. The fingerprints are sorted, so that
+   * the file does not depend on the order in which findings were reported.
+   *
+   * @param file the file to write
+   */
+  void write(Path file) {
+    long[] fingerprints = new long[size];
+    int n = 0;
+    for (long f : slots) {
+      if (f != EMPTY) {
+        fingerprints[n++] = f;
+      }
+    }
+    Arrays.sort(fingerprints);
+    try (OutputStream out = Files.newOutputStream(file)) {
+      DataOutputStream data = new DataOutputStream(out);
+      data.writeInt(MAGIC);
+      data.writeInt(VERSION);
+      data.writeInt(fingerprints.length);
+      for (long f : fingerprints) {
+        data.writeLong(f);
+      }
+      data.flush();
+    } catch (IOException e) {
+      throw new UserError("Cannot write baseline file %s: %s", file, e.getMessage());
+    }
+  }
+
+  /**
+   * @param source the URI of a source file
+   * @return the path of the file relative to the working directory if it is under it, so that
+   *     fingerprints do not depend on where the project is checked out
+   */
+  static String relativeFileName(URI source) {
+    URI relative = WORKING_DIRECTORY.relativize(source);
+    return relative.isAbsolute() ? source.toString() : relative.getPath();
+  }
+
+  @Override
+  public String toString() {
+    return size + " known findings, " + hits + " not reported";
+  }
+}
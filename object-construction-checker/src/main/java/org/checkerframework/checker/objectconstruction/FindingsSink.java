@@ -0,0 +1,172 @@
+package org.checkerframework.checker.objectconstruction;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.javacutil.UserError;
+
+/**
+ * Streams the findings of the checker to a file, so that tools do not have to scrape javac's
+ * output. A file whose name ends in {@code .sarif} receives a SARIF 2.1.0 log; any other file
+ * receives one JSON object per finding and line. Each finding is written as soon as it is reported.
+ */
+final class FindingsSink {
+
+  private final Writer out;
+
+  private final boolean sarif;
+
+  /** Whether a finding has been written, which a SARIF log needs to separate the results. */
+  private boolean written = false;
+
+  private FindingsSink(Writer out, boolean sarif) {
+    this.out = out;
+    this.sarif = sarif;
+  }
+
+  /**
+   * Creates the file and starts the log.
+   *
+   * @param file the file to write the findings to
+   * @return a sink that writes to {@code file}
+   */
+  static FindingsSink open(Path file) {
+    boolean sarif = file.getFileName().toString().endsWith(".sarif");
+    try {
+      BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+      if (sarif) {
+        out.write(
+            "{\"version\":\"2.1.0\","
+                + "\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\","
+                + "\"runs\":[{\"tool\":{\"driver\":{\"name\":\"Object Construction Checker\"}},"
+                + "\"results\":[");
+      }
+      return new FindingsSink(out, sarif);
+    } catch (IOException e) {
+      throw new UserError("Cannot write findings to %s: %s", file, e.getMessage());
+    }
+  }
+
+  /**
+   * Writes a finding.
+   *
+   * @param key the message key, such as finalizer.invocation.invalid
+   * @param error whether the finding is an error rather than a warning
+   * @param message the formatted message
+   * @param uri the URI of the source file, or null if the finding has no location
+   * @param line the 1-based line of the finding, if it has a location
+   * @param column the 1-based column of the finding, if it has a location
+   * @param missingMethods for finalizer.invocation.invalid, the methods that have not been called
+   */
+  void write(
+      String key,
+      boolean error,
+      String message,
+      @Nullable String uri,
+      long line,
+      long column,
+      @Nullable List<String> missingMethods) {
+    StringBuilder json = new StringBuilder(256);
+    String level = error ? "error" : "warning";
+    if (sarif) {
+      if (written) {
+        json.append(',');
+      }
+      json.append("{\"ruleId\":").append(quote(key));
+      json.append(",\"level\":").append(quote(level));
+      json.append(",\"message\":{\"text\":").append(quote(message)).append('}');
+      if (uri != null) {
+        json.append(",\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{\"uri\":");
+        json.append(quote(uri)).append("},\"region\":{\"startLine\":").append(line);
+        json.append(",\"startColumn\":").append(column).append("}}}]");
+      }
+      if (missingMethods != null) {
+        json.append(",\"properties\":{\"missingMethods\":");
+        appendArray(json, missingMethods);
+        json.append('}');
+      }
+      json.append('}');
+    } else {
+      json.append("{\"key\":").append(quote(key));
+      json.append(",\"level\":").append(quote(level));
+      json.append(",\"message\":").append(quote(message));
+      if (uri != null) {
+        json.append(",\"file\":").append(quote(uri));
+        json.append(",\"line\":").append(line);
+        json.append(",\"column\":").append(column);
+      }
+      if (missingMethods != null) {
+        json.append(",\"missingMethods\":");
+        appendArray(json, missingMethods);
+      }
+      json.append("}\n");
+    }
+    try {
+      out.write(json.toString());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    written = true;
+  }
+
+  /** Ends the log and closes the file. */
+  void close() {
+    try {
+      if (sarif) {
+        out.write("]}]}\n");
+      }
+      out.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void appendArray(StringBuilder json, List<String> values) {
+    json.append('[');
+    for (int i = 0; i < values.size(); i++) {
+      if (i > 0) {
+        json.append(',');
+      }
+      json.append(quote(values.get(i)));
+    }
+    json.append(']');
+  }
+
+  /** @return {@code s} as a JSON string literal */
+  private static String quote(String s) {
+    StringBuilder result = new StringBuilder(s.length() + 2).append('"');
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      switch (c) {
+        case '"':
+          result.append("\\\"");
+          break;
+        case '\\':
+          result.append("\\\\");
+          break;
+        case '\n':
+          result.append("\\n");
+          break;
+        case '\r':
+          result.append("\\r");
+          break;
+        case '\t':
+          result.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            result.append(String.format("\\u%04x", (int) c));
+          } else {
+            result.append(c);
+          }
+      }
+    }
+    return result.append('"').toString();
+  }
+}
@@ -0,0 +1,203 @@
+package org.checkerframework.checker.objectconstruction;
+
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.MethodInvocationTree;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.checker.objectconstruction.framework.FrameworkSupport;
+import org.checkerframework.javacutil.AnnotationUtils;
+import org.checkerframework.javacutil.ElementUtils;
+import org.checkerframework.javacutil.TreeUtils;
+
+/**
+ * The facts about a single method invocation that the tree annotator, the transfer function and the
+ * visitor all need. Each fact is computed the first time it is requested and then reused, which
+ * matters most for the transfer function because it may visit the same invocation many times while
+ * the dataflow analysis iterates to a fixpoint.
+ *
+ * <p>Records are created and cached by {@link
+ * ObjectConstructionAnnotatedTypeFactory#getInvocationRecord}.
+ */
+final class InvocationRecord {
+
+  private final ObjectConstructionAnnotatedTypeFactory atypeFactory;
+
+  private final MethodInvocationTree tree;
+
+  private @Nullable ExecutableElement element;
+
+  private @Nullable String methodName;
+
+  private @Nullable String adjustedMethodName;
+
+  private @Nullable Boolean returnsThis;
+
+  private @Nullable Boolean isBuildMethod;
+
+  private @Nullable Boolean isTracked;
+
+  /** Whether {@link #receiverChain} has been computed; null is a valid value for it. */
+  private boolean hasReceiverChain = false;
+
+  private ObjectConstructionTransfer.@Nullable ReceiverChain receiverChain;
+
+  /** Whether {@link #chainBase} has been computed; null is a valid value for it. */
+  private boolean hasChainBase = false;
+
+  private @Nullable ExpressionTree chainBase;
+
+  /** The type of the base of the chain that {@link #chainType} was computed from. */
+  private @Nullable AnnotationMirror chainTypeBase;
+
+  private @Nullable AnnotationMirror chainType;
+
+  InvocationRecord(ObjectConstructionAnnotatedTypeFactory atypeFactory, MethodInvocationTree tree) {
+    this.atypeFactory = atypeFactory;
+    this.tree = tree;
+  }
+
+  /** @return the invoked method */
+  ExecutableElement getElement() {
+    if (element == null) {
+      element = TreeUtils.elementFromUse(tree);
+    }
+    return element;
+  }
+
+  /** @return the simple name of the invoked method */
+  String getMethodName() {
+    if (methodName == null) {
+      methodName = getElement().getSimpleName().toString();
+    }
+    return methodName;
+  }
+
+  /**
+   * Returns the name of the method that this invocation should be considered as calling, which
+   * differs from {@link #getMethodName} only when the Value Checker identifies an equivalent call.
+   *
+   * @return the method name to record as called
+   */
+  String getAdjustedMethodName() {
+    if (adjustedMethodName == null) {
+      adjustedMethodName = atypeFactory.adjustMethodNameUsingValueChecker(getMethodName(), tree);
+    }
+    return adjustedMethodName;
+  }
+
+  /** @return whether the invoked method returns its receiver */
+  boolean returnsThis() {
+    if (returnsThis == null) {
+      returnsThis = atypeFactory.returnsThis(getElement());
+    }
+    return returnsThis;
+  }
+
+  /** @return whether the invoked method is the build() method of a framework-generated builder */
+  boolean isBuildMethod() {
+    if (isBuildMethod == null) {
+      isBuildMethod = false;
+      TypeElement enclosingClass = (TypeElement) getElement().getEnclosingElement();
+      for (FrameworkSupport frameworkSupport :
+          atypeFactory.getFrameworkSupportsFor(enclosingClass)) {
+        if (frameworkSupport.isBuilderBuildMethod(getElement())) {
+          isBuildMethod = true;
+          break;
+        }
+      }
+    }
+    return isBuildMethod;
+  }
+
+  /**
+   * Returns whether this call should be recorded in the type of its receiver, which is false if no
+   * requirement that may apply to the receiver mentions the method. See {@link RelevanceFilter}.
+   *
+   * @return whether the transfer function and the tree annotator should record this call
+   */
+  boolean isTracked() {
+    if (isTracked == null) {
+      ExpressionTree receiverTree = TreeUtils.getReceiverTree(tree.getMethodSelect());
+      TypeMirror receiverType =
+          receiverTree != null
+              ? TreeUtils.typeOf(receiverTree)
+              : ElementUtils.enclosingClass(getElement()).asType();
+      isTracked =
+          atypeFactory.getRelevanceFilter().isRelevant(receiverType, getAdjustedMethodName());
+    }
+    return isTracked;
+  }
+
+  /** @return whether {@link #setReceiverChain} has been called */
+  boolean hasReceiverChain() {
+    return hasReceiverChain;
+  }
+
+  /** @return the receivers to update when this method is called; see {@link #setReceiverChain} */
+  ObjectConstructionTransfer.@Nullable ReceiverChain getReceiverChain() {
+    return receiverChain;
+  }
+
+  /**
+   * Records the receivers whose type the transfer function updates when this method is called. They
+   * depend only on the shape of the call chain, so they are computed once per invocation.
+   *
+   * @param receiverChain the receivers, or null if there are none
+   */
+  void setReceiverChain(ObjectConstructionTransfer.@Nullable ReceiverChain receiverChain) {
+    this.receiverChain = receiverChain;
+    this.hasReceiverChain = true;
+  }
+
+  /** @return whether {@link #setChainBase} has been called */
+  boolean hasChainBase() {
+    return hasChainBase;
+  }
+
+  /** @return the base of the fluent chain that ends in this call; see {@link #setChainBase} */
+  @Nullable
+  ExpressionTree getChainBase() {
+    return chainBase;
+  }
+
+  /**
+   * Records the base of the fluent chain that ends in this call, which must return @This: the
+   * receiver of the innermost call of the chain to a method that returns @This.
+   *
+   * @param chainBase the base, or null if the innermost call has an implicit receiver
+   */
+  void setChainBase(@Nullable ExpressionTree chainBase) {
+    this.chainBase = chainBase;
+    this.hasChainBase = true;
+  }
+
+  /**
+   * Returns the type of this call that was computed from the given type of the base of its chain.
+   *
+   * @param baseAnno the current type of the base of the chain
+   * @return the cached type of this call, or null if it was computed from a different type or has
+   *     not been computed
+   */
+  @Nullable
+  AnnotationMirror getChainType(AnnotationMirror baseAnno) {
+    if (chainTypeBase == null
+        || (chainTypeBase != baseAnno && !AnnotationUtils.areSame(chainTypeBase, baseAnno))) {
+      return null;
+    }
+    return chainType;
+  }
+
+  /**
+   * Caches the type of this call.
+   *
+   * @param baseAnno the type of the base of the chain that the type was computed from
+   * @param chainType the type of this call
+   */
+  void setChainType(AnnotationMirror baseAnno, AnnotationMirror chainType) {
+    this.chainTypeBase = baseAnno;
+    this.chainType = chainType;
+  }
+}
@@ -0,0 +1,225 @@
+package org.checkerframework.checker.objectconstruction;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Java Flight Recorder events of the checker. Only loaded by {@link CheckerEvents#INSTANCE}
+ * when the JVM has the {@code jdk.jfr} module.
+ */
+final class JfrCheckerEvents extends CheckerEvents {
+
+  private static final EventType CLASS_CHECK = EventType.getEventType(ClassCheckEvent.class);
+
+  private static final EventType TRANSFER = EventType.getEventType(TransferEvent.class);
+
+  private static final EventType DATAFLOW = EventType.getEventType(DataflowEvent.class);
+
+  private static final EventType FRAMEWORK_SUMMARY =
+      EventType.getEventType(FrameworkSummaryEvent.class);
+
+  private static final EventType PREDICATE_EVALUATION =
+      EventType.getEventType(PredicateEvaluationEvent.class);
+
+  @Override
+  public Span beginClassCheck(CharSequence className) {
+    if (!CLASS_CHECK.isEnabled()) {
+      return NONE;
+    }
+    ClassCheckEvent event = new ClassCheckEvent();
+    event.className = className.toString();
+    return new EventSpan(event);
+  }
+
+  @Override
+  public Span beginTransfer(CharSequence methodName) {
+    if (!TRANSFER.isEnabled()) {
+      return NONE;
+    }
+    TransferEvent event = new TransferEvent();
+    event.methodName = methodName.toString();
+    return new EventSpan(event);
+  }
+
+  @Override
+  public Span beginDataflow(String kind) {
+    if (!DATAFLOW.isEnabled()) {
+      return NONE;
+    }
+    DataflowEvent event = new DataflowEvent();
+    event.kind = kind;
+    return new EventSpan(event);
+  }
+
+  @Override
+  public Span beginFrameworkSummary(String framework, CharSequence builderName) {
+    if (!FRAMEWORK_SUMMARY.isEnabled()) {
+      return NONE;
+    }
+    FrameworkSummaryEvent event = new FrameworkSummaryEvent();
+    event.framework = framework;
+    event.builderName = builderName.toString();
+    return new EventSpan(event);
+  }
+
+  @Override
+  public Span beginPredicateEvaluation(CharSequence predicate) {
+    if (!PREDICATE_EVALUATION.isEnabled()) {
+      return NONE;
+    }
+    PredicateEvaluationEvent event = new PredicateEvaluationEvent();
+    event.predicate = predicate.toString();
+    return new EventSpan(event);
+  }
+
+  /** A span that is recorded as an event. */
+  private static final class EventSpan extends Span {
+
+    private final CheckerEvent event;
+
+    EventSpan(CheckerEvent event) {
+      this.event = event;
+      event.begin();
+    }
+
+    @Override
+    public boolean isRecording() {
+      return true;
+    }
+
+    @Override
+    public void setSizes(int size, int otherSize) {
+      event.setSizes(size, otherSize);
+    }
+
+    @Override
+    public void setName(CharSequence name) {
+      event.setName(name.toString());
+    }
+
+    @Override
+    public void end() {
+      event.commit();
+    }
+  }
+
+  /** An event of the checker, which may carry the sizes of the sets involved. */
+  @Category("Object Construction Checker")
+  abstract static class CheckerEvent extends Event {
+    void setSizes(int size, int otherSize) {}
+
+    void setName(String name) {}
+  }
+
+  @Name("org.checkerframework.objectconstruction.ClassCheck")
+  @Label("Check Class")
+  @Description("Type-checking of a top-level class by the Object Construction Checker")
+  static final class ClassCheckEvent extends CheckerEvent {
+    @Label("Class")
+    String className;
+  }
+
+  @Name("org.checkerframework.objectconstruction.Transfer")
+  @Label("Transfer Method Call")
+  @Description("The dataflow transfer function of a method call")
+  static final class TransferEvent extends CheckerEvent {
+    @Label("Method")
+    String methodName;
+
+    @Label("Called Methods")
+    @Description(
+        "The number of methods known to be called on the receiver after the call, or that its"
+            + " predicate depends on")
+    int calledMethods;
+
+    @Label("Updated Receivers")
+    @Description("The receivers in the chain of calls whose type was updated")
+    int updatedReceivers;
+
+    @Override
+    void setSizes(int size, int otherSize) {
+      calledMethods = size;
+      updatedReceivers = otherSize;
+    }
+  }
+
+  @Name("org.checkerframework.objectconstruction.Dataflow")
+  @Label("Dataflow Analysis")
+  @Description("The dataflow analysis of a method, a lambda, or the initializers of a class")
+  static final class DataflowEvent extends CheckerEvent {
+    @Label("Kind")
+    @Description("METHOD, LAMBDA, or ARBITRARY_CODE for initializers")
+    String kind;
+
+    @Label("Code")
+    @Description("The method, the method that contains the lambda, or the class")
+    String code;
+
+    @Label("Blocks")
+    @Description("The number of basic blocks of the control flow graph")
+    int blocks;
+
+    @Label("Method Call Transfers")
+    @Description("The runs of the transfer function for method calls, which grow with iterations")
+    int transfers;
+
+    @Override
+    void setSizes(int size, int otherSize) {
+      blocks = size;
+      transfers = otherSize;
+    }
+
+    @Override
+    void setName(String name) {
+      code = name;
+    }
+  }
+
+  @Name("org.checkerframework.objectconstruction.FrameworkSummary")
+  @Label("Framework Builder Summary")
+  @Description("Computation of the methods that must be called on a framework-generated builder")
+  static final class FrameworkSummaryEvent extends CheckerEvent {
+    @Label("Framework")
+    String framework;
+
+    @Label("Builder")
+    String builderName;
+
+    @Label("Required Methods")
+    int requiredMethods;
+
+    @Override
+    void setSizes(int size, int otherSize) {
+      requiredMethods = size;
+    }
+  }
+
+  @Name("org.checkerframework.objectconstruction.PredicateEvaluation")
+  @Label("Evaluate Predicate")
+  @Description("Evaluation of a @CalledMethodsPredicate against a set of methods or a predicate")
+  static final class PredicateEvaluationEvent extends CheckerEvent {
+    @Label("Predicate")
+    String predicate;
+
+    @Label("Predicate Methods")
+    @Description("The number of methods that the predicate depends on")
+    int predicateMethods;
+
+    @Label("Other Methods")
+    @Description(
+        "The number of methods of the other operand: the called methods that the predicate is"
+            + " evaluated against, the methods that the other predicate depends on, or the methods"
+            + " of the type after a call")
+    int otherMethods;
+
+    @Override
+    void setSizes(int size, int otherSize) {
+      predicateMethods = size;
+      otherMethods = otherSize;
+    }
+  }
+}
@@ -0,0 +1,302 @@
+package org.checkerframework.checker.objectconstruction;
+
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.Tree;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.javacutil.BugInCF;
+import org.checkerframework.javacutil.ElementUtils;
+import org.checkerframework.javacutil.TreeUtils;
+import org.checkerframework.javacutil.UserError;
+
+/**
+ * Rules that make a call count as a call to a different method, depending on the constant values in
+ * its arguments. For example, calling {@code withFilters(new Filter("owner"))} on a {@code
+ * DescribeImagesRequest} has the same effect as calling {@code withOwners}.
+ *
+ * <p>The rules in the resource {@value #DEFAULT_RULES} next to this class, such as the rules for
+ * EC2, are always read. More rules are read from files with the extension {@value #FILE_EXTENSION}
+ * that sit next to the stub files passed with {@code -Astubs}: a stub directory contributes every
+ * rule file in it, and a stub file {@code X.astub} contributes {@code X.aliases}. Each non-blank
+ * line that does not start with {@code #} is a rule of the form
+ *
+ * <pre>{@code
+ * C#m(A.k("key")) -> alias
+ * }</pre>
+ *
+ * where C and A are fully-qualified class names. The rule states that a call to a method of C named
+ * m counts as a call to {@code alias} if one of its arguments is an object of class A whose key is
+ * the constant {@code "key"}. The argument may be wrapped in calls on the new object and in a call
+ * to {@code Collections.singletonList}. The key is the first argument of the innermost call to a
+ * method named k, or, if there is none, the first argument of the constructor. So the rule above
+ * applies to both {@code m(new A("key"))} and {@code m(new A().k("key").v(...))}.
+ *
+ * <p>Rules are indexed by the class that declares the method, so a call that no rule applies to
+ * costs a single hash lookup.
+ */
+final class MethodAliasRules {
+
+  /** The extension of rule files. */
+  static final String FILE_EXTENSION = ".aliases";
+
+  /** The resource that holds the rules that are always read. */
+  static final String DEFAULT_RULES = "default" + FILE_EXTENSION;
+
+  /** The syntax of a rule. */
+  private static final Pattern RULE =
+      Pattern.compile(
+          "([\\w.$]+)#(\\w+)\\(\\s*([\\w.$]+)\\.(\\w+)\\(\\s*\"([^\"]*)\"\\s*\\)\\s*\\)"
+              + "\\s*->\\s*(\\w+)");
+
+  private final ProcessingEnvironment processingEnv;
+
+  private final ExecutableElement collectionsSingletonList;
+
+  /** The rules, by the class that declares the method and then by method name. */
+  private final Map<TypeElement, Map<String, List<ArgumentRule>>> rules = new HashMap<>();
+
+  private MethodAliasRules(ProcessingEnvironment processingEnv) {
+    this.processingEnv = processingEnv;
+    this.collectionsSingletonList =
+        TreeUtils.getMethod("java.util.Collections", "singletonList", 1, processingEnv);
+  }
+
+  /**
+   * Reads the default rules and the rule files next to the given stub files.
+   *
+   * @param stubs the value of the {@code -Astubs} option, or null if it was not supplied
+   * @param processingEnv the processing environment, used to look up the classes in the rules
+   * @return the rules
+   */
+  static MethodAliasRules load(@Nullable String stubs, ProcessingEnvironment processingEnv) {
+    MethodAliasRules result = new MethodAliasRules(processingEnv);
+    result.parse(readDefaultRules(), DEFAULT_RULES);
+    if (stubs == null) {
+      return result;
+    }
+    for (String stub : stubs.split(File.pathSeparator)) {
+      if (stub.isEmpty()) {
+        continue;
+      }
+      for (Path file : ruleFilesFor(Paths.get(stub))) {
+        try {
+          result.parse(Files.readAllLines(file, StandardCharsets.UTF_8), file.toString());
+        } catch (IOException e) {
+          throw new UserError("Cannot read method alias rules from %s: %s", file, e.getMessage());
+        }
+      }
+    }
+    return result;
+  }
+
+  /** @return the lines of the {@value #DEFAULT_RULES} resource */
+  private static List<String> readDefaultRules() {
+    InputStream in = MethodAliasRules.class.getResourceAsStream(DEFAULT_RULES);
+    if (in == null) {
+      throw new BugInCF("Cannot find the resource " + DEFAULT_RULES);
+    }
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+      return reader.lines().collect(Collectors.toList());
+    } catch (IOException e) {
+      throw new BugInCF("Cannot read the resource " + DEFAULT_RULES, e);
+    }
+  }
+
+  /** @return the rule files that belong to the given stub file or directory */
+  private static List<Path> ruleFilesFor(Path stub) {
+    if (Files.isDirectory(stub)) {
+      try (Stream<Path> files = Files.walk(stub)) {
+        return files
+            .filter(file -> file.toString().endsWith(FILE_EXTENSION))
+            .sorted()
+            .collect(Collectors.toList());
+      } catch (IOException e) {
+        throw new UserError("Cannot list method alias rules in %s: %s", stub, e.getMessage());
+      }
+    }
+    String name = stub.toString();
+    if (name.endsWith(".astub")) {
+      Path rules = Paths.get(name.substring(0, name.length() - ".astub".length()) + FILE_EXTENSION);
+      if (Files.isRegularFile(rules)) {
+        return Collections.singletonList(rules);
+      }
+    }
+    return Collections.emptyList();
+  }
+
+  /**
+   * Adds the rules in the given lines. Rules about classes that are not on the classpath are
+   * dropped, because they cannot apply to any call.
+   *
+   * @param lines the lines of a rule file
+   * @param source the name of the file, for error messages
+   */
+  private void parse(List<String> lines, String source) {
+    for (int i = 0; i < lines.size(); i++) {
+      String line = lines.get(i).trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      Matcher matcher = RULE.matcher(line);
+      if (!matcher.matches()) {
+        throw new UserError(
+            "%s:%d: malformed method alias rule \"%s\"; expected C#m(A.k(\"key\")) -> alias",
+            source, i + 1, line);
+      }
+      TypeElement declaringClass = processingEnv.getElementUtils().getTypeElement(matcher.group(1));
+      TypeElement argumentClass = processingEnv.getElementUtils().getTypeElement(matcher.group(3));
+      if (declaringClass == null || argumentClass == null) {
+        continue;
+      }
+      List<ArgumentRule> methodRules =
+          rules
+              .computeIfAbsent(declaringClass, c -> new HashMap<>())
+              .computeIfAbsent(matcher.group(2), m -> new ArrayList<>());
+      ArgumentRule argumentRule = null;
+      for (ArgumentRule r : methodRules) {
+        if (r.argumentClass.equals(argumentClass) && r.keyMethod.equals(matcher.group(4))) {
+          argumentRule = r;
+          break;
+        }
+      }
+      if (argumentRule == null) {
+        argumentRule = new ArgumentRule(argumentClass, matcher.group(4));
+        methodRules.add(argumentRule);
+      }
+      argumentRule.aliases.put(matcher.group(5), matcher.group(6));
+    }
+  }
+
+  /** @return whether no rule applies to any class on the classpath */
+  boolean isEmpty() {
+    return rules.isEmpty();
+  }
+
+  /**
+   * Returns whether any rule applies to the methods of the given class.
+   *
+   * @param type a class
+   * @return whether calls to the methods of {@code type} may be aliased
+   */
+  boolean hasRulesFor(TypeElement type) {
+    return rules.containsKey(type);
+  }
+
+  /**
+   * Returns the method that a call should be considered as calling, according to the rules.
+   *
+   * @param tree a method invocation
+   * @param method the invoked method
+   * @param methodName the name of the invoked method
+   * @param constantValue returns the exact string value of an expression, or null if it is not a
+   *     single known string; only called if a rule applies to the invoked method
+   * @return the alias of the call, or null if no rule applies
+   */
+  @Nullable
+  String aliasOf(
+      MethodInvocationTree tree,
+      ExecutableElement method,
+      String methodName,
+      Function<ExpressionTree, @Nullable String> constantValue) {
+    Map<String, List<ArgumentRule>> classRules = rules.get(ElementUtils.enclosingClass(method));
+    if (classRules == null) {
+      return null;
+    }
+    List<ArgumentRule> methodRules = classRules.get(methodName);
+    if (methodRules == null) {
+      return null;
+    }
+    for (ExpressionTree argument : tree.getArguments()) {
+      for (ArgumentRule rule : methodRules) {
+        ExpressionTree keyTree = keyTree(argument, rule);
+        String key = keyTree == null ? null : constantValue.apply(keyTree);
+        String alias = key == null ? null : rule.aliases.get(key);
+        if (alias != null) {
+          return alias;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the expression that sets the key of an argument, as described in the class
+   * documentation.
+   *
+   * @param argument an argument of a call that the rule may apply to
+   * @param rule the rule
+   * @return the expression whose value is the key, or null if the argument does not construct an
+   *     object of the rule's argument class
+   */
+  private @Nullable ExpressionTree keyTree(ExpressionTree argument, ArgumentRule rule) {
+    ExpressionTree keyTree = null;
+    ExpressionTree tree = argument;
+    // Look through calls on the new object, such as
+    // new Filter().withName("owner").withValues("..."), and into calls to
+    // Collections.singletonList(). The calls are visited outermost first, so the last key method
+    // seen is the innermost one.
+    while (tree != null && tree.getKind() == Tree.Kind.METHOD_INVOCATION) {
+      MethodInvocationTree call = (MethodInvocationTree) tree;
+      if (TreeUtils.methodName(call).contentEquals(rule.keyMethod)
+          && !call.getArguments().isEmpty()) {
+        keyTree = call.getArguments().get(0);
+      }
+      if (TreeUtils.isMethodInvocation(call, collectionsSingletonList, processingEnv)) {
+        tree = call.getArguments().get(0);
+      } else {
+        tree = TreeUtils.getReceiverTree(call.getMethodSelect());
+      }
+    }
+    if (tree == null || tree.getKind() != Tree.Kind.NEW_CLASS) {
+      return null;
+    }
+    NewClassTree newClass = (NewClassTree) tree;
+    if (!rule.argumentClass.equals(TreeUtils.elementFromUse(newClass).getEnclosingElement())) {
+      return null;
+    }
+    if (keyTree == null && !newClass.getArguments().isEmpty()) {
+      keyTree = newClass.getArguments().get(0);
+    }
+    return keyTree;
+  }
+
+  /** The rules for one method about arguments of one class, keyed by one method. */
+  private static final class ArgumentRule {
+
+    final TypeElement argumentClass;
+
+    final String keyMethod;
+
+    /** The method that a call counts as, by the constant value of the key. */
+    final Map<String, String> aliases = new HashMap<>();
+
+    ArgumentRule(TypeElement argumentClass, String keyMethod) {
+      this.argumentClass = argumentClass;
+      this.keyMethod = keyMethod;
+    }
+  }
+}
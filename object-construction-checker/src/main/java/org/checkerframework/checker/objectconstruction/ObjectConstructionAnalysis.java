@@ -0,0 +1,71 @@
+package org.checkerframework.checker.objectconstruction;
+
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.MethodTree;
+import java.util.List;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import org.checkerframework.common.basetype.BaseTypeChecker;
+import org.checkerframework.dataflow.cfg.ControlFlowGraph;
+import org.checkerframework.dataflow.cfg.UnderlyingAST;
+import org.checkerframework.framework.flow.CFAnalysis;
+import org.checkerframework.framework.flow.CFValue;
+import org.checkerframework.javacutil.ElementUtils;
+import org.checkerframework.javacutil.Pair;
+import org.checkerframework.javacutil.TreeUtils;
+
+/**
+ * The dataflow analysis of the object construction checker. It is the standard analysis, bracketed
+ * by a {@link CheckerEvents} event for each method, lambda, or class initializer that is analyzed.
+ */
+public class ObjectConstructionAnalysis extends CFAnalysis {
+
+  private final ObjectConstructionAnnotatedTypeFactory atypefactory;
+
+  public ObjectConstructionAnalysis(
+      BaseTypeChecker checker,
+      ObjectConstructionAnnotatedTypeFactory factory,
+      List<Pair<VariableElement, CFValue>> fieldValues) {
+    super(checker, factory, fieldValues);
+    this.atypefactory = factory;
+  }
+
+  @Override
+  public void performAnalysis(
+      ControlFlowGraph cfg, List<Pair<VariableElement, CFValue>> fieldValues) {
+    UnderlyingAST ast = cfg.getUnderlyingAST();
+    CheckerEvents.Span span = CheckerEvents.INSTANCE.beginDataflow(ast.getKind().name());
+    try {
+      super.performAnalysis(cfg, fieldValues);
+    } finally {
+      if (span.isRecording()) {
+        span.setName(nameOf(ast));
+        span.setSizes(
+            cfg.getAllBlocks().size(),
+            ((ObjectConstructionTransfer) transferFunction).getMethodCallTransfers());
+      }
+      span.end();
+    }
+  }
+
+  /**
+   * @param ast the analyzed code
+   * @return the qualified name of its method, or of the method that contains the lambda, or of the
+   *     class whose initializers it is
+   */
+  private String nameOf(UnderlyingAST ast) {
+    MethodTree method = atypefactory.getEnclosingMethod(ast);
+    if (method != null) {
+      ExecutableElement element = TreeUtils.elementFromDeclaration(method);
+      return ElementUtils.enclosingClass(element).getQualifiedName() + "#" + element;
+    }
+    ClassTree classTree =
+        ast.getKind() == UnderlyingAST.Kind.ARBITRARY_CODE
+            ? ((UnderlyingAST.CFGStatement) ast).getClassTree()
+            : TreeUtils.enclosingClass(
+                atypefactory.getPath(((UnderlyingAST.CFGLambda) ast).getLambdaTree()));
+    TypeElement element = TreeUtils.elementFromDeclaration(classTree);
+    return element.getQualifiedName().toString();
+  }
+}
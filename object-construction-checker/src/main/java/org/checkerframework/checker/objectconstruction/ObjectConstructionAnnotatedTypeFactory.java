@@ -1,28 +1,38 @@
 package org.checkerframework.checker.objectconstruction;
 
+import com.sun.source.tree.CompilationUnitTree;
 import com.sun.source.tree.ExpressionTree;
 import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
 import com.sun.source.tree.NewClassTree;
 import com.sun.source.tree.Tree;
 import java.lang.annotation.Annotation;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
 import java.util.EnumSet;
-import java.util.LinkedHashSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import org.checkerframework.checker.builder.qual.ReturnsReceiver;
+import org.checkerframework.checker.framework.BinaryStubs;
+import org.checkerframework.checker.framework.BuilderMetadata;
 import org.checkerframework.checker.framework.FrameworkSupportUtils;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.checker.objectconstruction.framework.AutoValueSupport;
+import org.checkerframework.checker.objectconstruction.framework.FrameworkIndex;
 import org.checkerframework.checker.objectconstruction.framework.FrameworkSupport;
 import org.checkerframework.checker.objectconstruction.framework.LombokSupport;
 import org.checkerframework.checker.objectconstruction.qual.CalledMethods;
@@ -31,12 +41,17 @@ import org.checkerframework.checker.objectconstruction.qual.CalledMethodsPredica
 import org.checkerframework.checker.objectconstruction.qual.CalledMethodsTop;
 import org.checkerframework.checker.returnsrcvr.ReturnsRcvrAnnotatedTypeFactory;
 import org.checkerframework.checker.returnsrcvr.ReturnsRcvrChecker;
-import org.checkerframework.checker.returnsrcvr.qual.This;
 import org.checkerframework.common.basetype.BaseAnnotatedTypeFactory;
 import org.checkerframework.common.basetype.BaseTypeChecker;
 import org.checkerframework.common.value.ValueAnnotatedTypeFactory;
 import org.checkerframework.common.value.ValueChecker;
 import org.checkerframework.common.value.qual.StringVal;
+import org.checkerframework.dataflow.cfg.UnderlyingAST;
+import org.checkerframework.framework.flow.CFAbstractAnalysis;
+import org.checkerframework.framework.flow.CFAnalysis;
+import org.checkerframework.framework.flow.CFStore;
+import org.checkerframework.framework.flow.CFTransfer;
+import org.checkerframework.framework.flow.CFValue;
 import org.checkerframework.framework.type.AnnotatedTypeFactory;
 import org.checkerframework.framework.type.AnnotatedTypeMirror;
 import org.checkerframework.framework.type.QualifierHierarchy;
@@ -48,7 +63,9 @@ import org.checkerframework.framework.util.MultiGraphQualifierHierarchy;
 import org.checkerframework.javacutil.AnnotationBuilder;
 import org.checkerframework.javacutil.AnnotationUtils;
 import org.checkerframework.javacutil.ElementUtils;
+import org.checkerframework.javacutil.Pair;
 import org.checkerframework.javacutil.TreeUtils;
+import org.checkerframework.javacutil.UserError;
 
 /**
  * The annotated type factory for the object construction checker. Primarily responsible for the
@@ -62,12 +79,59 @@ public class ObjectConstructionAnnotatedTypeFactory extends BaseAnnotatedTypeFac
   /** The bottom annotation. Package private to permit access from the Transfer class. */
   final AnnotationMirror BOTTOM;
 
-  private final ExecutableElement collectionsSingletonList;
-
   private final boolean useValueChecker;
 
+  /** The Value Checker subchecker that was run, if {@link #useValueChecker} is true. */
+  private final Class<? extends ValueChecker> valueCheckerClass;
+
+  /**
+   * The rules used by {@link #adjustMethodNameUsingValueChecker}, read from the files next to the
+   * stub files. Empty unless {@link #useValueChecker} is true.
+   */
+  private final MethodAliasRules methodAliasRules;
+
   /** The collection of built-in framework support for the object construction checker. */
-  private Collection<FrameworkSupport> frameworkSupports;
+  private final EnumMap<FrameworkSupportUtils.Framework, FrameworkSupport> frameworkSupports =
+      new EnumMap<>(FrameworkSupportUtils.Framework.class);
+
+  /** Decides which framework supports to consult for the methods and constructors of a type. */
+  private final FrameworkIndex frameworkIndex;
+
+  /** Interns every @CalledMethods annotation created by {@link #createCalledMethods}. */
+  private final CalledMethodsAnnotationPool calledMethodsPool;
+
+  /** The bitset representation of @CalledMethods values used by the qualifier hierarchy. */
+  private final CalledMethodsLattice lattice;
+
+  /** Compiles and evaluates @CalledMethodsPredicate arguments. */
+  private final CalledMethodsPredicateEvaluator predicateEvaluator;
+
+  /** The invocation records of the current compilation unit. Cleared by {@link #setRoot}. */
+  private final Map<MethodInvocationTree, InvocationRecord> invocationRecords =
+      new IdentityHashMap<>();
+
+  /** Decides which calls the transfer function and the tree annotator record. */
+  private final RelevanceFilter relevanceFilter;
+
+  /** Interns the @CalledMethodsPredicate annotations; see {@link #createCalledMethodsPredicate}. */
+  private final Map<String, AnnotationMirror> predicatePool = new HashMap<>();
+
+  /** The annotations of library methods that were compiled from stub files. */
+  private final BinaryStubs binaryStubs;
+
+  /** The time spent in each phase, if {@link ObjectConstructionChecker#OC_STATS} is supplied. */
+  private final PhaseStats stats;
+
+  /**
+   * The invocation records inspected while walking fluent call chains, by {@link
+   * #typeOfFluentCall}, {@link #getChainBase} and the transfer function. Reported by {@link
+   * ObjectConstructionChecker#OC_STATS}; it grows linearly with the length of a chain, because each
+   * walk stops at a call whose result is already known.
+   */
+  private long chainLinks = 0;
+
+  /** The times of the analyzed code, if {@link ObjectConstructionChecker#REPORT_SLOWEST} is set. */
+  private final @Nullable SlowestCodeReport slowestCodeReport;
 
   /**
    * Lombok has a flag to generate @CalledMethods annotations, but they used the old package name,
@@ -90,47 +154,349 @@ public class ObjectConstructionAnnotatedTypeFactory extends BaseAnnotatedTypeFac
    */
   public ObjectConstructionAnnotatedTypeFactory(final BaseTypeChecker checker) {
     super(checker);
+    stats =
+        checker.hasOption(ObjectConstructionChecker.OC_STATS)
+            ? PhaseStats.enabled()
+            : PhaseStats.DISABLED;
+    slowestCodeReport =
+        checker.hasOption(ObjectConstructionChecker.REPORT_SLOWEST)
+            ? new SlowestCodeReport(reportSize(checker))
+            : null;
     TOP = AnnotationBuilder.fromClass(elements, CalledMethodsTop.class);
     BOTTOM = AnnotationBuilder.fromClass(elements, CalledMethodsBottom.class);
+    calledMethodsPool = new CalledMethodsAnnotationPool(processingEnv, TOP);
+    lattice = new CalledMethodsLattice(calledMethodsPool, TOP, BOTTOM);
+    predicateEvaluator = new CalledMethodsPredicateEvaluator(lattice);
+    relevanceFilter = new RelevanceFilter(this);
 
     EnumSet<FrameworkSupportUtils.Framework> frameworkSet =
         FrameworkSupportUtils.getFrameworkSet(
-            checker.getOption(ReturnsRcvrChecker.DISABLED_FRAMEWORK_SUPPORTS));
-    frameworkSupports = new ArrayList<FrameworkSupport>();
+            checker.getOption(ReturnsRcvrChecker.DISABLED_FRAMEWORK_SUPPORTS), elements);
 
     for (FrameworkSupportUtils.Framework framework : frameworkSet) {
       switch (framework) {
         case AUTO_VALUE:
-          frameworkSupports.add(new AutoValueSupport(this));
+          frameworkSupports.put(framework, new AutoValueSupport(this));
           break;
         case LOMBOK:
-          frameworkSupports.add(new LombokSupport(this));
+          frameworkSupports.put(framework, new LombokSupport(this));
           break;
       }
     }
+    frameworkIndex =
+        new FrameworkIndex(frameworkSupports.keySet(), BuilderMetadata.instance(processingEnv));
 
     this.useValueChecker = checker.hasOption(ObjectConstructionChecker.USE_VALUE_CHECKER);
-    this.collectionsSingletonList =
-        TreeUtils.getMethod("java.util.Collections", "singletonList", 1, getProcessingEnv());
+    this.valueCheckerClass =
+        ObjectConstructionChecker.valueCheckerClass(
+            checker.getOption(ObjectConstructionChecker.USE_VALUE_CHECKER));
+    this.methodAliasRules =
+        MethodAliasRules.load(useValueChecker ? checker.getOption("stubs") : null, processingEnv);
+    this.binaryStubs =
+        BinaryStubs.instance(processingEnv, checker.getOption(ReturnsRcvrChecker.BINARY_STUBS));
     addAliasedAnnotation(OLD_CALLED_METHODS, CalledMethods.class, true);
     addAliasedAnnotation(OLD_NOT_CALLED_METHODS, TOP);
     this.postInit();
   }
 
   /**
-   * Creates a @CalledMethods annotation whose values are the given strings.
+   * Creates a @CalledMethods annotation whose values are the given strings. Annotations are
+   * interned: every call with the same set of method names returns the same object.
    *
    * @param val the methods that have been called
    * @return an annotation indicating that the given methods have been called
    */
   public AnnotationMirror createCalledMethods(final String... val) {
-    if (val.length == 0) {
-      return TOP;
+    return lattice.annotationOf(lattice.setIdOf(val));
+  }
+
+  /**
+   * Returns the type of an expression after a method has been called on it, given that its type
+   * before the call was a @CalledMethodsPredicate annotation. Rather than forgetting the predicate,
+   * the result is the strongest fact that is known after the call: the predicate held for the
+   * methods called before, whether or not that set already included {@code methodName}, and {@code
+   * methodName} has now been called.
+   *
+   * <p>Package-private to permit calls from {@link ObjectConstructionTransfer}.
+   *
+   * @param predicateAnno a @CalledMethodsPredicate annotation
+   * @param methodName the method that has been called
+   * @return a @CalledMethods annotation if the result is a plain set of called methods, otherwise
+   *     a @CalledMethodsPredicate annotation
+   */
+  AnnotationMirror afterCall(final AnnotationMirror predicateAnno, final String methodName) {
+    stats.enter(PhaseStats.Phase.PREDICATE_EVALUATION);
+    try {
+      String predicate =
+          AnnotationUtils.getElementValue(predicateAnno, "value", String.class, false);
+      CheckerEvents.Span span = CheckerEvents.INSTANCE.beginPredicateEvaluation(predicate);
+      try {
+        AnnotationMirror result = afterCallUninstrumented(predicate, methodName);
+        if (span.isRecording()) {
+          span.setSizes(predicateEvaluator.methodCountOf(predicate), methodCountOf(result));
+        }
+        return result;
+      } finally {
+        span.end();
+      }
+    } finally {
+      stats.exit(PhaseStats.Phase.PREDICATE_EVALUATION);
+    }
+  }
+
+  private AnnotationMirror afterCallUninstrumented(
+      final String predicate, final String methodName) {
+    int before = predicateEvaluator.bddOf(predicate);
+    if (before == CalledMethodsPredicateEvaluator.INVALID) {
+      // The visitor reports unparseable predicates; start over from top.
+      return createCalledMethods(methodName);
+    }
+    CalledMethodsBdd bdd = predicateEvaluator.getBdd();
+    int methodId = lattice.methodIdOf(methodName);
+    int after = bdd.and(bdd.exists(before, methodId), bdd.variable(methodId));
+    if (after == CalledMethodsBdd.FALSE) {
+      // The predicate was unsatisfiable, so this code is unreachable.
+      return BOTTOM;
+    }
+    int[] conjunction = bdd.positiveConjunction(after);
+    if (conjunction != null) {
+      String[] methodNames = new String[conjunction.length];
+      for (int i = 0; i < conjunction.length; i++) {
+        methodNames[i] = lattice.methodNameOf(conjunction[i]);
+      }
+      return createCalledMethods(methodNames);
+    }
+    String expression = predicateEvaluator.toExpression(after);
+    if (expression == null) {
+      return createCalledMethods(methodName);
+    }
+    return createCalledMethodsPredicate(expression);
+  }
+
+  /**
+   * Creates a @CalledMethodsPredicate annotation. Annotations are interned.
+   *
+   * @param expression a predicate over method names
+   * @return an annotation whose value is {@code expression}
+   */
+  private AnnotationMirror createCalledMethodsPredicate(String expression) {
+    AnnotationMirror result = predicatePool.get(expression);
+    if (result == null) {
+      AnnotationBuilder builder =
+          new AnnotationBuilder(processingEnv, CalledMethodsPredicate.class);
+      builder.setValue("value", expression);
+      result = builder.build();
+      predicatePool.put(expression, result);
+    }
+    return result;
+  }
+
+  /**
+   * Adds the @CalledMethods and @CalledMethodsPredicate annotations that binary stub files give a
+   * library method to its type.
+   *
+   * @param t the type of a method that is not declared in source code
+   */
+  private void applyBinaryStubs(AnnotatedTypeMirror.AnnotatedExecutableType t) {
+    for (BinaryStubs.StubAnnotation annotation : binaryStubs.getAnnotations(t.getElement())) {
+      AnnotationMirror anno;
+      switch (annotation.kind) {
+        case CALLED_METHODS:
+          anno = createCalledMethods(annotation.values.toArray(new String[0]));
+          break;
+        case CALLED_METHODS_PREDICATE:
+          if (annotation.values.size() != 1) {
+            continue;
+          }
+          anno = createCalledMethodsPredicate(annotation.values.get(0));
+          break;
+        default:
+          // @This belongs to the Returns Receiver Checker.
+          continue;
+      }
+      AnnotatedTypeMirror target;
+      if (annotation.position == BinaryStubs.RETURN) {
+        target = t.getReturnType();
+      } else if (annotation.position == BinaryStubs.RECEIVER) {
+        target = t.getReceiverType();
+      } else {
+        int index = annotation.position - BinaryStubs.FIRST_PARAMETER;
+        target = index < t.getParameterTypes().size() ? t.getParameterTypes().get(index) : null;
+      }
+      if (target != null) {
+        target.replaceAnnotation(anno);
+      }
+    }
+  }
+
+  /**
+   * Returns the pool that interns @CalledMethods annotations, whose counters report how much
+   * sharing is taking place.
+   *
+   * <p>Package-private to permit access from {@link ObjectConstructionChecker}.
+   */
+  CalledMethodsAnnotationPool getCalledMethodsPool() {
+    return calledMethodsPool;
+  }
+
+  /**
+   * Returns the lattice engine that implements the set operations of the qualifier hierarchy.
+   *
+   * <p>Package-private to permit access from {@link ObjectConstructionTransfer} and {@link
+   * ObjectConstructionChecker}.
+   */
+  CalledMethodsLattice getLattice() {
+    return lattice;
+  }
+
+  /**
+   * Returns the evaluator that caches the compiled form of every @CalledMethodsPredicate argument.
+   *
+   * <p>Package-private to permit access from {@link ObjectConstructionVisitor}.
+   */
+  CalledMethodsPredicateEvaluator getPredicateEvaluator() {
+    return predicateEvaluator;
+  }
+
+  /**
+   * Returns the number of methods that an annotation of the object construction hierarchy is about,
+   * for the sizes of the events of {@link CheckerEvents}: the methods of a @CalledMethods
+   * annotation, or the methods that the predicate of a @CalledMethodsPredicate annotation depends
+   * on. Top and bottom are about no method.
+   *
+   * <p>Package-private to permit calls from {@link ObjectConstructionTransfer}.
+   *
+   * @param anno an annotation in the object construction hierarchy
+   * @return the number of methods it is about
+   */
+  int methodCountOf(AnnotationMirror anno) {
+    switch (lattice.kindOf(anno)) {
+      case CALLED_METHODS:
+        return lattice.sizeOf(lattice.setIdOf(anno));
+      case PREDICATE:
+        return predicateEvaluator.methodCountOf(
+            AnnotationUtils.getElementValue(anno, "value", String.class, false));
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * Returns the shared record of facts about a method invocation, creating it if necessary.
+   *
+   * <p>Package-private to permit calls from {@link ObjectConstructionTransfer} and {@link
+   * ObjectConstructionVisitor}.
+   */
+  InvocationRecord getInvocationRecord(final MethodInvocationTree tree) {
+    InvocationRecord result = invocationRecords.get(tree);
+    if (result == null) {
+      result = new InvocationRecord(this, tree);
+      invocationRecords.put(tree, result);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the filter that decides which calls need to be recorded.
+   *
+   * <p>Package-private to permit access from {@link InvocationRecord} and {@link
+   * ObjectConstructionChecker}.
+   */
+  RelevanceFilter getRelevanceFilter() {
+    return relevanceFilter;
+  }
+
+  /**
+   * Returns the per-phase statistics, which are only collected if {@link
+   * ObjectConstructionChecker#OC_STATS} is supplied.
+   *
+   * <p>Package-private to permit access from {@link ObjectConstructionTransfer} and {@link
+   * ObjectConstructionChecker}.
+   */
+  PhaseStats getStats() {
+    return stats;
+  }
+
+  /**
+   * Counts an invocation record inspected while walking a fluent call chain.
+   *
+   * <p>Package-private to permit calls from {@link ObjectConstructionTransfer}.
+   */
+  void countChainLink() {
+    chainLinks++;
+  }
+
+  /** @return the number of invocation records inspected while walking fluent call chains */
+  long getChainLinks() {
+    return chainLinks;
+  }
+
+  /**
+   * Returns the times of the analyzed code, or null if {@link
+   * ObjectConstructionChecker#REPORT_SLOWEST} is not supplied.
+   */
+  @Nullable
+  SlowestCodeReport getSlowestCodeReport() {
+    return slowestCodeReport;
+  }
+
+  /** @return the number of entries of each ranking of the slowest code */
+  private static int reportSize(BaseTypeChecker checker) {
+    String size = checker.getOption(ObjectConstructionChecker.REPORT_SLOWEST);
+    if (size == null || size.isEmpty()) {
+      return SlowestCodeReport.DEFAULT_SIZE;
+    }
+    try {
+      return Integer.parseInt(size);
+    } catch (NumberFormatException e) {
+      throw new UserError(
+          "-A%s must be a number, not %s", ObjectConstructionChecker.REPORT_SLOWEST, size);
+    }
+  }
+
+  /**
+   * Returns the method whose code a control flow graph is of: the method itself, or the method that
+   * contains a lambda.
+   *
+   * <p>Package-private to permit access from {@link ObjectConstructionAnalysis} and {@link
+   * ObjectConstructionTransfer}.
+   *
+   * @param ast the code of a control flow graph
+   * @return the method, or null if the code is not in a method
+   */
+  @Nullable
+  MethodTree getEnclosingMethod(UnderlyingAST ast) {
+    switch (ast.getKind()) {
+      case METHOD:
+        return ((UnderlyingAST.CFGMethod) ast).getMethod();
+      case LAMBDA:
+        return TreeUtils.enclosingMethod(getPath(((UnderlyingAST.CFGLambda) ast).getLambdaTree()));
+      default:
+        return null;
     }
-    AnnotationBuilder builder = new AnnotationBuilder(processingEnv, CalledMethods.class);
-    Arrays.sort(val);
-    builder.setValue("value", val);
-    return builder.build();
+  }
+
+  @Override
+  protected CFAnalysis createFlowAnalysis(List<Pair<VariableElement, CFValue>> fieldValues) {
+    return new ObjectConstructionAnalysis(checker, this, fieldValues);
+  }
+
+  /**
+   * Creates the transfer function. The Checker Framework would look for a constructor that takes an
+   * {@link ObjectConstructionAnalysis}, because that is the class of the analysis.
+   */
+  @Override
+  public CFTransfer createFlowTransferFunction(
+      CFAbstractAnalysis<CFValue, CFStore, CFTransfer> analysis) {
+    return new ObjectConstructionTransfer((CFAnalysis) analysis);
+  }
+
+  @Override
+  public void setRoot(@Nullable CompilationUnitTree root) {
+    super.setRoot(root);
+    // Trees of other compilation units will not be visited again.
+    invocationRecords.clear();
+    relevanceFilter.setRoot(root);
   }
 
   @Override
@@ -151,7 +517,13 @@ public class ObjectConstructionAnnotatedTypeFactory extends BaseAnnotatedTypeFac
     return new ObjectConstructionQualifierHierarchy(factory);
   }
 
-  private ReturnsRcvrAnnotatedTypeFactory getReturnsRcvrAnnotatedTypeFactory() {
+  /**
+   * Returns the type factory of the Returns Receiver Checker, which decides whether a method
+   * returns its receiver.
+   *
+   * <p>Package-private to permit access from {@link ObjectConstructionChecker}.
+   */
+  ReturnsRcvrAnnotatedTypeFactory getReturnsRcvrAnnotatedTypeFactory() {
     return getTypeFactoryOfSubchecker(ReturnsRcvrChecker.class);
   }
 
@@ -162,13 +534,22 @@ public class ObjectConstructionAnnotatedTypeFactory extends BaseAnnotatedTypeFac
    * <p>Package-private to permit calls from {@link ObjectConstructionTransfer}.
    */
   boolean returnsThis(final MethodInvocationTree tree) {
-    ReturnsRcvrAnnotatedTypeFactory rrATF = getReturnsRcvrAnnotatedTypeFactory();
-    ExecutableElement methodEle = TreeUtils.elementFromUse(tree);
-    AnnotatedTypeMirror methodATm = rrATF.getAnnotatedType(methodEle);
-    AnnotatedTypeMirror rrType =
-        ((AnnotatedTypeMirror.AnnotatedExecutableType) methodATm).getReturnType();
-    return (rrType != null && rrType.hasAnnotation(This.class))
-        || hasOldReturnsReceiverAnnotation(tree);
+    return getInvocationRecord(tree).returnsThis();
+  }
+
+  /**
+   * Returns whether the return type of the given method has an @This annotation from the Returns
+   * Receiver Checker, which also accounts for framework-generated builders. The Returns Receiver
+   * Checker caches its decision per method.
+   */
+  boolean returnsThis(final ExecutableElement methodEle) {
+    stats.enter(PhaseStats.Phase.RETURNS_RECEIVER);
+    try {
+      return getReturnsRcvrAnnotatedTypeFactory().returnsThis(methodEle)
+          || hasOldReturnsReceiverAnnotation(methodEle);
+    } finally {
+      stats.exit(PhaseStats.Phase.RETURNS_RECEIVER);
+    }
   }
 
   /**
@@ -176,92 +557,45 @@ public class ObjectConstructionAnnotatedTypeFactory extends BaseAnnotatedTypeFac
    * org.checkerframework.checker.builder.qual.ReturnsReceiver} annotation, for
    * backwards-compatibility.
    */
-  private boolean hasOldReturnsReceiverAnnotation(MethodInvocationTree tree) {
-    return this.getDeclAnnotation(TreeUtils.elementFromUse(tree), ReturnsReceiver.class) != null;
+  private boolean hasOldReturnsReceiverAnnotation(ExecutableElement methodEle) {
+    return this.getDeclAnnotation(methodEle, ReturnsReceiver.class) != null;
   }
 
   /**
-   * Given a tree, returns the method that the tree should be considered as calling. Returns
-   * "withOwners" if the call sets an "owner", "owner-alias", or "owner-id" filter. Returns
-   * "withImageIds" if the call sets an "image-ids" filter.
+   * Given a tree, returns the method that the tree should be considered as calling, according to
+   * the {@link MethodAliasRules}. For example, the rules for EC2 say that a call to {@code
+   * withFilters} on a {@code DescribeImagesRequest} that sets an "owner" filter counts as a call to
+   * {@code withOwners}.
    *
-   * <p>Package-private to permit calls from {@link ObjectConstructionTransfer}.
+   * <p>Package-private to permit calls from {@link InvocationRecord}.
    *
-   * @return either the first argument, or "withOwners" or "withImageIds" if the tree is an
-   *     equivalent filter addition.
+   * @return either the first argument, or the method that the rules say the call is equivalent to
    */
   String adjustMethodNameUsingValueChecker(
       final String methodName, final MethodInvocationTree tree) {
     if (!useValueChecker) {
       return methodName;
     }
+    String alias =
+        methodAliasRules.aliasOf(
+            tree,
+            TreeUtils.elementFromUse(tree),
+            methodName,
+            argument -> {
+              stats.enter(PhaseStats.Phase.VALUE_CHECKER);
+              try {
+                ValueAnnotatedTypeFactory valueATF = getTypeFactoryOfSubchecker(valueCheckerClass);
+                return getExactStringValue(argument, valueATF);
+              } finally {
+                stats.exit(PhaseStats.Phase.VALUE_CHECKER);
+              }
+            });
+    return alias == null ? methodName : alias;
+  }
 
-    ExecutableElement invokedMethod = TreeUtils.elementFromUse(tree);
-    if (!"com.amazonaws.services.ec2.model.DescribeImagesRequest"
-        .equals(ElementUtils.enclosingClass(invokedMethod).getQualifiedName().toString())) {
-      return methodName;
-    }
-
-    if ("withFilters".equals(methodName) || "setFilters".equals(methodName)) {
-      for (Tree filterTree : tree.getArguments()) {
-        // Search the arguments to withFilters for a Filter constructor invocation,
-        // passing through as many method invocation trees as needed. This code is searching
-        // for code of the form:
-        // new Filter("owner").withValues("...")
-        // or code of the form:
-        // new Filter().*.withName("owner").*
-
-        // Set to non-null iff a call to withName was observed; in that case, this variable's
-        // value is the argument to withName.
-        String withNameArg = null;
-        ValueAnnotatedTypeFactory valueATF = getTypeFactoryOfSubchecker(ValueChecker.class);
-
-        while (filterTree != null && filterTree.getKind() == Tree.Kind.METHOD_INVOCATION) {
-
-          MethodInvocationTree filterTreeAsMethodInvocation = (MethodInvocationTree) filterTree;
-          String filterMethodName = TreeUtils.methodName(filterTreeAsMethodInvocation).toString();
-          if ("withName".equals(filterMethodName)
-              && filterTreeAsMethodInvocation.getArguments().size() >= 1) {
-            Tree withNameArgTree = filterTreeAsMethodInvocation.getArguments().get(0);
-            withNameArg = getExactStringValue(withNameArgTree, valueATF);
-          }
-
-          // Descend into a call to Collections.singletonList()
-          if (TreeUtils.isMethodInvocation(
-              filterTree, collectionsSingletonList, getProcessingEnv())) {
-            filterTree = filterTreeAsMethodInvocation.getArguments().get(0);
-          } else {
-            filterTree = TreeUtils.getReceiverTree(filterTreeAsMethodInvocation.getMethodSelect());
-          }
-        }
-        if (filterTree == null) {
-          continue;
-        }
-        if (filterTree.getKind() == Tree.Kind.NEW_CLASS) {
-
-          String value;
-          if (withNameArg != null) {
-            value = withNameArg;
-          } else {
-            ExpressionTree constructorArg = ((NewClassTree) filterTree).getArguments().get(0);
-            value = getExactStringValue(constructorArg, valueATF);
-          }
-
-          if (value != null) {
-            switch (value) {
-              case "owner":
-              case "owner-alias":
-              case "owner-id":
-                return "withOwners";
-              case "image-id":
-                return "withImageIds";
-              default:
-            }
-          }
-        }
-      }
-    }
-    return methodName;
+  /** @return the rules used by {@link #adjustMethodNameUsingValueChecker} */
+  MethodAliasRules getMethodAliasRules() {
+    return methodAliasRules;
   }
 
   // Once https://github.com/typetools/checker-framework/pull/2726 is merged
@@ -279,6 +613,108 @@ public class ObjectConstructionAnnotatedTypeFactory extends BaseAnnotatedTypeFac
     return null;
   }
 
+  /**
+   * Returns the type of a call to a method that returns @This: the type of the receiver, with the
+   * called method added.
+   *
+   * <p>A fluent chain is typed bottom-up by a loop, starting from the type of its base: the
+   * receiver of the innermost call in the chain that returns @This. Only the base is typed by
+   * {@link #getAnnotatedType}; typing the receiver of each link that way would recurse through the
+   * whole chain, which overflows the stack for chains of thousands of calls. The type of each link
+   * is cached in its {@link InvocationRecord} together with the type of the base it was computed
+   * from, so typing each link of a chain in turn costs constant time per link.
+   *
+   * @param tree a call to a method that returns @This
+   * @return the annotation of the call's type in this hierarchy
+   */
+  private AnnotationMirror typeOfFluentCall(final MethodInvocationTree tree) {
+    // Fetch the current type of the base, or top if none exists
+    ExpressionTree baseTree = getChainBase(tree);
+    AnnotatedTypeMirror baseType;
+    AnnotationMirror baseAnno = null;
+    if (baseTree != null && (baseType = getAnnotatedType(baseTree)) != null) {
+      baseAnno = baseType.getAnnotationInHierarchy(TOP);
+    }
+    if (baseAnno == null) {
+      baseAnno = TOP;
+    }
+
+    // Walk down the chain to the innermost link whose type is not yet known for this base.
+    Deque<InvocationRecord> pending = new ArrayDeque<>();
+    AnnotationMirror result = baseAnno;
+    MethodInvocationTree link = tree;
+    while (true) {
+      countChainLink();
+      InvocationRecord record = getInvocationRecord(link);
+      AnnotationMirror cached = record.getChainType(baseAnno);
+      if (cached != null) {
+        result = cached;
+        break;
+      }
+      pending.push(record);
+      ExpressionTree receiverTree = TreeUtils.getReceiverTree(link.getMethodSelect());
+      if (receiverTree == baseTree) {
+        break;
+      }
+      link = (MethodInvocationTree) receiverTree;
+    }
+
+    // Fold the called methods into the type, innermost link first. Calls that no requirement on
+    // the receiver mentions leave the type unchanged.
+    while (!pending.isEmpty()) {
+      InvocationRecord record = pending.pop();
+      if (record.isTracked()) {
+        String methodName = record.getAdjustedMethodName();
+        if (lattice.kindOf(result) == CalledMethodsLattice.Kind.PREDICATE) {
+          // Strengthen the receiver's predicate with the newly-called method
+          result = afterCall(result, methodName);
+        } else {
+          // Construct a new @CM annotation with just the method name, and take the GLB (= union)
+          // with the type of the receiver
+          AnnotationMirror cmAnno = createCalledMethods(methodName);
+          result = getQualifierHierarchy().greatestLowerBound(cmAnno, result);
+        }
+      }
+      record.setChainType(baseAnno, result);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the base of the fluent chain that ends in the given call: the receiver of the innermost
+   * call in the chain to a method that returns @This.
+   *
+   * @param tree a call to a method that returns @This
+   * @return the base of its chain, or null if the innermost call has an implicit receiver
+   */
+  private @Nullable ExpressionTree getChainBase(final MethodInvocationTree tree) {
+    // The calls whose base is not yet known, innermost first.
+    Deque<InvocationRecord> pending = new ArrayDeque<>();
+    ExpressionTree base;
+    MethodInvocationTree link = tree;
+    while (true) {
+      countChainLink();
+      InvocationRecord record = getInvocationRecord(link);
+      if (record.hasChainBase()) {
+        base = record.getChainBase();
+        break;
+      }
+      pending.push(record);
+      ExpressionTree receiverTree = TreeUtils.getReceiverTree(link.getMethodSelect());
+      if (receiverTree == null
+          || receiverTree.getKind() != Tree.Kind.METHOD_INVOCATION
+          || !returnsThis((MethodInvocationTree) receiverTree)) {
+        base = receiverTree;
+        break;
+      }
+      link = (MethodInvocationTree) receiverTree;
+    }
+    for (InvocationRecord record : pending) {
+      record.setChainBase(base);
+    }
+    return base;
+  }
+
   /**
    * This tree annotator is needed to create types for fluent builders that have @This annotations.
    */
@@ -291,29 +727,17 @@ public class ObjectConstructionAnnotatedTypeFactory extends BaseAnnotatedTypeFac
     public Void visitMethodInvocation(
         final MethodInvocationTree tree, final AnnotatedTypeMirror type) {
 
-      // Check to see if the ReturnsReceiver Checker has a @This annotation
-      // on the return type of the method
-      if (returnsThis(tree)) {
-
-        // Fetch the current type of the receiver, or top if none exists
-        ExpressionTree receiverTree = TreeUtils.getReceiverTree(tree.getMethodSelect());
-        AnnotatedTypeMirror receiverType;
-        AnnotationMirror receiverAnno;
+      stats.enter(PhaseStats.Phase.TREE_ANNOTATOR);
+      try {
+        InvocationRecord invocation = getInvocationRecord(tree);
 
-        if (receiverTree != null && (receiverType = getAnnotatedType(receiverTree)) != null) {
-          receiverAnno = receiverType.getAnnotationInHierarchy(TOP);
-        } else {
-          receiverAnno = TOP;
+        // Check to see if the ReturnsReceiver Checker has a @This annotation
+        // on the return type of the method
+        if (invocation.returnsThis()) {
+          type.replaceAnnotation(typeOfFluentCall(tree));
         }
-
-        // Construct a new @CM annotation with just the method name
-        String methodName = TreeUtils.methodName(tree).toString();
-        methodName = adjustMethodNameUsingValueChecker(methodName, tree);
-        AnnotationMirror cmAnno = createCalledMethods(methodName);
-
-        // Replace the return type of the method with the GLB (= union) of the two types above
-        AnnotationMirror newAnno = getQualifierHierarchy().greatestLowerBound(cmAnno, receiverAnno);
-        type.replaceAnnotation(newAnno);
+      } finally {
+        stats.exit(PhaseStats.Phase.TREE_ANNOTATOR);
       }
 
       return super.visitMethodInvocation(tree, type);
@@ -323,8 +747,23 @@ public class ObjectConstructionAnnotatedTypeFactory extends BaseAnnotatedTypeFac
     @Override
     public Void visitNewClass(NewClassTree tree, AnnotatedTypeMirror type) {
 
-      for (FrameworkSupport frameworkSupport : frameworkSupports) {
-        frameworkSupport.handleConstructor(tree, type);
+      stats.enter(PhaseStats.Phase.TREE_ANNOTATOR);
+      try {
+        ExecutableElement constructor = TreeUtils.elementFromUse(tree);
+        Collection<FrameworkSupport> supports =
+            getFrameworkSupportsFor((TypeElement) constructor.getEnclosingElement());
+        if (!supports.isEmpty()) {
+          stats.enter(PhaseStats.Phase.FRAMEWORK_SUPPORT);
+          try {
+            for (FrameworkSupport frameworkSupport : supports) {
+              frameworkSupport.handleConstructor(tree, type);
+            }
+          } finally {
+            stats.exit(PhaseStats.Phase.FRAMEWORK_SUPPORT);
+          }
+        }
+      } finally {
+        stats.exit(PhaseStats.Phase.TREE_ANNOTATOR);
       }
 
       return super.visitNewClass(tree, type);
@@ -343,22 +782,43 @@ public class ObjectConstructionAnnotatedTypeFactory extends BaseAnnotatedTypeFac
 
     @Override
     public Void visitExecutable(AnnotatedTypeMirror.AnnotatedExecutableType t, Void p) {
+      stats.enter(PhaseStats.Phase.TYPE_ANNOTATOR);
+      try {
+        annotate(t);
+      } finally {
+        stats.exit(PhaseStats.Phase.TYPE_ANNOTATOR);
+      }
+      return super.visitExecutable(t, p);
+    }
+
+    private void annotate(AnnotatedTypeMirror.AnnotatedExecutableType t) {
       ExecutableElement element = t.getElement();
+      if (!binaryStubs.isEmpty() && ElementUtils.isElementFromByteCode(element)) {
+        applyBinaryStubs(t);
+      }
 
       TypeElement enclosingElement = (TypeElement) element.getEnclosingElement();
-
-      for (FrameworkSupport frameworkSupport : frameworkSupports) {
-        frameworkSupport.handlePossibleToBuilder(t);
+      Collection<FrameworkSupport> supports = getFrameworkSupportsFor(enclosingElement);
+      if (supports.isEmpty()) {
+        // The common case: the method is not part of the code of any framework.
+        return;
       }
 
-      Element nextEnclosingElement = enclosingElement.getEnclosingElement();
-      if (nextEnclosingElement.getKind().isClass()) {
-        for (FrameworkSupport frameworkSupport : frameworkSupports) {
-          frameworkSupport.handlePossibleBuilderBuildMethod(t);
+      stats.enter(PhaseStats.Phase.FRAMEWORK_SUPPORT);
+      try {
+        for (FrameworkSupport frameworkSupport : supports) {
+          frameworkSupport.handlePossibleToBuilder(t);
         }
-      }
 
-      return super.visitExecutable(t, p);
+        Element nextEnclosingElement = enclosingElement.getEnclosingElement();
+        if (nextEnclosingElement.getKind().isClass()) {
+          for (FrameworkSupport frameworkSupport : supports) {
+            frameworkSupport.handlePossibleBuilderBuildMethod(t);
+          }
+        }
+      } finally {
+        stats.exit(PhaseStats.Phase.FRAMEWORK_SUPPORT);
+      }
     }
   }
 
@@ -384,26 +844,39 @@ public class ObjectConstructionAnnotatedTypeFactory extends BaseAnnotatedTypeFac
     @Override
     public AnnotationMirror greatestLowerBound(
         final AnnotationMirror a1, final AnnotationMirror a2) {
-      if (AnnotationUtils.areSame(a1, BOTTOM) || AnnotationUtils.areSame(a2, BOTTOM)) {
+      stats.enter(PhaseStats.Phase.QUALIFIER_HIERARCHY);
+      try {
+        return glb(a1, a2);
+      } finally {
+        stats.exit(PhaseStats.Phase.QUALIFIER_HIERARCHY);
+      }
+    }
+
+    private AnnotationMirror glb(final AnnotationMirror a1, final AnnotationMirror a2) {
+      CalledMethodsLattice.Kind k1 = lattice.kindOf(a1);
+      CalledMethodsLattice.Kind k2 = lattice.kindOf(a2);
+      if (k1 == CalledMethodsLattice.Kind.BOTTOM || k2 == CalledMethodsLattice.Kind.BOTTOM) {
         return BOTTOM;
       }
 
-      if (!AnnotationUtils.hasElementValue(a1, "value") || isCalledMethodsPredicate(a1)) {
+      if (k1 == CalledMethodsLattice.Kind.PREDICATE && k2 == CalledMethodsLattice.Kind.PREDICATE) {
+        // If one predicate implies the other, it is the GLB. Otherwise, fall through.
+        if (isSubtype(a1, a2)) {
+          return a1;
+        } else if (isSubtype(a2, a1)) {
+          return a2;
+        }
+      }
+
+      if (k1 != CalledMethodsLattice.Kind.CALLED_METHODS) {
         return a2;
       }
 
-      if (!AnnotationUtils.hasElementValue(a2, "value") || isCalledMethodsPredicate(a2)) {
+      if (k2 != CalledMethodsLattice.Kind.CALLED_METHODS) {
         return a1;
       }
 
-      Set<String> a1Val = new LinkedHashSet<>(getValueOfAnnotationWithStringArgument(a1));
-      Set<String> a2Val = new LinkedHashSet<>(getValueOfAnnotationWithStringArgument(a2));
-      a1Val.addAll(a2Val);
-      return createCalledMethods(a1Val.toArray(new String[0]));
-    }
-
-    private boolean isCalledMethodsPredicate(AnnotationMirror a1) {
-      return AnnotationUtils.areSameByClass(a1, CalledMethodsPredicate.class);
+      return lattice.annotationOf(lattice.union(lattice.setIdOf(a1), lattice.setIdOf(a2)));
     }
 
     /**
@@ -412,69 +885,127 @@ public class ObjectConstructionAnnotatedTypeFactory extends BaseAnnotatedTypeFac
      */
     @Override
     public AnnotationMirror leastUpperBound(final AnnotationMirror a1, final AnnotationMirror a2) {
-      if (AnnotationUtils.areSame(a1, BOTTOM)) {
+      stats.enter(PhaseStats.Phase.QUALIFIER_HIERARCHY);
+      try {
+        return lub(a1, a2);
+      } finally {
+        stats.exit(PhaseStats.Phase.QUALIFIER_HIERARCHY);
+      }
+    }
+
+    private AnnotationMirror lub(final AnnotationMirror a1, final AnnotationMirror a2) {
+      CalledMethodsLattice.Kind k1 = lattice.kindOf(a1);
+      CalledMethodsLattice.Kind k2 = lattice.kindOf(a2);
+      if (k1 == CalledMethodsLattice.Kind.BOTTOM) {
         return a2;
-      } else if (AnnotationUtils.areSame(a2, BOTTOM)) {
+      } else if (k2 == CalledMethodsLattice.Kind.BOTTOM) {
         return a1;
       }
 
-      if (!AnnotationUtils.hasElementValue(a1, "value")) {
+      if (k1 == CalledMethodsLattice.Kind.TOP) {
         return a1;
       }
 
-      if (!AnnotationUtils.hasElementValue(a2, "value")) {
+      if (k2 == CalledMethodsLattice.Kind.TOP) {
         return a2;
       }
 
-      if (isCalledMethodsPredicate(a1) || isCalledMethodsPredicate(a2)) {
+      if (k1 == CalledMethodsLattice.Kind.PREDICATE || k2 == CalledMethodsLattice.Kind.PREDICATE) {
+        // If one annotation implies the other, it is the LUB. Otherwise, give up.
+        if (isSubtype(a1, a2)) {
+          return a2;
+        } else if (isSubtype(a2, a1)) {
+          return a1;
+        }
         return TOP;
       }
 
-      Set<String> a1Val = new LinkedHashSet<>(getValueOfAnnotationWithStringArgument(a1));
-      Set<String> a2Val = new LinkedHashSet<>(getValueOfAnnotationWithStringArgument(a2));
-      a1Val.retainAll(a2Val);
-      return createCalledMethods(a1Val.toArray(new String[0]));
+      return lattice.annotationOf(lattice.intersection(lattice.setIdOf(a1), lattice.setIdOf(a2)));
     }
 
     /** isSubtype in this type system is subset */
     @Override
     public boolean isSubtype(final AnnotationMirror subAnno, final AnnotationMirror superAnno) {
-      if (AnnotationUtils.areSame(subAnno, BOTTOM)) {
+      stats.enter(PhaseStats.Phase.QUALIFIER_HIERARCHY);
+      try {
+        return subtype(subAnno, superAnno);
+      } finally {
+        stats.exit(PhaseStats.Phase.QUALIFIER_HIERARCHY);
+      }
+    }
+
+    private boolean subtype(final AnnotationMirror subAnno, final AnnotationMirror superAnno) {
+      CalledMethodsLattice.Kind subKind = lattice.kindOf(subAnno);
+      CalledMethodsLattice.Kind superKind = lattice.kindOf(superAnno);
+      if (subKind == CalledMethodsLattice.Kind.BOTTOM) {
         return true;
-      } else if (AnnotationUtils.areSame(superAnno, BOTTOM)) {
+      } else if (superKind == CalledMethodsLattice.Kind.BOTTOM) {
         return false;
       }
 
-      if (AnnotationUtils.areSame(superAnno, TOP)) {
+      if (superKind == CalledMethodsLattice.Kind.TOP) {
         return true;
       }
 
-      if (AnnotationUtils.areSameByClass(subAnno, CalledMethodsPredicate.class)) {
-        if (AnnotationUtils.areSameByClass(superAnno, CalledMethodsPredicate.class)) {
-          // Permit this only if the predicates are identical, to avoid complicated
-          // predicate equivalence calculation. Good enough in practice.
-          String predicate1 =
-              AnnotationUtils.getElementValue(superAnno, "value", String.class, false);
-          String predicate2 =
-              AnnotationUtils.getElementValue(subAnno, "value", String.class, false);
-          return predicate1.equals(predicate2);
+      if (subKind == CalledMethodsLattice.Kind.PREDICATE
+          || superKind == CalledMethodsLattice.Kind.PREDICATE) {
+        stats.enter(PhaseStats.Phase.PREDICATE_EVALUATION);
+        try {
+          return predicateSubtype(subAnno, subKind, superAnno, superKind);
+        } finally {
+          stats.exit(PhaseStats.Phase.PREDICATE_EVALUATION);
         }
-        return false;
       }
 
-      List<String> subVal =
-          AnnotationUtils.areSame(subAnno, TOP)
-              ? Collections.emptyList()
-              : getValueOfAnnotationWithStringArgument(subAnno);
+      // Both are CM annotations, so compare the sets
+      return lattice.isSubset(lattice.setIdOf(superAnno), lattice.setIdOf(subAnno));
+    }
 
-      if (AnnotationUtils.areSameByClass(superAnno, CalledMethodsPredicate.class)) {
-        // superAnno is a CMP annotation, so we need to evaluate the predicate
-        String predicate = AnnotationUtils.getElementValue(superAnno, "value", String.class, false);
-        CalledMethodsPredicateEvaluator evaluator = new CalledMethodsPredicateEvaluator(subVal);
-        return evaluator.evaluate(predicate);
-      } else {
-        // superAnno is a CM annotation, so compare the sets
-        return subVal.containsAll(getValueOfAnnotationWithStringArgument(superAnno));
+    /** isSubtype when at least one of the annotations is a @CalledMethodsPredicate annotation */
+    private boolean predicateSubtype(
+        final AnnotationMirror subAnno,
+        final CalledMethodsLattice.Kind subKind,
+        final AnnotationMirror superAnno,
+        final CalledMethodsLattice.Kind superKind) {
+      if (subKind == CalledMethodsLattice.Kind.PREDICATE) {
+        // A predicate is a subtype of whatever it implies. Both checks are decided on the shared
+        // decision diagram, so they are cheap and cached.
+        String subPredicate =
+            AnnotationUtils.getElementValue(subAnno, "value", String.class, false);
+        CheckerEvents.Span span = CheckerEvents.INSTANCE.beginPredicateEvaluation(subPredicate);
+        try {
+          if (superKind == CalledMethodsLattice.Kind.PREDICATE) {
+            String superPredicate =
+                AnnotationUtils.getElementValue(superAnno, "value", String.class, false);
+            if (span.isRecording()) {
+              span.setSizes(
+                  predicateEvaluator.methodCountOf(subPredicate),
+                  predicateEvaluator.methodCountOf(superPredicate));
+            }
+            return subPredicate.equals(superPredicate)
+                || predicateEvaluator.implies(subPredicate, superPredicate);
+          }
+          int superSet = lattice.setIdOf(superAnno);
+          if (span.isRecording()) {
+            span.setSizes(predicateEvaluator.methodCountOf(subPredicate), lattice.sizeOf(superSet));
+          }
+          return predicateEvaluator.impliesCalledMethods(subPredicate, superSet);
+        } finally {
+          span.end();
+        }
+      }
+
+      // superAnno is a CMP annotation, so we need to evaluate the predicate
+      String predicate = AnnotationUtils.getElementValue(superAnno, "value", String.class, false);
+      CheckerEvents.Span span = CheckerEvents.INSTANCE.beginPredicateEvaluation(predicate);
+      try {
+        int subSet = lattice.setIdOf(subAnno);
+        if (span.isRecording()) {
+          span.setSizes(predicateEvaluator.methodCountOf(predicate), lattice.sizeOf(subSet));
+        }
+        return predicateEvaluator.evaluate(predicate, subSet);
+      } finally {
+        span.end();
       }
     }
   }
@@ -528,6 +1059,34 @@ public class ObjectConstructionAnnotatedTypeFactory extends BaseAnnotatedTypeFac
   }
 
   Collection<FrameworkSupport> getFrameworkSupports() {
-    return frameworkSupports;
+    return frameworkSupports.values();
+  }
+
+  /**
+   * Returns the framework supports that must be consulted for the methods and constructors of a
+   * type: those of the frameworks for which the type has a role, according to the {@link
+   * FrameworkIndex}. Empty for most types.
+   *
+   * @param type a type
+   * @return the framework supports for {@code type}
+   */
+  Collection<FrameworkSupport> getFrameworkSupportsFor(TypeElement type) {
+    if (frameworkSupports.isEmpty()) {
+      return Collections.emptyList();
+    }
+    EnumSet<FrameworkSupportUtils.Framework> frameworks = frameworkIndex.frameworksOf(type);
+    if (frameworks.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<FrameworkSupport> result = new ArrayList<>(frameworks.size());
+    for (FrameworkSupportUtils.Framework framework : frameworks) {
+      result.add(frameworkSupports.get(framework));
+    }
+    return result;
+  }
+
+  /** @return the index of the roles of types in the code of the supported frameworks */
+  FrameworkIndex getFrameworkIndex() {
+    return frameworkIndex;
   }
 }
@@ -1,16 +1,37 @@
 package org.checkerframework.checker.objectconstruction;
 
-import java.util.Collections;
-import java.util.HashSet;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+import com.sun.source.util.TreePath;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
-import java.util.Set;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import org.checkerframework.checker.framework.BinaryStubs;
+import org.checkerframework.checker.framework.BuilderMetadata;
+import org.checkerframework.checker.framework.ClasspathIndex;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.checker.objectconstruction.framework.FrameworkSupport;
+import org.checkerframework.checker.returnsrcvr.ReturnsRcvrAnnotatedTypeFactory;
 import org.checkerframework.checker.returnsrcvr.ReturnsRcvrChecker;
 import org.checkerframework.common.basetype.BaseTypeChecker;
 import org.checkerframework.common.value.ValueChecker;
 import org.checkerframework.framework.source.Result;
 import org.checkerframework.framework.source.SupportedOptions;
 import org.checkerframework.framework.source.SuppressWarningsKeys;
+import org.checkerframework.javacutil.ElementUtils;
+import org.checkerframework.javacutil.TreeUtils;
 
 /**
  * The primary typechecker for the object construction checker, which allows programmers to specify
@@ -21,14 +42,132 @@ import org.checkerframework.framework.source.SuppressWarningsKeys;
 @SupportedOptions({
   ObjectConstructionChecker.USE_VALUE_CHECKER,
   ObjectConstructionChecker.COUNT_FRAMEWORK_BUILD_CALLS,
-  ReturnsRcvrChecker.DISABLED_FRAMEWORK_SUPPORTS
+  ObjectConstructionChecker.PRINT_CACHE_STATISTICS,
+  ObjectConstructionChecker.OC_STATS,
+  ObjectConstructionChecker.FINDINGS_OUTPUT,
+  ObjectConstructionChecker.BASELINE,
+  ObjectConstructionChecker.WRITE_BASELINE,
+  ObjectConstructionChecker.REPORT_SLOWEST,
+  ObjectConstructionChecker.REPORT_SLOWEST_OUTPUT,
+  ReturnsRcvrChecker.DISABLED_FRAMEWORK_SUPPORTS,
+  ReturnsRcvrChecker.EMIT_BUILDER_SUMMARIES,
+  ReturnsRcvrChecker.CLASSPATH_INDEX_CACHE,
+  ReturnsRcvrChecker.BINARY_STUBS
 })
 public class ObjectConstructionChecker extends BaseTypeChecker {
 
+  /**
+   * If this option is supplied, the Value Checker is run as a subchecker, so that calls whose
+   * meaning depends on the values of their arguments can be handled precisely. With the value
+   * {@link #SCOPED_VALUE_CHECKER}, the Value Checker only analyzes the classes that contain such
+   * calls; see {@link ScopedValueChecker}.
+   */
   public static final String USE_VALUE_CHECKER = "useValueChecker";
 
+  /** The value of {@link #USE_VALUE_CHECKER} that selects {@link ScopedValueChecker}. */
+  public static final String SCOPED_VALUE_CHECKER = "scoped";
+
   public static final String COUNT_FRAMEWORK_BUILD_CALLS = "countFrameworkBuildCalls";
 
+  /**
+   * If this option is supplied, the checker prints the counters of its internal caches when type
+   * processing is over, e.g. how many @CalledMethods annotations were shared by interning.
+   */
+  public static final String PRINT_CACHE_STATISTICS = "printCacheStatistics";
+
+  /**
+   * A file to which the checker writes, when type processing is over, a JSON report of the number
+   * of invocations of each of its phases and the wall-clock and CPU time spent in them. See {@link
+   * PhaseStats}.
+   */
+  public static final String OC_STATS = "ocStats";
+
+  /**
+   * A file to which the errors and warnings of the checker are written as they are reported: a
+   * SARIF log if the name ends in {@code .sarif}, and JSON lines otherwise. See {@link
+   * FindingsSink}.
+   */
+  public static final String FINDINGS_OUTPUT = "findingsOutput";
+
+  /**
+   * A baseline file of known finalizer.invocation.invalid findings, which are not reported. See
+   * {@link FindingsBaseline}.
+   */
+  public static final String BASELINE = "baseline";
+
+  /**
+   * A file to which the baseline of the finalizer.invocation.invalid findings of this run is
+   * written, for use with {@link #BASELINE} in later runs.
+   */
+  public static final String WRITE_BASELINE = "writeBaseline";
+
+  /**
+   * If this option is supplied, the checker reports, when type processing is over, the compilation
+   * units, classes, and methods on which it spent the most time. The value is the number of entries
+   * of each ranking, or empty for {@link SlowestCodeReport#DEFAULT_SIZE}. See {@link
+   * SlowestCodeReport}.
+   */
+  public static final String REPORT_SLOWEST = "reportSlowest";
+
+  /**
+   * A file to which the report of {@link #REPORT_SLOWEST} is written. If this option is not
+   * supplied, it is printed to standard error.
+   */
+  public static final String REPORT_SLOWEST_OUTPUT = "reportSlowestOutput";
+
+  private @Nullable FindingsSink findingsSink;
+
+  /** The known findings, if {@link #BASELINE} is supplied. */
+  private @Nullable FindingsBaseline baseline;
+
+  /** The findings of this run, if {@link #WRITE_BASELINE} is supplied. */
+  private @Nullable FindingsBaseline newBaseline;
+
+  @Override
+  public void initChecker() {
+    super.initChecker();
+    String findingsOutput = getOption(FINDINGS_OUTPUT);
+    if (findingsOutput != null) {
+      findingsSink = FindingsSink.open(Paths.get(findingsOutput));
+    }
+    String baselineFile = getOption(BASELINE);
+    if (baselineFile != null) {
+      baseline = FindingsBaseline.load(Paths.get(baselineFile));
+    }
+    if (hasOption(WRITE_BASELINE)) {
+      newBaseline = FindingsBaseline.empty();
+    }
+    if (findingsSink != null || newBaseline != null) {
+      // The Checker Framework does not call typeProcessingOver if the compilation has errors, but
+      // the findings file and the new baseline must be complete precisely then.
+      JavacTask.instance(processingEnv)
+          .addTaskListener(
+              new TaskListener() {
+                @Override
+                public void started(TaskEvent e) {}
+
+                @Override
+                public void finished(TaskEvent e) {
+                  if (e.getKind() == TaskEvent.Kind.COMPILATION) {
+                    closeFindings();
+                  }
+                }
+              });
+    }
+  }
+
+  /** Completes the findings file and writes the new baseline, once the compilation is over. */
+  private void closeFindings() {
+    if (findingsSink != null) {
+      findingsSink.close();
+      findingsSink = null;
+    }
+    if (newBaseline != null) {
+      newBaseline.write(Paths.get(getOption(WRITE_BASELINE)));
+      newBaseline = null;
+    }
+  }
+
   @Override
   protected LinkedHashSet<Class<? extends BaseTypeChecker>> getImmediateSubcheckerClasses() {
     LinkedHashSet<Class<? extends BaseTypeChecker>> checkers =
@@ -39,76 +178,144 @@ public class ObjectConstructionChecker extends BaseTypeChecker {
     // considered),
     // so the processingEnvironment must be checked for the option directly.
     if (this.processingEnv.getOptions().containsKey(USE_VALUE_CHECKER)) {
-      checkers.add(ValueChecker.class);
+      checkers.add(valueCheckerClass(this.processingEnv.getOptions().get(USE_VALUE_CHECKER)));
     }
     return checkers;
   }
 
   /**
-   * Parses the String representation of an @CalledMethods annotation into a Set containing all of
-   * the actual arguments to the annotation.
+   * Returns the Value Checker subchecker that is run when {@link #USE_VALUE_CHECKER} is supplied.
    *
-   * <p>Also parses @CalledMethodsTop into the empty set.
+   * @param useValueChecker the value of the {@link #USE_VALUE_CHECKER} option
+   * @return the class of the Value Checker subchecker
    */
-  private Set<String> parseCalledMethods(String calledMethodsString) {
-    if (calledMethodsString.contains("@CalledMethodsTop")) {
-      return Collections.emptySet();
+  static Class<? extends ValueChecker> valueCheckerClass(@Nullable String useValueChecker) {
+    return SCOPED_VALUE_CHECKER.equals(useValueChecker)
+        ? ScopedValueChecker.class
+        : ValueChecker.class;
+  }
+
+  /**
+   * Reports a call to a method that requires more methods to have been called on its receiver than
+   * have been, unless the finding is in the baseline.
+   *
+   * @param missingMethods the methods that have not been called on the receiver
+   * @param receiverType the type of the receiver
+   * @param path the path to the call
+   */
+  void reportFinalizerInvocationInvalid(
+      List<String> missingMethods, TypeMirror receiverType, TreePath path) {
+    Tree node = path.getLeaf();
+    if ((baseline != null || newBaseline != null)
+        && !shouldSuppressWarnings(node, "finalizer.invocation.invalid")) {
+      long fingerprint = fingerprint(missingMethods, receiverType, path);
+      if (newBaseline != null) {
+        newBaseline.add(fingerprint);
+      }
+      if (baseline != null && baseline.contains(fingerprint)) {
+        return;
+      }
     }
+    StringBuilder message = new StringBuilder();
+    for (String s : missingMethods) {
+      message.append(s);
+      message.append("() ");
+    }
+    report(
+        Result.failure("finalizer.invocation.invalid", message.toString()), node, missingMethods);
+  }
 
-    String withoutCMAnno = calledMethodsString.trim().substring("@CalledMethods(".length());
-    String withoutBaseType = withoutCMAnno.substring(0, withoutCMAnno.lastIndexOf(' '));
-    String withoutLastParen = withoutBaseType.substring(0, withoutBaseType.length() - 1);
-    String withoutBraces;
-    if (withoutLastParen.startsWith("{")) {
-      withoutBraces = withoutLastParen.substring(1, withoutLastParen.length() - 1);
+  /** @return the fingerprint of a finalizer.invocation.invalid finding */
+  private long fingerprint(List<String> missingMethods, TypeMirror receiverType, TreePath path) {
+    String file =
+        FindingsBaseline.relativeFileName(path.getCompilationUnit().getSourceFile().toUri());
+    String enclosing;
+    MethodTree methodTree = TreeUtils.enclosingMethod(path);
+    if (methodTree != null) {
+      ExecutableElement method = TreeUtils.elementFromDeclaration(methodTree);
+      enclosing = ElementUtils.enclosingClass(method).getQualifiedName() + "#" + method;
     } else {
-      withoutBraces = withoutLastParen;
+      ClassTree enclosingClass = TreeUtils.enclosingClass(path);
+      enclosing =
+          enclosingClass == null
+              ? ""
+              : TreeUtils.elementFromDeclaration(enclosingClass).getQualifiedName().toString();
     }
+    String receiver = processingEnv.getTypeUtils().erasure(receiverType).toString();
+    return FindingsBaseline.fingerprint(file, enclosing, receiver, missingMethods);
+  }
 
-    String[] withQuotes = withoutBraces.split(", ");
-    Set<String> result = new HashSet<>();
-    for (String s : withQuotes) {
-      if (s.startsWith("\"")) {
-        s = s.substring(1);
-      }
-      if (s.endsWith("\"")) {
-        s = s.substring(0, s.length() - 1);
+  @Override
+  public void typeProcess(TypeElement element, TreePath tree) {
+    CheckerEvents.Span span = CheckerEvents.INSTANCE.beginClassCheck(element.getQualifiedName());
+    SlowestCodeReport slowestCodeReport = getSlowestCodeReport();
+    if (slowestCodeReport != null) {
+      slowestCodeReport.beginClass();
+    }
+    try {
+      super.typeProcess(element, tree);
+    } finally {
+      if (slowestCodeReport != null) {
+        slowestCodeReport.endClass(element, tree.getCompilationUnit());
       }
-      result.add(s);
+      span.end();
     }
-    return result;
   }
 
-  /**
-   * Adds special reporting for method.invocation.invalid errors to turn them into
-   * finalizer.invocation.invalid errors.
-   */
+  /** @return the times of the analyzed code, or null if {@link #REPORT_SLOWEST} is not supplied */
+  private @Nullable SlowestCodeReport getSlowestCodeReport() {
+    ObjectConstructionAnnotatedTypeFactory atypeFactory =
+        (ObjectConstructionAnnotatedTypeFactory) getTypeFactory();
+    return atypeFactory == null ? null : atypeFactory.getSlowestCodeReport();
+  }
+
   @Override
   public void report(final Result r, final Object src) {
+    report(r, src, null);
+  }
 
-    Result theResult = r;
-
-    String errKey = r.getMessageKeys().iterator().next();
-    if ("method.invocation.invalid".equals(errKey) && r.isFailure()) {
-      Object[] args = r.getDiagMessages().iterator().next().getArgs();
-      String actualReceiverAnnoString = (String) args[1];
-      String requiredReceiverAnnoString = (String) args[2];
-      if (actualReceiverAnnoString.contains("@CalledMethods(")
-          || actualReceiverAnnoString.contains("@CalledMethodsTop")) {
-        Set<String> actualCalledMethods = parseCalledMethods(actualReceiverAnnoString);
-        if (requiredReceiverAnnoString.contains("@CalledMethods(")) {
-          Set<String> requiredCalledMethods = parseCalledMethods(requiredReceiverAnnoString);
-          requiredCalledMethods.removeAll(actualCalledMethods);
-          StringBuilder missingMethods = new StringBuilder();
-          for (String s : requiredCalledMethods) {
-            missingMethods.append(s);
-            missingMethods.append("() ");
-          }
-          theResult = Result.failure("finalizer.invocation.invalid", missingMethods.toString());
-        }
+  /**
+   * Reports a result and, if {@link #FINDINGS_OUTPUT} is supplied, writes it to the findings file
+   * unless it is suppressed.
+   *
+   * @param missingMethods for finalizer.invocation.invalid, the methods that have not been called
+   */
+  private void report(Result r, Object src, @Nullable List<String> missingMethods) {
+    super.report(r, src);
+    if (findingsSink == null || r.isSuccess()) {
+      return;
+    }
+    // Under -Awarns, javac reports failures as warnings, and so does the findings file.
+    boolean error = r.isFailure() && !hasOption("warns");
+    for (Result.DiagMessage diagMessage : r.getDiagMessages()) {
+      String key = diagMessage.getMessageKey();
+      if ((src instanceof Tree && shouldSuppressWarnings((Tree) src, key))
+          || (src instanceof Element && shouldSuppressWarnings((Element) src, key))) {
+        continue;
+      }
+      String format = getMessages().getProperty(key);
+      String message = format == null ? key : String.format(format, diagMessage.getArgs()).trim();
+      TreePath path = null;
+      if (src instanceof Tree && currentRoot != null) {
+        path = TreePath.getPath(currentRoot, (Tree) src);
+      } else if (src instanceof Element) {
+        path = trees.getPath((Element) src);
+      }
+      if (path == null) {
+        findingsSink.write(key, error, message, null, 0, 0, missingMethods);
+        continue;
       }
+      CompilationUnitTree root = path.getCompilationUnit();
+      long position = trees.getSourcePositions().getStartPosition(root, path.getLeaf());
+      findingsSink.write(
+          key,
+          error,
+          message,
+          root.getSourceFile().toUri().toString(),
+          root.getLineMap().getLineNumber(position),
+          root.getLineMap().getColumnNumber(position),
+          missingMethods);
     }
-    super.report(theResult, src);
   }
 
   /**
@@ -124,7 +331,7 @@ public class ObjectConstructionChecker extends BaseTypeChecker {
         "This finalizer cannot be invoked, because the following methods have not been called: %s\n");
     messages.setProperty(
         "predicate.invalid",
-        "An unparseable predicate was found in an annotation. Predicates must be produced by this grammar: S --> method name | (S) | S && S | S || S. The message from the evaluator was: %s \\n");
+        "An unparseable predicate was found in an annotation. Predicates must be produced by this grammar: S --> method name | (S) | !S | S && S | S || S. The message from the evaluator was: %s \\n");
     return messages;
   }
 
@@ -135,6 +342,53 @@ public class ObjectConstructionChecker extends BaseTypeChecker {
     if (getBooleanOption(COUNT_FRAMEWORK_BUILD_CALLS)) {
       System.out.printf("Found %d build() method calls.\n", numBuildCalls);
     }
+    ObjectConstructionAnnotatedTypeFactory atypeFactory =
+        (ObjectConstructionAnnotatedTypeFactory) getTypeFactory();
+    if (atypeFactory != null) {
+      String statsFile = getOption(OC_STATS);
+      if (statsFile != null) {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("buildCalls", (long) numBuildCalls);
+        counters.put("chainLinks", atypeFactory.getChainLinks());
+        atypeFactory.getStats().write(Paths.get(statsFile), counters);
+      }
+      SlowestCodeReport slowestCodeReport = atypeFactory.getSlowestCodeReport();
+      if (slowestCodeReport != null) {
+        String output = getOption(REPORT_SLOWEST_OUTPUT);
+        slowestCodeReport.write(output == null ? null : Paths.get(output));
+      }
+      if (getBooleanOption(PRINT_CACHE_STATISTICS)) {
+        System.out.printf("@CalledMethods pool: %s.\n", atypeFactory.getCalledMethodsPool());
+        System.out.printf("@CalledMethods lattice: %s.\n", atypeFactory.getLattice());
+        System.out.printf(
+            "@CalledMethodsPredicate evaluator: %s.\n", atypeFactory.getPredicateEvaluator());
+        ReturnsRcvrAnnotatedTypeFactory rrATF = atypeFactory.getReturnsRcvrAnnotatedTypeFactory();
+        System.out.printf("returnsThis cache: %s.\n", rrATF.getReturnsThisCache());
+        System.out.printf("knownToReturnThis cache: %s.\n", rrATF.getKnownToReturnThisCache());
+        System.out.printf("Relevance filter: %s.\n", atypeFactory.getRelevanceFilter());
+        for (FrameworkSupport frameworkSupport : atypeFactory.getFrameworkSupports()) {
+          System.out.printf("%s.\n", frameworkSupport);
+        }
+        System.out.printf("Framework index: %s.\n", atypeFactory.getFrameworkIndex());
+        ClasspathIndex classpathIndex = BuilderMetadata.instance(processingEnv).getClasspathIndex();
+        if (classpathIndex != null) {
+          System.out.printf("%s.\n", classpathIndex);
+        }
+        if (baseline != null) {
+          System.out.printf("Baseline: %s.\n", baseline);
+        }
+        BinaryStubs binaryStubs = BinaryStubs.instance(processingEnv, null);
+        if (!binaryStubs.isEmpty()) {
+          System.out.printf("%s.\n", binaryStubs);
+        }
+      }
+      // The cached decisions refer to elements of this compilation.
+      for (FrameworkSupport frameworkSupport : atypeFactory.getFrameworkSupports()) {
+        frameworkSupport.clearCaches();
+      }
+      atypeFactory.getFrameworkIndex().clear();
+    }
+    closeFindings();
     super.typeProcessingOver();
   }
 }
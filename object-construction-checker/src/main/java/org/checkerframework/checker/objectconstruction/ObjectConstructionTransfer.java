@@ -2,15 +2,18 @@ package org.checkerframework.checker.objectconstruction;
 
 import com.sun.source.tree.MethodInvocationTree;
 import com.sun.source.tree.Tree;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.lang.model.element.AnnotationMirror;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.checker.objectconstruction.qual.CalledMethodsPredicate;
 import org.checkerframework.dataflow.analysis.FlowExpressions;
 import org.checkerframework.dataflow.analysis.FlowExpressions.Receiver;
 import org.checkerframework.dataflow.analysis.TransferInput;
 import org.checkerframework.dataflow.analysis.TransferResult;
+import org.checkerframework.dataflow.cfg.UnderlyingAST;
+import org.checkerframework.dataflow.cfg.node.LocalVariableNode;
 import org.checkerframework.dataflow.cfg.node.MethodInvocationNode;
 import org.checkerframework.dataflow.cfg.node.Node;
 import org.checkerframework.framework.flow.CFAnalysis;
@@ -31,6 +34,9 @@ import org.checkerframework.javacutil.AnnotationUtils;
 public class ObjectConstructionTransfer extends CFTransfer {
   private final ObjectConstructionAnnotatedTypeFactory atypefactory;
 
+  /** The runs of {@link #visitMethodInvocation} in the current analysis; reset by initialStore. */
+  private int methodCallTransfers;
+
   public ObjectConstructionTransfer(final CFAnalysis analysis) {
     super(analysis);
     this.atypefactory = (ObjectConstructionAnnotatedTypeFactory) analysis.getTypeFactory();
@@ -39,6 +45,54 @@ public class ObjectConstructionTransfer extends CFTransfer {
   @Override
   public TransferResult<CFValue, CFStore> visitMethodInvocation(
       final MethodInvocationNode node, final TransferInput<CFValue, CFStore> input) {
+    methodCallTransfers++;
+    PhaseStats stats = atypefactory.getStats();
+    stats.enter(PhaseStats.Phase.TRANSFER);
+    CheckerEvents.Span span =
+        CheckerEvents.INSTANCE.beginTransfer(node.getTarget().getMethod().getSimpleName());
+    SlowestCodeReport slowestCodeReport = atypefactory.getSlowestCodeReport();
+    long start = slowestCodeReport == null ? 0 : System.nanoTime();
+    try {
+      return transferMethodInvocation(node, input, span);
+    } finally {
+      if (slowestCodeReport != null) {
+        slowestCodeReport.recordTransfer(System.nanoTime() - start);
+      }
+      span.end();
+      stats.exit(PhaseStats.Phase.TRANSFER);
+    }
+  }
+
+  /** @return the number of runs of the transfer function for method calls in this analysis */
+  int getMethodCallTransfers() {
+    return methodCallTransfers;
+  }
+
+  /**
+   * Tells the {@link SlowestCodeReport} which method is analyzed, if there is one. The time of a
+   * lambda counts towards the method that contains it.
+   */
+  @Override
+  public CFStore initialStore(
+      final UnderlyingAST underlyingAST, final @Nullable List<LocalVariableNode> parameters) {
+    methodCallTransfers = 0;
+    SlowestCodeReport slowestCodeReport = atypefactory.getSlowestCodeReport();
+    if (slowestCodeReport != null) {
+      slowestCodeReport.beginDataflow(atypefactory.getEnclosingMethod(underlyingAST));
+    }
+    return super.initialStore(underlyingAST, parameters);
+  }
+
+  /**
+   * The transfer function of a method call.
+   *
+   * @param span the event of the call, which receives the size of the receiver's new set of called
+   *     methods (or -1 if it is not a set) and the number of receivers that were updated
+   */
+  private TransferResult<CFValue, CFStore> transferMethodInvocation(
+      final MethodInvocationNode node,
+      final TransferInput<CFValue, CFStore> input,
+      final CheckerEvents.Span span) {
     TransferResult<CFValue, CFStore> result = super.visitMethodInvocation(node, input);
     Node receiver = node.getTarget().getReceiver();
 
@@ -47,6 +101,13 @@ public class ObjectConstructionTransfer extends CFTransfer {
       return result;
     }
 
+    // Don't record calls that no requirement on the receiver can mention, such as calls on
+    // Strings, or toString() calls on builders.
+    InvocationRecord invocation = atypefactory.getInvocationRecord(node.getTree());
+    if (!invocation.isTracked()) {
+      return result;
+    }
+
     AnnotatedTypeMirror currentType = atypefactory.getReceiverType(node.getTree());
     AnnotationMirror type;
     if (currentType == null || !currentType.isAnnotatedInHierarchy(atypefactory.TOP)) {
@@ -55,63 +116,113 @@ public class ObjectConstructionTransfer extends CFTransfer {
       type = currentType.getAnnotationInHierarchy(atypefactory.TOP);
     }
 
-    // Don't attempt to strengthen @CalledMethodsPredicate annotations, because that would
-    // require reasoning about the predicate itself. Instead, start over from top.
-    if (AnnotationUtils.areSameByClass(type, CalledMethodsPredicate.class)) {
-      type = atypefactory.TOP;
-    }
-
     if (AnnotationUtils.areSame(type, atypefactory.BOTTOM)) {
       return result;
     }
 
-    String methodName = node.getTarget().getMethod().getSimpleName().toString();
-    methodName = atypefactory.adjustMethodNameUsingValueChecker(methodName, node.getTree());
-
-    List<String> currentMethods =
-        ObjectConstructionAnnotatedTypeFactory.getValueOfAnnotationWithStringArgument(type);
-    List<String> newList =
-        Stream.concat(Stream.of(methodName), currentMethods.stream()).collect(Collectors.toList());
+    String methodName = invocation.getAdjustedMethodName();
 
-    AnnotationMirror newType = atypefactory.createCalledMethods(newList.toArray(new String[0]));
+    AnnotationMirror newType;
+    if (AnnotationUtils.areSameByClass(type, CalledMethodsPredicate.class)) {
+      // Strengthen the predicate with the newly-called method, rather than starting over from top.
+      newType = atypefactory.afterCall(type, methodName);
+    } else {
+      CalledMethodsLattice lattice = atypefactory.getLattice();
+      int newSet = lattice.union(lattice.setIdOf(type), lattice.setIdOf(methodName));
+      newType = lattice.annotationOf(newSet);
+    }
 
     // For some reason, visitMethodInvocation returns a conditional store. I think this is to
     // support conditional post-condition annotations, based on the comments in CFAbstractTransfer.
     CFStore thenStore = result.getThenStore();
     CFStore elseStore = result.getElseStore();
 
-    while (receiver != null) {
-      // Insert the new type computed previously as the type of the receiver.
-      Receiver receiverReceiver = FlowExpressions.internalReprOf(atypefactory, receiver);
-      thenStore.insertValue(receiverReceiver, newType);
-      elseStore.insertValue(receiverReceiver, newType);
-
-      Tree receiverTree = receiver.getTree();
-
-      // Possibly recurse: if the receiver is itself a method call,
-      // then we need to also propagate this new information to its receiver
-      // if the method being called has an @This return type.
-      //
-      // Note that we must check for null, because the tree could be
-      // implicit (when calling an instance method on the class itself).
-      // In that case, do not attempt to refine either - the receiver is
-      // not a method invocation, anyway.
-      if (receiverTree == null || receiverTree.getKind() != Tree.Kind.METHOD_INVOCATION) {
-        // Do not continue, because the receiver isn't a method invocation itself. The
-        // end of the chain of calls has been reached.
-        break;
-      }
+    // Insert the new type computed previously as the type of the receiver, and of every receiver
+    // further down a chain of calls to methods that return @This.
+    ReceiverChain chain = receiverChain(node);
+    int updatedReceivers = 0;
+    for (ReceiverChain link = chain; link != null; link = link.tail) {
+      thenStore.insertValue(link.receiver, newType);
+      elseStore.insertValue(link.receiver, newType);
+      updatedReceivers++;
+    }
+    SlowestCodeReport slowestCodeReport = atypefactory.getSlowestCodeReport();
+    if (slowestCodeReport != null) {
+      slowestCodeReport.recordReceivers(chain);
+    }
+    if (span.isRecording()) {
+      span.setSizes(atypefactory.methodCountOf(newType), updatedReceivers);
+    }
 
-      MethodInvocationTree receiverAsMethodInvocation = (MethodInvocationTree) receiver.getTree();
+    return result;
+  }
 
-      if (atypefactory.returnsThis(receiverAsMethodInvocation)) {
-        receiver = ((MethodInvocationNode) receiver).getTarget().getReceiver();
-      } else {
-        // Do not continue, because the method does not return @This.
+  /**
+   * Returns the receivers whose type changes when the method of {@code node} is called: the
+   * receiver of the call and, if that receiver is itself a call to a method that returns @This, the
+   * receivers of that call, and so on until the end of the chain of calls is reached. Receivers
+   * that cannot be stored, such as calls to non-deterministic methods, are omitted.
+   *
+   * <p>The result for each call is stored in its {@link InvocationRecord}. The chain of a call
+   * extends the chain of the call that produced its receiver, which is analyzed first, so each new
+   * link costs constant time and chains of n calls are processed in O(n) time overall rather than
+   * O(n^2). The loops below are iterative, so long chains do not risk a stack overflow.
+   *
+   * @param node a call to an instance method
+   * @return the receivers to update, or null if there are none
+   */
+  private @Nullable ReceiverChain receiverChain(final MethodInvocationNode node) {
+    // The calls whose chains are not yet known, innermost first.
+    Deque<MethodInvocationNode> pending = new ArrayDeque<>();
+    ReceiverChain tail = null;
+    MethodInvocationNode current = node;
+    while (true) {
+      atypefactory.countChainLink();
+      InvocationRecord record = atypefactory.getInvocationRecord(current.getTree());
+      if (record.hasReceiverChain()) {
+        tail = record.getReceiverChain();
         break;
       }
+      pending.push(current);
+
+      // Note that we must check for null, because the tree could be implicit (when calling an
+      // instance method on the class itself). In that case the receiver is not a method
+      // invocation, anyway.
+      Node receiver = current.getTarget().getReceiver();
+      Tree receiverTree = receiver == null ? null : receiver.getTree();
+      if (receiverTree == null
+          || receiverTree.getKind() != Tree.Kind.METHOD_INVOCATION
+          || !atypefactory.returnsThis((MethodInvocationTree) receiverTree)) {
+        // The end of the chain of calls has been reached.
+        break;
+      }
+      current = (MethodInvocationNode) receiver;
     }
 
-    return result;
+    while (!pending.isEmpty()) {
+      MethodInvocationNode link = pending.pop();
+      Node receiver = link.getTarget().getReceiver();
+      ReceiverChain chain = tail;
+      if (receiver != null) {
+        Receiver receiverReceiver = FlowExpressions.internalReprOf(atypefactory, receiver);
+        if (!receiverReceiver.containsUnknown()) {
+          chain = new ReceiverChain(receiverReceiver, tail);
+        }
+      }
+      atypefactory.getInvocationRecord(link.getTree()).setReceiverChain(chain);
+      tail = chain;
+    }
+    return tail;
+  }
+
+  /** An immutable list of receivers, whose tails are shared between the calls of a chain. */
+  static final class ReceiverChain {
+    final Receiver receiver;
+    final @Nullable ReceiverChain tail;
+
+    ReceiverChain(Receiver receiver, @Nullable ReceiverChain tail) {
+      this.receiver = receiver;
+      this.tail = tail;
+    }
   }
 }
@@ -2,17 +2,18 @@ package org.checkerframework.checker.objectconstruction;
 
 import com.sun.source.tree.AnnotationTree;
 import com.sun.source.tree.MethodInvocationTree;
-import java.util.Collections;
+import com.sun.source.tree.MethodTree;
+import java.util.List;
 import javax.lang.model.element.AnnotationMirror;
-import javax.lang.model.element.ExecutableElement;
-import org.checkerframework.checker.objectconstruction.framework.FrameworkSupport;
+import javax.lang.model.element.ElementKind;
 import org.checkerframework.checker.objectconstruction.qual.CalledMethodsPredicate;
 import org.checkerframework.common.basetype.BaseTypeChecker;
 import org.checkerframework.common.basetype.BaseTypeVisitor;
 import org.checkerframework.framework.source.Result;
+import org.checkerframework.framework.type.AnnotatedTypeMirror;
+import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedExecutableType;
 import org.checkerframework.javacutil.AnnotationUtils;
 import org.checkerframework.javacutil.TreeUtils;
-import org.springframework.expression.spel.SpelParseException;
 
 public class ObjectConstructionVisitor
     extends BaseTypeVisitor<ObjectConstructionAnnotatedTypeFactory> {
@@ -28,28 +29,89 @@ public class ObjectConstructionVisitor
     if (AnnotationUtils.areSameByClass(anno, CalledMethodsPredicate.class)) {
       String predicate = AnnotationUtils.getElementValue(anno, "value", String.class, false);
 
-      try {
-        new CalledMethodsPredicateEvaluator(Collections.emptyList()).evaluate(predicate);
-      } catch (SpelParseException e) {
-        checker.report(Result.failure("predicate.invalid", e.getMessage()), node);
+      String error = getTypeFactory().getPredicateEvaluator().getParseError(predicate);
+      if (error != null) {
+        checker.report(Result.failure("predicate.invalid", error), node);
         return null;
       }
     }
     return super.visitAnnotation(node, p);
   }
 
+  /**
+   * Times the checking of each method for {@link ObjectConstructionChecker#REPORT_SLOWEST}. The
+   * time of a method includes that of the local and anonymous classes in it.
+   */
+  @Override
+  public Void visitMethod(MethodTree node, Void p) {
+    SlowestCodeReport slowestCodeReport = getTypeFactory().getSlowestCodeReport();
+    if (slowestCodeReport == null) {
+      return super.visitMethod(node, p);
+    }
+    long start = System.nanoTime();
+    try {
+      return super.visitMethod(node, p);
+    } finally {
+      slowestCodeReport.recordCheck(node, System.nanoTime() - start);
+    }
+  }
+
   @Override
   public Void visitMethodInvocation(MethodInvocationTree node, Void p) {
 
-    if (checker.getBooleanOption(ObjectConstructionChecker.COUNT_FRAMEWORK_BUILD_CALLS)) {
-      ExecutableElement element = TreeUtils.elementFromUse(node);
-      for (FrameworkSupport frameworkSupport : getTypeFactory().getFrameworkSupports()) {
-        if (frameworkSupport.isBuilderBuildMethod(element)) {
-          ((ObjectConstructionChecker) checker).numBuildCalls++;
-          break;
-        }
-      }
+    if ((checker.getBooleanOption(ObjectConstructionChecker.COUNT_FRAMEWORK_BUILD_CALLS)
+            || checker.hasOption(ObjectConstructionChecker.OC_STATS))
+        && getTypeFactory().getInvocationRecord(node).isBuildMethod()) {
+      ((ObjectConstructionChecker) checker).numBuildCalls++;
     }
     return super.visitMethodInvocation(node, p);
   }
+
+  /**
+   * Reports a call whose receiver has not had all the methods called on it that the method's
+   * receiver annotation requires as finalizer.invocation.invalid, with the methods that are
+   * missing. They are the difference of the two @CalledMethods sets in the lattice. The other
+   * cases, such as a @CalledMethodsPredicate on either side, are checked by the superclass. As in
+   * the superclass, nothing is checked if {@link #skipReceiverSubtypeCheck} says so.
+   */
+  @Override
+  protected void checkMethodInvocability(
+      AnnotatedExecutableType method, MethodInvocationTree node) {
+    AnnotatedTypeMirror methodReceiver = method.getReceiverType();
+    if (methodReceiver == null || method.getElement().getKind() == ElementKind.CONSTRUCTOR) {
+      super.checkMethodInvocability(method, node);
+      return;
+    }
+    ObjectConstructionAnnotatedTypeFactory factory = getTypeFactory();
+    AnnotatedTypeMirror treeReceiver = factory.getReceiverType(node);
+    if (treeReceiver == null) {
+      super.checkMethodInvocability(method, node);
+      return;
+    }
+    if (skipReceiverSubtypeCheck(node, methodReceiver, treeReceiver)) {
+      return;
+    }
+    CalledMethodsLattice lattice = factory.getLattice();
+    AnnotationMirror required = methodReceiver.getEffectiveAnnotationInHierarchy(factory.TOP);
+    AnnotationMirror actual = treeReceiver.getEffectiveAnnotationInHierarchy(factory.TOP);
+    if (required == null
+        || actual == null
+        || lattice.kindOf(required) != CalledMethodsLattice.Kind.CALLED_METHODS) {
+      super.checkMethodInvocability(method, node);
+      return;
+    }
+    CalledMethodsLattice.Kind actualKind = lattice.kindOf(actual);
+    if (actualKind != CalledMethodsLattice.Kind.CALLED_METHODS
+        && actualKind != CalledMethodsLattice.Kind.TOP) {
+      super.checkMethodInvocability(method, node);
+      return;
+    }
+    List<String> missingMethods =
+        lattice.methodNamesOfDifference(lattice.setIdOf(required), lattice.setIdOf(actual));
+    if (!missingMethods.isEmpty()) {
+      ((ObjectConstructionChecker) checker)
+          .reportFinalizerInvocationInvalid(
+              missingMethods, treeReceiver.getUnderlyingType(), getCurrentPath());
+    }
+  }
 }
@@ -0,0 +1,132 @@
+package org.checkerframework.checker.objectconstruction;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import org.checkerframework.javacutil.UserError;
+
+/**
+ * Counts the invocations of each phase of the checker and measures the wall-clock and CPU time
+ * spent in it, for {@link ObjectConstructionChecker#OC_STATS}. Times are inclusive: a phase that
+ * runs inside another, such as the framework supports inside the type annotator, counts towards
+ * both. Re-entering a phase that is already running, as the qualifier hierarchy does when it
+ * computes a bound with subtype tests, counts an invocation but not its time again.
+ *
+ * <p>Callers bracket a phase with {@link #enter} and {@link #exit} in a try-finally statement. When
+ * the option is not supplied, {@link #DISABLED} is used and both return immediately.
+ */
+final class PhaseStats {
+
+  /** The phases that are measured. */
+  enum Phase {
+    TYPE_ANNOTATOR("typeAnnotator"),
+    TREE_ANNOTATOR("treeAnnotator"),
+    TRANSFER("transfer"),
+    QUALIFIER_HIERARCHY("qualifierHierarchy"),
+    PREDICATE_EVALUATION("predicateEvaluation"),
+    FRAMEWORK_SUPPORT("frameworkSupport"),
+    VALUE_CHECKER("valueChecker"),
+    RETURNS_RECEIVER("returnsReceiver");
+
+    /** The name of the phase in the report. */
+    final String key;
+
+    Phase(String key) {
+      this.key = key;
+    }
+  }
+
+  /** Statistics that are not collected. */
+  static final PhaseStats DISABLED = new PhaseStats(false);
+
+  private static final int PHASES = Phase.values().length;
+
+  private final boolean enabled;
+
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+  /** Whether CPU time can be measured; if not, it is reported as -1. */
+  private final boolean measureCpu;
+
+  private final long[] calls = new long[PHASES];
+
+  private final long[] wallNanos = new long[PHASES];
+
+  private final long[] cpuNanos = new long[PHASES];
+
+  /** How many invocations of each phase are running. */
+  private final int[] depth = new int[PHASES];
+
+  private final long[] wallStart = new long[PHASES];
+
+  private final long[] cpuStart = new long[PHASES];
+
+  private PhaseStats(boolean enabled) {
+    this.enabled = enabled;
+    this.measureCpu = enabled && threads.isCurrentThreadCpuTimeSupported();
+  }
+
+  /** @return statistics that are collected */
+  static PhaseStats enabled() {
+    return new PhaseStats(true);
+  }
+
+  /** Records the start of an invocation of a phase. */
+  void enter(Phase phase) {
+    if (!enabled) {
+      return;
+    }
+    int i = phase.ordinal();
+    calls[i]++;
+    if (depth[i]++ == 0) {
+      wallStart[i] = System.nanoTime();
+      cpuStart[i] = measureCpu ? threads.getCurrentThreadCpuTime() : 0;
+    }
+  }
+
+  /** Records the end of an invocation of a phase that was started with {@link #enter}. */
+  void exit(Phase phase) {
+    if (!enabled) {
+      return;
+    }
+    int i = phase.ordinal();
+    if (--depth[i] == 0) {
+      wallNanos[i] += System.nanoTime() - wallStart[i];
+      if (measureCpu) {
+        cpuNanos[i] += threads.getCurrentThreadCpuTime() - cpuStart[i];
+      }
+    }
+  }
+
+  /**
+   * Writes the statistics as a JSON object with an entry for each phase and the given counters.
+   *
+   * @param file the file to write
+   * @param counters other counters of the checker, by name
+   */
+  void write(Path file, Map<String, Long> counters) {
+    StringBuilder json = new StringBuilder("{\n  \"phases\": {");
+    for (Phase phase : Phase.values()) {
+      int i = phase.ordinal();
+      json.append(i == 0 ? "\n" : ",\n");
+      json.append("    \"").append(phase.key).append("\": {\"calls\": ").append(calls[i]);
+      json.append(", \"wallNanos\": ").append(wallNanos[i]);
+      json.append(", \"cpuNanos\": ").append(measureCpu ? cpuNanos[i] : -1).append('}');
+    }
+    json.append("\n  }");
+    for (Map.Entry<String, Long> counter : counters.entrySet()) {
+      json.append(",\n  \"").append(counter.getKey()).append("\": ").append(counter.getValue());
+    }
+    json.append("\n}\n");
+    try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      out.write(json.toString());
+    } catch (IOException e) {
+      throw new UserError("Cannot write statistics to %s: %s", file, e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,403 @@
+package org.checkerframework.checker.objectconstruction;
+
+import com.sun.source.tree.AnnotatedTypeTree;
+import com.sun.source.tree.AnnotationTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreePathScanner;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.IntersectionType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import org.checkerframework.checker.framework.BoundedCache;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.checker.objectconstruction.qual.EnsuresCalledMethods;
+import org.checkerframework.framework.type.AnnotatedTypeMirror;
+import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedArrayType;
+import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedExecutableType;
+import org.checkerframework.javacutil.AnnotationUtils;
+import org.checkerframework.javacutil.ElementUtils;
+import org.checkerframework.javacutil.TreeUtils;
+
+/**
+ * Decides which calls the transfer function and the tree annotator need to record. Most instance
+ * calls in ordinary code are on types such as {@code String} or {@code List} that no @CalledMethods
+ * or @CalledMethodsPredicate requirement ever mentions, and even on builders, calls such as {@code
+ * toString()} or getters appear in no requirement. Recording them only grows the stores,
+ * the @CalledMethods sets, and the number of distinct annotations, and slows down every merge and
+ * lattice operation.
+ *
+ * <p>A call is recorded only if its method name appears in a requirement that may apply to the
+ * receiver. The requirements that apply to a type are those on the receivers of the methods of it
+ * and of its supertypes, after stubs and framework support (e.g. the requirements added to the
+ * build() methods of generated builders) have been applied. Requirements can also be stated
+ * elsewhere: on a parameter, a return type, a field, or a local variable. So the requirements that
+ * apply to a type also include every requirement in the current compilation unit on a subtype or a
+ * supertype of it, either in an annotation written in the unit or in the declaration of a method or
+ * field that the unit uses. Finally, the methods named by an @EnsuresCalledMethods postcondition in
+ * the current compilation unit must be recorded on every receiver, because the postcondition is
+ * checked against the types that the transfer function computes.
+ *
+ * <p>Omitting a method name that appears in no applicable requirement cannot change whether any
+ * requirement is satisfied, so the filtering is sound.
+ */
+final class RelevanceFilter {
+
+  private final ObjectConstructionAnnotatedTypeFactory atypeFactory;
+
+  private final Types types;
+
+  private final TypeElement objectElement;
+
+  /** The requirements on the receivers of the methods of a type and its supertypes. */
+  private final BoundedCache<TypeElement, RequiredNames> receiverRequirements =
+      new BoundedCache<>(1 << 14);
+
+  /** The requirements in the declaration of a method, constructor, or field, by annotated type. */
+  private final BoundedCache<Element, Map<TypeElement, RequiredNames>> declarationRequirements =
+      new BoundedCache<>(1 << 16);
+
+  /** The root of the current compilation unit, or null if there is none. */
+  private @Nullable CompilationUnitTree root;
+
+  /**
+   * The requirements that appear in, or are used by, the current compilation unit, by annotated
+   * type. Computed on first use after {@link #setRoot}.
+   */
+  private @Nullable Map<TypeElement, RequiredNames> mentioned;
+
+  /**
+   * The methods named by the @EnsuresCalledMethods postconditions in the current compilation unit.
+   * Computed together with {@link #mentioned}.
+   */
+  private final Set<String> postconditionNames = new HashSet<>();
+
+  /** The requirements that apply to each type queried in the current compilation unit. */
+  private final Map<TypeElement, RequiredNames> requiredInUnit = new HashMap<>();
+
+  private long trackedCalls = 0;
+
+  private long ignoredCalls = 0;
+
+  RelevanceFilter(ObjectConstructionAnnotatedTypeFactory atypeFactory) {
+    this.atypeFactory = atypeFactory;
+    this.types = atypeFactory.getProcessingEnv().getTypeUtils();
+    this.objectElement = atypeFactory.getElementUtils().getTypeElement("java.lang.Object");
+  }
+
+  /** Forgets everything that is specific to the previous compilation unit. */
+  void setRoot(@Nullable CompilationUnitTree root) {
+    this.root = root;
+    this.mentioned = null;
+    postconditionNames.clear();
+    requiredInUnit.clear();
+  }
+
+  /**
+   * Returns whether a call should be recorded in the type of its receiver. Calls on receivers whose
+   * type is not a declared type are always recorded.
+   *
+   * @param receiverType the static type of the receiver
+   * @param methodName the name of the method that is called, as it would be recorded
+   * @return false if no requirement that may apply to the receiver mentions the method
+   */
+  boolean isRelevant(TypeMirror receiverType, String methodName) {
+    boolean result =
+        receiverType.getKind() != TypeKind.DECLARED
+            || requiredNames((TypeElement) ((DeclaredType) receiverType).asElement())
+                .contains(methodName);
+    if (result) {
+      trackedCalls++;
+    } else {
+      ignoredCalls++;
+    }
+    return result;
+  }
+
+  /** @return the method names mentioned by the requirements that may apply to a type */
+  private Set<String> requiredNames(TypeElement type) {
+    RequiredNames result = requiredInUnit.get(type);
+    if (result == null) {
+      result = new RequiredNames();
+      result.addAll(receiverRequirements.get(type, this::computeReceiverRequirements));
+      Map<TypeElement, RequiredNames> mentionedInUnit = getMentioned();
+      result.names.addAll(postconditionNames);
+      TypeMirror erased = types.erasure(type.asType());
+      for (Map.Entry<TypeElement, RequiredNames> entry : mentionedInUnit.entrySet()) {
+        TypeMirror mentionedErased = types.erasure(entry.getKey().asType());
+        if (types.isSubtype(erased, mentionedErased) || types.isSubtype(mentionedErased, erased)) {
+          result.addAll(entry.getValue());
+        }
+      }
+      requiredInUnit.put(type, result);
+    }
+    return result.names;
+  }
+
+  private Map<TypeElement, RequiredNames> getMentioned() {
+    Map<TypeElement, RequiredNames> result = mentioned;
+    if (result == null) {
+      result = new HashMap<>();
+      if (root != null) {
+        new RequirementScanner(result).scan(root, null);
+      }
+      mentioned = result;
+    }
+    return result;
+  }
+
+  private RequiredNames computeReceiverRequirements(TypeElement type) {
+    RequiredNames result = new RequiredNames();
+    List<TypeElement> typeAndSupertypes = new ArrayList<>();
+    typeAndSupertypes.add(type);
+    typeAndSupertypes.addAll(ElementUtils.getSuperTypes(type, atypeFactory.getElementUtils()));
+    for (TypeElement t : typeAndSupertypes) {
+      for (ExecutableElement method : ElementFilter.methodsIn(t.getEnclosedElements())) {
+        if (method.getModifiers().contains(Modifier.STATIC)) {
+          continue;
+        }
+        AnnotatedTypeMirror receiver = atypeFactory.getAnnotatedType(method).getReceiverType();
+        if (receiver != null) {
+          addIfRequirement(receiver.getAnnotationInHierarchy(atypeFactory.TOP), result);
+        }
+      }
+    }
+    return result;
+  }
+
+  private Map<TypeElement, RequiredNames> computeDeclarationRequirements(Element element) {
+    Map<TypeElement, RequiredNames> result = new HashMap<>();
+    AnnotatedTypeMirror type = atypeFactory.getAnnotatedType(element);
+    if (type instanceof AnnotatedExecutableType) {
+      AnnotatedExecutableType methodType = (AnnotatedExecutableType) type;
+      addIfRequirement(methodType.getReceiverType(), result);
+      addIfRequirement(methodType.getReturnType(), result);
+      for (AnnotatedTypeMirror parameterType : methodType.getParameterTypes()) {
+        addIfRequirement(parameterType, result);
+      }
+    } else {
+      addIfRequirement(type, result);
+    }
+    return result.isEmpty() ? Collections.emptyMap() : result;
+  }
+
+  /**
+   * Adds the requirement of a type, if it has one, to the requirements on the classes that its
+   * values may have. A requirement on an array applies to its components, and a requirement on a
+   * type variable or wildcard, including one on its upper bound, applies to the bound.
+   */
+  private void addIfRequirement(
+      @Nullable AnnotatedTypeMirror type, Map<TypeElement, RequiredNames> result) {
+    if (type == null) {
+      return;
+    }
+    switch (type.getKind()) {
+      case DECLARED:
+        TypeElement element = (TypeElement) ((DeclaredType) type.getUnderlyingType()).asElement();
+        addIfRequirement(type.getAnnotationInHierarchy(atypeFactory.TOP), element, result);
+        break;
+      case ARRAY:
+        addIfRequirement(((AnnotatedArrayType) type).getComponentType(), result);
+        break;
+      case TYPEVAR:
+      case WILDCARD:
+        AnnotationMirror anno = type.getEffectiveAnnotationInHierarchy(atypeFactory.TOP);
+        for (TypeElement bound : classesOf(type.getUnderlyingType())) {
+          addIfRequirement(anno, bound, result);
+        }
+        break;
+      default:
+    }
+  }
+
+  /**
+   * Returns the classes whose requirements apply to the values of a type: the class of a declared
+   * type, the classes of the components of an array type, and the classes of the upper bounds of a
+   * type variable, wildcard, or intersection type.
+   */
+  private List<TypeElement> classesOf(TypeMirror type) {
+    switch (type.getKind()) {
+      case DECLARED:
+        return Collections.singletonList((TypeElement) ((DeclaredType) type).asElement());
+      case ARRAY:
+        return classesOf(((ArrayType) type).getComponentType());
+      case TYPEVAR:
+        return classesOf(((TypeVariable) type).getUpperBound());
+      case WILDCARD:
+        TypeMirror extendsBound = ((WildcardType) type).getExtendsBound();
+        return extendsBound == null
+            ? Collections.singletonList(objectElement)
+            : classesOf(extendsBound);
+      case INTERSECTION:
+        List<TypeElement> result = new ArrayList<>();
+        for (TypeMirror bound : ((IntersectionType) type).getBounds()) {
+          result.addAll(classesOf(bound));
+        }
+        return result;
+      default:
+        return Collections.emptyList();
+    }
+  }
+
+  private void addIfRequirement(
+      @Nullable AnnotationMirror anno,
+      TypeElement element,
+      Map<TypeElement, RequiredNames> result) {
+    RequiredNames names = result.get(element);
+    if (names == null) {
+      names = new RequiredNames();
+    }
+    addIfRequirement(anno, names);
+    if (names.hasRequirement) {
+      result.put(element, names);
+    }
+  }
+
+  /** If the given annotation is not top, adds the method names that it mentions to the result. */
+  private void addIfRequirement(@Nullable AnnotationMirror anno, RequiredNames result) {
+    if (anno == null) {
+      return;
+    }
+    CalledMethodsLattice lattice = atypeFactory.getLattice();
+    switch (lattice.kindOf(anno)) {
+      case TOP:
+        return;
+      case CALLED_METHODS:
+        result.names.addAll(lattice.methodNamesOf(lattice.setIdOf(anno)));
+        break;
+      case PREDICATE:
+        String predicate = AnnotationUtils.getElementValue(anno, "value", String.class, false);
+        result.names.addAll(atypeFactory.getPredicateEvaluator().methodNamesOf(predicate));
+        break;
+      default:
+    }
+    result.hasRequirement = true;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%d calls tracked, %d calls ignored, receiver requirements: %s, declarations: %s",
+        trackedCalls, ignoredCalls, receiverRequirements, declarationRequirements);
+  }
+
+  /** Whether there are any requirements on a type, and which method names they mention. */
+  private static final class RequiredNames {
+    boolean hasRequirement = false;
+
+    final Set<String> names = new HashSet<>();
+
+    void addAll(RequiredNames other) {
+      hasRequirement |= other.hasRequirement;
+      names.addAll(other.names);
+    }
+  }
+
+  /** Collects the requirements in, or used by, a compilation unit. */
+  private class RequirementScanner extends TreePathScanner<Void, Void> {
+
+    /** The map that the requirements are added to. */
+    private final Map<TypeElement, RequiredNames> mentioned;
+
+    RequirementScanner(Map<TypeElement, RequiredNames> mentioned) {
+      this.mentioned = mentioned;
+    }
+
+    @Override
+    public Void visitMethodInvocation(MethodInvocationTree tree, Void p) {
+      addDeclarationRequirements(TreeUtils.elementFromUse(tree));
+      return super.visitMethodInvocation(tree, p);
+    }
+
+    @Override
+    public Void visitNewClass(NewClassTree tree, Void p) {
+      addDeclarationRequirements(TreeUtils.elementFromUse(tree));
+      return super.visitNewClass(tree, p);
+    }
+
+    @Override
+    public Void visitIdentifier(IdentifierTree tree, Void p) {
+      addFieldRequirements(TreeUtils.elementFromTree(tree));
+      return super.visitIdentifier(tree, p);
+    }
+
+    @Override
+    public Void visitMemberSelect(MemberSelectTree tree, Void p) {
+      addFieldRequirements(TreeUtils.elementFromTree(tree));
+      return super.visitMemberSelect(tree, p);
+    }
+
+    @Override
+    public Void visitAnnotation(AnnotationTree tree, Void p) {
+      AnnotationMirror anno = TreeUtils.annotationFromAnnotationTree(tree);
+      if (AnnotationUtils.areSameByClass(anno, EnsuresCalledMethods.class)) {
+        postconditionNames.addAll(
+            AnnotationUtils.getElementValueArray(anno, "methods", String.class, false));
+      } else if (atypeFactory.isSupportedQualifier(anno)) {
+        Tree annotated = getCurrentPath().getParentPath().getLeaf();
+        if (annotated.getKind() == Tree.Kind.MODIFIERS) {
+          // A declaration annotation position: the annotated type is that of the declaration.
+          annotated = getCurrentPath().getParentPath().getParentPath().getLeaf();
+        } else if (!(annotated instanceof AnnotatedTypeTree)) {
+          annotated = null;
+        }
+        TypeMirror type = annotated == null ? null : TreeUtils.typeOf(annotated);
+        if (type != null && type.getKind() == TypeKind.EXECUTABLE) {
+          type = ((ExecutableType) type).getReturnType();
+        }
+        if (type != null) {
+          for (TypeElement element : classesOf(type)) {
+            addIfRequirement(anno, element, mentioned);
+          }
+        }
+      }
+      return super.visitAnnotation(tree, p);
+    }
+
+    private void addDeclarationRequirements(@Nullable Element element) {
+      if (element == null) {
+        return;
+      }
+      Map<TypeElement, RequiredNames> requirements =
+          declarationRequirements.get(
+              element, RelevanceFilter.this::computeDeclarationRequirements);
+      for (Map.Entry<TypeElement, RequiredNames> entry : requirements.entrySet()) {
+        RequiredNames names = mentioned.get(entry.getKey());
+        if (names == null) {
+          names = new RequiredNames();
+          mentioned.put(entry.getKey(), names);
+        }
+        names.addAll(entry.getValue());
+      }
+    }
+
+    private void addFieldRequirements(@Nullable Element element) {
+      if (element != null && element.getKind() == ElementKind.FIELD) {
+        addDeclarationRequirements(element);
+      }
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package org.checkerframework.checker.objectconstruction;
+
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreeScanner;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.common.basetype.BaseTypeVisitor;
+import org.checkerframework.common.value.ValueAnnotatedTypeFactory;
+import org.checkerframework.common.value.ValueChecker;
+import org.checkerframework.common.value.ValueVisitor;
+import org.checkerframework.javacutil.ElementUtils;
+import org.checkerframework.javacutil.TreeUtils;
+
+/**
+ * A Value Checker that only analyzes the top-level classes in which the object construction checker
+ * needs constant values: those that call a method of a class that has {@link MethodAliasRules}. The
+ * full Value Checker builds a control-flow graph and runs dataflow analysis for every method in the
+ * compilation, although the object construction checker only asks it for the values of the
+ * arguments to a few calls.
+ *
+ * <p>The values of expressions in the skipped classes are never queried, because {@link
+ * ObjectConstructionAnnotatedTypeFactory#adjustMethodNameUsingValueChecker} only consults the Value
+ * Checker for calls to methods of those classes, and the arguments of such a call belong to the
+ * same top-level class as the call. No Value Checker warnings are issued for the skipped classes.
+ *
+ * <p>Used when {@code -AuseValueChecker=scoped} is supplied. If no rule applies to the classes on
+ * the classpath, a note says that the Value Checker analyzes nothing.
+ */
+public class ScopedValueChecker extends ValueChecker {
+
+  /** The rules of the object construction checker. Set on first use. */
+  private @Nullable MethodAliasRules methodAliasRules;
+
+  @Override
+  protected BaseTypeVisitor<?> createSourceVisitor() {
+    // BaseTypeVisitor looks for a type factory named after the checker class, which would not
+    // find ValueAnnotatedTypeFactory for this subclass.
+    return new ValueVisitor(this) {
+      @Override
+      protected ValueAnnotatedTypeFactory createTypeFactory() {
+        return new ValueAnnotatedTypeFactory(checker);
+      }
+    };
+  }
+
+  @Override
+  public void typeProcess(TypeElement element, TreePath tree) {
+    if (methodAliasRules == null) {
+      methodAliasRules = getMethodAliasRules();
+      if (methodAliasRules.isEmpty()) {
+        message(
+            Diagnostic.Kind.NOTE,
+            "No method alias rules apply to the classpath, so the scoped Value Checker analyzes no"
+                + " class.");
+      }
+    }
+    if (callsValueDependentMethod(tree.getLeaf(), methodAliasRules)) {
+      super.typeProcess(element, tree);
+    }
+  }
+
+  /**
+   * Returns the rules of the object construction checker that this checker belongs to, so that the
+   * two agree on the classes that need constant values.
+   *
+   * @return the method alias rules
+   */
+  private MethodAliasRules getMethodAliasRules() {
+    if (parentChecker instanceof ObjectConstructionChecker) {
+      ObjectConstructionAnnotatedTypeFactory atypeFactory =
+          (ObjectConstructionAnnotatedTypeFactory)
+              ((ObjectConstructionChecker) parentChecker).getTypeFactory();
+      if (atypeFactory != null) {
+        return atypeFactory.getMethodAliasRules();
+      }
+    }
+    return MethodAliasRules.load(getOption("stubs"), processingEnv);
+  }
+
+  /**
+   * Returns whether the given tree contains a call to a method of a class that has rules.
+   *
+   * @param tree a top-level class
+   * @param rules the method alias rules
+   * @return whether the Value Checker must analyze the class
+   */
+  private static boolean callsValueDependentMethod(Tree tree, MethodAliasRules rules) {
+    ValueDependentCallFinder finder = new ValueDependentCallFinder(rules);
+    finder.scan(tree, null);
+    return finder.found;
+  }
+
+  /** Looks for a call to a method of one of the value-dependent classes. */
+  private static class ValueDependentCallFinder extends TreeScanner<Void, Void> {
+
+    private final MethodAliasRules rules;
+
+    private boolean found = false;
+
+    ValueDependentCallFinder(MethodAliasRules rules) {
+      this.rules = rules;
+    }
+
+    @Override
+    public Void scan(Tree tree, Void p) {
+      // Stop as soon as a call is found.
+      return found ? null : super.scan(tree, p);
+    }
+
+    @Override
+    public Void visitMethodInvocation(MethodInvocationTree tree, Void p) {
+      ExecutableElement method = TreeUtils.elementFromUse(tree);
+      if (method != null && rules.hasRulesFor(ElementUtils.enclosingClass(method))) {
+        found = true;
+        return null;
+      }
+      return super.visitMethodInvocation(tree, p);
+    }
+  }
+}
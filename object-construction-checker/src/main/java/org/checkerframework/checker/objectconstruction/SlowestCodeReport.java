@@ -0,0 +1,272 @@
+package org.checkerframework.checker.objectconstruction;
+
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.MethodTree;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.dataflow.analysis.FlowExpressions.Receiver;
+import org.checkerframework.javacutil.ElementUtils;
+import org.checkerframework.javacutil.TreeUtils;
+import org.checkerframework.javacutil.UserError;
+
+/**
+ * Times the compilation units, top-level classes, and methods that the checker analyzes, and
+ * reports the slowest of each, for {@link ObjectConstructionChecker#REPORT_SLOWEST}.
+ *
+ * <p>The time of a class is the whole time that the Checker Framework spends on it, including
+ * dataflow analysis; the time of a compilation unit is the sum of the times of its classes. The
+ * time of a method is the time spent type-checking its body plus the time spent in this checker's
+ * transfer function for the method calls in it, including those in its lambdas. For each method,
+ * the report also gives the number of times the transfer function ran for its calls, which grows
+ * with the number of dataflow iterations; the longest chain of receivers that a single call
+ * updated; and the number of distinct receivers whose type the transfer function set, which is this
+ * checker's part of the store.
+ *
+ * <p>The statistics of the methods of a class are ranked when the class is done, so only the
+ * slowest methods are kept.
+ */
+final class SlowestCodeReport {
+
+  /** The number of entries of each ranking when no number is given. */
+  static final int DEFAULT_SIZE = 20;
+
+  private final Ranking<Timed> units;
+
+  private final Ranking<Timed> classes;
+
+  private final Ranking<MethodTimes> methods;
+
+  /** The time of each compilation unit, by file name relative to the working directory. */
+  private final Map<String, Timed> unitTimes = new HashMap<>();
+
+  /** The methods of the class that is being analyzed. */
+  private final Map<MethodTree, MethodTimes> currentMethods = new IdentityHashMap<>();
+
+  /** The method whose dataflow analysis is running, or null if the analyzed code is no method. */
+  private @Nullable MethodTimes currentMethod;
+
+  private long classStart;
+
+  /** @param size the number of entries of each ranking */
+  SlowestCodeReport(int size) {
+    this.units = new Ranking<>(size);
+    this.classes = new Ranking<>(size);
+    this.methods = new Ranking<>(size);
+  }
+
+  /** Records the start of the analysis of a top-level class. */
+  void beginClass() {
+    classStart = System.nanoTime();
+  }
+
+  /**
+   * Records the end of the analysis of a top-level class, and ranks its methods.
+   *
+   * @param element the class
+   * @param root the compilation unit of the class
+   */
+  void endClass(TypeElement element, CompilationUnitTree root) {
+    long nanos = System.nanoTime() - classStart;
+    classes.offer(new Timed(element.getQualifiedName().toString(), nanos));
+    String file = FindingsBaseline.relativeFileName(root.getSourceFile().toUri());
+    unitTimes.computeIfAbsent(file, f -> new Timed(f, 0)).nanos += nanos;
+    for (MethodTimes method : currentMethods.values()) {
+      methods.offer(method);
+    }
+    currentMethods.clear();
+    currentMethod = null;
+  }
+
+  /**
+   * Records that the dataflow analysis of a method, of a lambda in a method, or of code that is not
+   * in a method, starts.
+   *
+   * @param method the method, or the method that contains the lambda, or null
+   */
+  void beginDataflow(@Nullable MethodTree method) {
+    currentMethod = method == null ? null : timesOf(method);
+  }
+
+  /**
+   * Records a run of the transfer function for a method call in the method whose dataflow analysis
+   * is running.
+   *
+   * @param nanos the time it took
+   */
+  void recordTransfer(long nanos) {
+    MethodTimes method = currentMethod;
+    if (method != null) {
+      method.transferNanos += nanos;
+      method.nanos += nanos;
+      method.transfers++;
+    }
+  }
+
+  /**
+   * Records the receivers whose type the transfer function set for a method call in the method
+   * whose dataflow analysis is running.
+   *
+   * @param chain the receivers
+   */
+  void recordReceivers(ObjectConstructionTransfer.@Nullable ReceiverChain chain) {
+    MethodTimes method = currentMethod;
+    if (method == null) {
+      return;
+    }
+    int length = 0;
+    for (ObjectConstructionTransfer.ReceiverChain link = chain; link != null; link = link.tail) {
+      method.receivers.add(link.receiver);
+      length++;
+    }
+    method.maxChain = Math.max(method.maxChain, length);
+  }
+
+  /**
+   * Records the time spent type-checking the body of a method.
+   *
+   * @param method the method
+   * @param nanos the time it took
+   */
+  void recordCheck(MethodTree method, long nanos) {
+    MethodTimes times = timesOf(method);
+    times.checkNanos += nanos;
+    times.nanos += nanos;
+  }
+
+  private MethodTimes timesOf(MethodTree method) {
+    MethodTimes times = currentMethods.get(method);
+    if (times == null) {
+      ExecutableElement element = TreeUtils.elementFromDeclaration(method);
+      String name =
+          element == null
+              ? method.getName().toString()
+              : ElementUtils.enclosingClass(element).getQualifiedName() + "#" + element;
+      times = new MethodTimes(name);
+      currentMethods.put(method, times);
+    }
+    return times;
+  }
+
+  /**
+   * Writes the report.
+   *
+   * @param file the file to write it to, or null to write it to standard error
+   */
+  void write(@Nullable Path file) {
+    for (Timed unit : unitTimes.values()) {
+      units.offer(unit);
+    }
+    unitTimes.clear();
+    StringBuilder report = new StringBuilder();
+    section(report, "compilation units", units.ranked());
+    section(report, "classes", classes.ranked());
+    section(report, "methods", methods.ranked());
+    if (file == null) {
+      PrintStream err = System.err;
+      err.print(report);
+      err.flush();
+      return;
+    }
+    try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      out.write(report.toString());
+    } catch (IOException e) {
+      throw new UserError("Cannot write the slowest code report to %s: %s", file, e.getMessage());
+    }
+  }
+
+  private static void section(StringBuilder report, String title, List<? extends Timed> entries) {
+    report.append(String.format("Slowest %d %s:%n", entries.size(), title));
+    int rank = 1;
+    for (Timed entry : entries) {
+      report.append(String.format("%4d. %10.1f ms  %s%n", rank++, entry.nanos / 1e6, entry));
+    }
+  }
+
+  /** Something that was timed. */
+  private static class Timed {
+    final String name;
+
+    long nanos;
+
+    Timed(String name, long nanos) {
+      this.name = name;
+      this.nanos = nanos;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  /** The statistics of a method. */
+  private static final class MethodTimes extends Timed {
+    long checkNanos;
+
+    long transferNanos;
+
+    int transfers;
+
+    int maxChain;
+
+    final Set<Receiver> receivers = new HashSet<>();
+
+    MethodTimes(String name) {
+      super(name, 0);
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%s (check %.1f ms, transfer %.1f ms, %d transfers, longest chain %d, %d receivers)",
+          name, checkNanos / 1e6, transferNanos / 1e6, transfers, maxChain, receivers.size());
+    }
+  }
+
+  /** Keeps the slowest of the entries that are offered to it. */
+  private static final class Ranking<T extends Timed> {
+
+    private final int size;
+
+    /** The slowest entries so far, with the fastest of them at the head. */
+    private final PriorityQueue<T> slowest =
+        new PriorityQueue<>(Comparator.comparingLong(t -> t.nanos));
+
+    Ranking(int size) {
+      this.size = size;
+    }
+
+    void offer(T entry) {
+      if (slowest.size() < size) {
+        slowest.add(entry);
+      } else if (size > 0 && slowest.peek().nanos < entry.nanos) {
+        slowest.poll();
+        slowest.add(entry);
+      }
+    }
+
+    /** @return the entries, slowest first */
+    List<T> ranked() {
+      List<T> result = new ArrayList<>(slowest);
+      result.sort(Collections.reverseOrder(Comparator.comparingLong(t -> t.nanos)));
+      return result;
+    }
+  }
+}
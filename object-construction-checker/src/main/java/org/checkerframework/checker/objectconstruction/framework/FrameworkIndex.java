@@ -0,0 +1,109 @@
+package org.checkerframework.checker.objectconstruction.framework;
+
+import java.util.EnumSet;
+import java.util.Set;
+import javax.lang.model.element.TypeElement;
+import org.checkerframework.checker.framework.BoundedCache;
+import org.checkerframework.checker.framework.BuilderMetadata;
+import org.checkerframework.checker.framework.FrameworkSupportUtils.Framework;
+
+/**
+ * Classifies types by the role that they play in the code of the supported frameworks, so that the
+ * framework supports are only consulted for the methods and constructors of types that may have
+ * such a role. Each type is classified once, and ordinary types, which have no role, skip the
+ * framework supports entirely.
+ */
+public final class FrameworkIndex {
+
+  /** The role of a type in the code of a framework. */
+  public enum Role {
+    /** A class annotated with @AutoValue. */
+    AUTO_VALUE_CLASS(Framework.AUTO_VALUE),
+    /** A class annotated with @AutoValue.Builder. */
+    AUTO_VALUE_BUILDER(Framework.AUTO_VALUE),
+    /** A subclass of an @AutoValue or @AutoValue.Builder class, which AutoValue generates. */
+    AUTO_VALUE_GENERATED_SUBCLASS(Framework.AUTO_VALUE),
+    /** A builder class that Lombok generated or completed. */
+    LOMBOK_BUILDER(Framework.LOMBOK),
+    /** Another class with code that Lombok generated, e.g. a toBuilder() method. */
+    LOMBOK_CLASS(Framework.LOMBOK);
+
+    /** The framework whose code has this role. */
+    public final Framework framework;
+
+    Role(Framework framework) {
+      this.framework = framework;
+    }
+  }
+
+  /** The frameworks whose support is enabled. */
+  private final Set<Framework> enabledFrameworks;
+
+  private final BuilderMetadata builderMetadata;
+
+  private final BoundedCache<TypeElement, EnumSet<Role>> roles = new BoundedCache<>(1 << 16);
+
+  /**
+   * @param enabledFrameworks the frameworks whose support is enabled
+   * @param builderMetadata the builder metadata of the compilation, which the roles are based on
+   */
+  public FrameworkIndex(Set<Framework> enabledFrameworks, BuilderMetadata builderMetadata) {
+    this.enabledFrameworks = enabledFrameworks;
+    this.builderMetadata = builderMetadata;
+  }
+
+  /**
+   * Returns the roles of a type, which are empty for ordinary types.
+   *
+   * @param type a type
+   * @return the roles of {@code type} in the code of the enabled frameworks; must not be modified
+   */
+  public EnumSet<Role> rolesOf(TypeElement type) {
+    return roles.get(type, this::computeRoles);
+  }
+
+  /**
+   * Returns the frameworks whose supports must be consulted for the methods and constructors of a
+   * type.
+   *
+   * @param type a type
+   * @return the frameworks for which {@code type} has a role
+   */
+  public EnumSet<Framework> frameworksOf(TypeElement type) {
+    EnumSet<Framework> result = EnumSet.noneOf(Framework.class);
+    for (Role role : rolesOf(type)) {
+      result.add(role.framework);
+    }
+    return result;
+  }
+
+  private EnumSet<Role> computeRoles(TypeElement type) {
+    EnumSet<Role> result = EnumSet.noneOf(Role.class);
+    BuilderMetadata.TypeFacts facts = builderMetadata.getTypeFacts(type);
+    if (enabledFrameworks.contains(Framework.AUTO_VALUE)) {
+      if (facts.isAutoValueClass) {
+        result.add(Role.AUTO_VALUE_CLASS);
+      }
+      if (facts.isAutoValueBuilder) {
+        result.add(Role.AUTO_VALUE_BUILDER);
+      }
+      if (facts.autoValueSuperclass != null || facts.autoValueBuilderSuperclass != null) {
+        result.add(Role.AUTO_VALUE_GENERATED_SUBCLASS);
+      }
+    }
+    if (enabledFrameworks.contains(Framework.LOMBOK) && facts.hasLombokGeneratedCode()) {
+      result.add(facts.isNamedLikeBuilder ? Role.LOMBOK_BUILDER : Role.LOMBOK_CLASS);
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "framework roles: " + roles;
+  }
+
+  /** Discards the roles of the types of the current compilation. */
+  public void clear() {
+    roles.clear();
+  }
+}
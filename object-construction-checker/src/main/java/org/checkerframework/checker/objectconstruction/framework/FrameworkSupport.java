@@ -47,4 +47,10 @@ public interface FrameworkSupport {
    *     framework, {@code false} otherwise
    */
   boolean isBuilderBuildMethod(ExecutableElement e);
+
+  /**
+   * Discards the information that the framework support has cached about the elements of the
+   * current compilation. Called when type processing is over.
+   */
+  default void clearCaches() {}
 }
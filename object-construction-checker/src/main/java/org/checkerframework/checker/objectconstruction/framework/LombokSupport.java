@@ -1,66 +1,38 @@
 package org.checkerframework.checker.objectconstruction.framework;
 
 import com.sun.source.tree.NewClassTree;
-import com.sun.source.tree.VariableTree;
-import java.beans.Introspector;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import javax.lang.model.element.AnnotationMirror;
-import javax.lang.model.element.Element;
-import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
-import javax.lang.model.type.TypeMirror;
+import org.checkerframework.checker.framework.BoundedCache;
+import org.checkerframework.checker.framework.BuilderMetadata;
+import org.checkerframework.checker.framework.FrameworkSupportUtils.Framework;
+import org.checkerframework.checker.objectconstruction.CheckerEvents;
 import org.checkerframework.checker.objectconstruction.ObjectConstructionAnnotatedTypeFactory;
 import org.checkerframework.framework.type.AnnotatedTypeMirror;
 import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedExecutableType;
-import org.checkerframework.javacutil.AnnotationUtils;
 
 /**
  * Lombok Support for the Object Construction Checker, which adds CalledMethods annotations to the
- * code generated by Lombok.
+ * code generated by Lombok. The facts about the builders come from the {@link BuilderMetadata} that
+ * is shared with the Returns Receiver Checker.
  */
 public class LombokSupport implements FrameworkSupport {
 
   private ObjectConstructionAnnotatedTypeFactory atypeFactory;
 
+  private final BuilderMetadata builderMetadata;
+
+  /** The @CalledMethods annotation for the required properties of each @lombok.Builder class. */
+  private final BoundedCache<TypeElement, AnnotationMirror> calledMethodsAnnos =
+      new BoundedCache<>(1 << 14);
+
   public LombokSupport(ObjectConstructionAnnotatedTypeFactory atypeFactory) {
     this.atypeFactory = atypeFactory;
+    this.builderMetadata = BuilderMetadata.instance(atypeFactory.getProcessingEnv());
   }
 
-  // The list is copied from lombok.core.handlers.HandlerUtil. The list cannot be used from that
-  // class directly because Lombok does not provide class files for its own implementation, to
-  // prevent itself from being accidentally added to clients' compile classpaths. This design
-  // decision means that it is impossible to depend directly on Lombok internals.
-  /** The list of annotations that Lombok treats as non-null. */
-  public static final List<String> NONNULL_ANNOTATIONS =
-      Collections.unmodifiableList(
-          Arrays.asList(
-              "android.annotation.NonNull",
-              "android.support.annotation.NonNull",
-              "com.sun.istack.internal.NotNull",
-              "edu.umd.cs.findbugs.annotations.NonNull",
-              "javax.annotation.Nonnull",
-              // "javax.validation.constraints.NotNull", // The field might contain a null value
-              // until it is persisted.
-              "lombok.NonNull",
-              "org.checkerframework.checker.nullness.qual.NonNull",
-              "org.eclipse.jdt.annotation.NonNull",
-              "org.eclipse.jgit.annotations.NonNull",
-              "org.jetbrains.annotations.NotNull",
-              "org.jmlspecs.annotation.NonNull",
-              "org.netbeans.api.annotations.common.NonNull",
-              "org.springframework.lang.NonNull"));
-
-  // Keep a cache of these so that when declarationFromElement doesn't work,
-  // we can still default correctly. Value is the property name to treat as
-  // defaulted.
-  private final Map<Element, String> defaultedElements = new HashMap<>();
-
   /**
    * For {@code build} methods on {@code Builder} types, the framework support should determine the
    * required properties and add a corresponding {@link
@@ -75,108 +47,42 @@ public class LombokSupport implements FrameworkSupport {
 
     if (isBuilderBuildMethod(element)) {
       TypeElement enclosingElement = (TypeElement) element.getEnclosingElement();
-      Element nextEnclosingElement = enclosingElement.getEnclosingElement();
-
-      List<String> requiredProperties = getLombokRequiredProperties(nextEnclosingElement);
-      AnnotationMirror newCalledMethodsAnno =
-          atypeFactory.createCalledMethods(requiredProperties.toArray(new String[0]));
-      t.getReceiverType().addAnnotation(newCalledMethodsAnno);
+      TypeElement nextEnclosingElement = (TypeElement) enclosingElement.getEnclosingElement();
+      t.getReceiverType().addAnnotation(getCalledMethodsAnno(nextEnclosingElement));
     }
   }
 
   @Override
   public void handlePossibleToBuilder(AnnotatedExecutableType t) {
-
-    AnnotatedTypeMirror returnType = t.getReturnType();
     ExecutableElement element = t.getElement();
 
-    String methodName = element.getSimpleName().toString();
-
-    // make sure the method is toBuilder
-    if ("toBuilder".equals(methodName)) {
+    if (builderMetadata.isToBuilderMethod(element, Framework.LOMBOK)) {
       TypeElement enclosingElement = (TypeElement) element.getEnclosingElement();
-
-      if (FrameworkSupportUtils.hasAnnotation(element, "lombok.Generated")
-          || FrameworkSupportUtils.hasAnnotation(enclosingElement, "lombok.Generated")) {
-        handleToBuilderType(returnType, returnType.getUnderlyingType(), enclosingElement);
-      }
+      t.getReturnType().replaceAnnotation(getCalledMethodsAnno(enclosingElement));
     }
   }
 
   /**
-   * Update a particular type associated with a toBuilder with the relevant CalledMethods
-   * annotation. This can be the return type of toBuilder or the corresponding generated "copy"
-   * constructor.
+   * Returns the @CalledMethods annotation for the required properties of a @lombok.Builder class.
    *
-   * @param type type to update
-   * @param classElement corresponding AutoValue class
+   * @param lombokClassElement the class with the @lombok.Builder annotation
+   * @return the annotation, which holds once the setters of all required properties of {@code
+   *     lombokClassElement} have been called
    */
-  private void handleToBuilderType(
-      AnnotatedTypeMirror type, TypeMirror builderType, Element classElement) {
-    List<String> requiredProperties = getLombokRequiredProperties(classElement);
-    AnnotationMirror calledMethodsAnno =
-        atypeFactory.createCalledMethods(requiredProperties.toArray(new String[0]));
-    type.replaceAnnotation(calledMethodsAnno);
+  private AnnotationMirror getCalledMethodsAnno(TypeElement lombokClassElement) {
+    return calledMethodsAnnos.get(lombokClassElement, this::computeCalledMethodsAnno);
   }
 
-  /**
-   * computes the required properties of a @lombok.Builder class, i.e., the names of the fields
-   * with @lombok.NonNull annotations.
-   *
-   * @param lombokClassElement the class with the @lombok.Builder annotation
-   * @return a list of required property names
-   */
-  private List<String> getLombokRequiredProperties(final Element lombokClassElement) {
-    List<String> requiredPropertyNames = new ArrayList<>();
-    List<String> defaultedPropertyNames = new ArrayList<>();
-    for (Element member : lombokClassElement.getEnclosedElements()) {
-      if (member.getKind() == ElementKind.FIELD) {
-        for (AnnotationMirror anm :
-            atypeFactory.getElementUtils().getAllAnnotationMirrors(member)) {
-          //	          System.out.println();
-          if (NONNULL_ANNOTATIONS.contains(AnnotationUtils.annotationName(anm))) {
-            requiredPropertyNames.add(member.getSimpleName().toString());
-          }
-        }
-      } else if (member.getKind() == ElementKind.METHOD
-          && FrameworkSupportUtils.hasAnnotation(member, "lombok.Generated")) {
-        String methodName = member.getSimpleName().toString();
-        // Handle fields with @Builder.Default annotations.
-        // If a field foo has an @Builder.Default annotation, Lombok always generates a method
-        // called $default$foo.
-        if (methodName.startsWith("$default$")) {
-          String propName = methodName.substring(9); // $default$ has 9 characters
-          defaultedPropertyNames.add(propName);
-        }
-      } else if (member.getKind().isClass() && member.toString().endsWith("Builder")) {
-        // If a field bar has an @Singular annotation, Lombok always generates a method called
-        // clearBar in the builder class itself. Therefore, search the builder for such a method,
-        // and extract the appropriate property name to treat as defaulted.
-        for (Element builderMember : member.getEnclosedElements()) {
-          if (builderMember.getKind() == ElementKind.METHOD
-              && FrameworkSupportUtils.hasAnnotation(builderMember, "lombok.Generated")) {
-            String methodName = builderMember.getSimpleName().toString();
-            if (methodName.startsWith("clear")) {
-              String propName =
-                  Introspector.decapitalize(methodName.substring(5)); // clear has 5 characters
-              defaultedPropertyNames.add(propName);
-            }
-          } else if (builderMember.getKind() == ElementKind.FIELD) {
-            VariableTree variableTree =
-                (VariableTree) atypeFactory.declarationFromElement(builderMember);
-            if (variableTree != null && variableTree.getInitializer() != null) {
-              String propName = variableTree.getName().toString();
-              defaultedPropertyNames.add(propName);
-              defaultedElements.put(builderMember, propName);
-            } else if (defaultedElements.containsKey(builderMember)) {
-              defaultedPropertyNames.add(defaultedElements.get(builderMember));
-            }
-          }
-        }
-      }
+  private AnnotationMirror computeCalledMethodsAnno(TypeElement builder) {
+    CheckerEvents.Span span =
+        CheckerEvents.INSTANCE.beginFrameworkSummary("Lombok", builder.getQualifiedName());
+    try {
+      List<String> required = builderMetadata.getLombokBuilderFacts(builder).requiredPropertyNames;
+      span.setSizes(required.size(), 0);
+      return atypeFactory.createCalledMethods(required.toArray(new String[0]));
+    } finally {
+      span.end();
     }
-    requiredPropertyNames.removeAll(defaultedPropertyNames);
-    return requiredPropertyNames;
   }
 
   @Override
@@ -186,13 +92,16 @@ public class LombokSupport implements FrameworkSupport {
 
   @Override
   public boolean isBuilderBuildMethod(ExecutableElement element) {
-    TypeElement enclosingElement = (TypeElement) element.getEnclosingElement();
+    return builderMetadata.isBuildMethod(element, Framework.LOMBOK);
+  }
 
-    if ((FrameworkSupportUtils.hasAnnotation(enclosingElement, "lombok.Generated")
-            || FrameworkSupportUtils.hasAnnotation(element, "lombok.Generated"))
-        && enclosingElement.getSimpleName().toString().endsWith("Builder")) {
-      return "build".equals(element.getSimpleName().toString());
-    }
-    return false;
+  @Override
+  public void clearCaches() {
+    calledMethodsAnnos.clear();
+  }
+
+  @Override
+  public String toString() {
+    return "Lombok builder annotations: " + calledMethodsAnnos;
   }
 }
@@ -0,0 +1,24 @@
+package tests;
+
+import java.io.File;
+import java.util.List;
+import org.checkerframework.framework.test.CheckerFrameworkPerDirectoryTest;
+import org.junit.runners.Parameterized;
+
+/** Checks that the scoped Value Checker analyzes the classes that the default rules apply to. */
+public class DefaultAliasRulesScopedValueCheckerTest extends CheckerFrameworkPerDirectoryTest {
+  public DefaultAliasRulesScopedValueCheckerTest(List<File> testFiles) {
+    super(
+        testFiles,
+        org.checkerframework.checker.objectconstruction.ObjectConstructionChecker.class,
+        "aliases",
+        "-Anomsgtext",
+        "-AuseValueChecker=scoped",
+        "-nowarn");
+  }
+
+  @Parameterized.Parameters
+  public static String[] getTestDirs() {
+    return new String[] {"aliases"};
+  }
+}
@@ -0,0 +1,24 @@
+package tests;
+
+import java.io.File;
+import java.util.List;
+import org.checkerframework.framework.test.CheckerFrameworkPerDirectoryTest;
+import org.junit.runners.Parameterized;
+
+/** Checks that the default method alias rules are read when no {@code -Astubs} are supplied. */
+public class DefaultAliasRulesTest extends CheckerFrameworkPerDirectoryTest {
+  public DefaultAliasRulesTest(List<File> testFiles) {
+    super(
+        testFiles,
+        org.checkerframework.checker.objectconstruction.ObjectConstructionChecker.class,
+        "aliases",
+        "-Anomsgtext",
+        "-AuseValueChecker",
+        "-nowarn");
+  }
+
+  @Parameterized.Parameters
+  public static String[] getTestDirs() {
+    return new String[] {"aliases"};
+  }
+}
@@ -0,0 +1,24 @@
+package tests;
+
+import java.io.File;
+import java.util.List;
+import org.checkerframework.framework.test.CheckerFrameworkPerDirectoryTest;
+import org.junit.runners.Parameterized;
+
+public class EC2ScopedValueCheckerTest extends CheckerFrameworkPerDirectoryTest {
+  public EC2ScopedValueCheckerTest(List<File> testFiles) {
+    super(
+        testFiles,
+        org.checkerframework.checker.objectconstruction.ObjectConstructionChecker.class,
+        "cve",
+        "-Anomsgtext",
+        "-Astubs=stubs",
+        "-AuseValueChecker=scoped",
+        "-nowarn");
+  }
+
+  @Parameterized.Parameters
+  public static String[] getTestDirs() {
+    return new String[] {"cve"};
+  }
+}
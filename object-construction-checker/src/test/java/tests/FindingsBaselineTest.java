@@ -0,0 +1,80 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import org.checkerframework.checker.objectconstruction.ObjectConstructionChecker;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Writes a baseline of the findings of "tests/findings/Findings.java" with {@link
+ * ObjectConstructionChecker#WRITE_BASELINE}, and checks the file again with the baseline, using
+ * {@link ObjectConstructionChecker#BASELINE}.
+ */
+public class FindingsBaselineTest {
+
+  private static final File FINDINGS = new File("tests/findings/Findings.java");
+
+  private static final File REVERSED_ORDER = new File("tests/findings/ReversedOrder.java");
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void baselineSuppressesTheFinding() throws Exception {
+    Path baseline = temporaryFolder.getRoot().toPath().resolve("findings.baseline");
+    assertEquals(
+        Arrays.asList("22: a() c()"),
+        check(Arrays.asList(FINDINGS), "-AwriteBaseline=" + baseline));
+    assertTrue(Files.isRegularFile(baseline));
+    assertEquals(new ArrayList<String>(), check(Arrays.asList(FINDINGS), "-Abaseline=" + baseline));
+  }
+
+  @Test
+  public void baselineDoesNotDependOnTheOrderOfTheMissingMethods() throws Exception {
+    Path baseline = temporaryFolder.getRoot().toPath().resolve("findings.baseline");
+    check(Arrays.asList(FINDINGS), "-AwriteBaseline=" + baseline);
+    // Without the baseline, the missing methods are reported in the other order.
+    assertEquals(Arrays.asList("22: c() a()"), check(Arrays.asList(REVERSED_ORDER, FINDINGS)));
+    assertEquals(
+        new ArrayList<String>(),
+        check(Arrays.asList(REVERSED_ORDER, FINDINGS), "-Abaseline=" + baseline));
+  }
+
+  @Test
+  public void findingsNotInTheBaselineAreReported() throws Exception {
+    Path baseline = temporaryFolder.getRoot().toPath().resolve("empty.baseline");
+    check(Arrays.asList(REVERSED_ORDER), "-AwriteBaseline=" + baseline);
+    assertEquals(
+        Arrays.asList("22: a() c()"), check(Arrays.asList(FINDINGS), "-Abaseline=" + baseline));
+  }
+
+  /**
+   * Checks some files.
+   *
+   * @param files the files to check, in this order
+   * @param extraOptions further options of the compiler
+   * @return the line and the missing methods of each error
+   */
+  private static List<String> check(List<File> files, String... extraOptions) throws Exception {
+    List<String> result = new ArrayList<>();
+    for (Diagnostic<? extends JavaFileObject> diagnostic :
+        TestCompiler.check(files, extraOptions)) {
+      if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+        String message = diagnostic.getMessage(null);
+        result.add(
+            diagnostic.getLineNumber() + ": " + message.substring(message.indexOf(':') + 1).trim());
+      }
+    }
+    return result;
+  }
+}
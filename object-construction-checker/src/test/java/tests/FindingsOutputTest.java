@@ -0,0 +1,102 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import org.checkerframework.checker.objectconstruction.ObjectConstructionChecker;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks "tests/findings/Findings.java", which has one finalizer.invocation.invalid error and one
+ * suppressed error, and verifies the message of the error and the findings written with {@link
+ * ObjectConstructionChecker#FINDINGS_OUTPUT}.
+ */
+public class FindingsOutputTest {
+
+  private static final File FILE = new File("tests/findings/Findings.java");
+
+  private static final String MESSAGE =
+      "This finalizer cannot be invoked, because the following methods have not been called:"
+          + " a() c()";
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void finalizerMessageListsTheMissingMethods() throws Exception {
+    List<String> diagnostics = check(Diagnostic.Kind.ERROR);
+    assertEquals(1, diagnostics.size());
+    assertEquals("22: [finalizer.invocation.invalid] " + MESSAGE, diagnostics.get(0).trim());
+  }
+
+  @Test
+  public void jsonLines() throws Exception {
+    Path findings = temporaryFolder.getRoot().toPath().resolve("findings.jsonl");
+    check(Diagnostic.Kind.ERROR, "-AfindingsOutput=" + findings);
+    assertEquals(
+        Arrays.asList(
+            "{\"key\":\"finalizer.invocation.invalid\",\"level\":\"error\",\"message\":\""
+                + MESSAGE
+                + "\",\"file\":\""
+                + FILE.getAbsoluteFile().toPath().toUri()
+                + "\",\"line\":22,\"column\":12,\"missingMethods\":[\"a\",\"c\"]}"),
+        Files.readAllLines(findings, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void sarif() throws Exception {
+    Path findings = temporaryFolder.getRoot().toPath().resolve("findings.sarif");
+    check(Diagnostic.Kind.ERROR, "-AfindingsOutput=" + findings);
+    assertEquals(
+        Arrays.asList(
+            "{\"version\":\"2.1.0\","
+                + "\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\","
+                + "\"runs\":[{\"tool\":{\"driver\":{\"name\":\"Object Construction Checker\"}},"
+                + "\"results\":[{\"ruleId\":\"finalizer.invocation.invalid\",\"level\":\"error\","
+                + "\"message\":{\"text\":\""
+                + MESSAGE
+                + "\"},\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{\"uri\":\""
+                + FILE.getAbsoluteFile().toPath().toUri()
+                + "\"},\"region\":{\"startLine\":22,\"startColumn\":12}}}],"
+                + "\"properties\":{\"missingMethods\":[\"a\",\"c\"]}}]}]}"),
+        Files.readAllLines(findings, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void warningsUnderWarns() throws Exception {
+    Path findings = temporaryFolder.getRoot().toPath().resolve("findings.jsonl");
+    check(Diagnostic.Kind.MANDATORY_WARNING, "-AfindingsOutput=" + findings, "-Awarns");
+    List<String> lines = Files.readAllLines(findings, StandardCharsets.UTF_8);
+    assertEquals(1, lines.size());
+    assertEquals(
+        "{\"key\":\"finalizer.invocation.invalid\",\"level\":\"warning\"",
+        lines.get(0).substring(0, lines.get(0).indexOf(",\"message\"")));
+  }
+
+  /**
+   * Checks the file.
+   *
+   * @param kind the kind of the diagnostics to return
+   * @param extraOptions further options of the compiler
+   * @return the line and message of each diagnostic of the kind
+   */
+  private static List<String> check(Diagnostic.Kind kind, String... extraOptions) throws Exception {
+    List<String> result = new ArrayList<>();
+    for (Diagnostic<? extends JavaFileObject> diagnostic :
+        TestCompiler.check(Arrays.asList(FILE), extraOptions)) {
+      if (diagnostic.getKind() == kind) {
+        result.add(diagnostic.getLineNumber() + ": " + diagnostic.getMessage(null));
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,142 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.checkerframework.checker.objectconstruction.ObjectConstructionChecker;
+import org.checkerframework.framework.test.CheckerFrameworkPerDirectoryTest;
+import org.junit.Test;
+import org.junit.runners.Parameterized;
+
+/**
+ * Regression test for long fluent call chains. The files in "tests/chains" contain chains of 10,
+ * 100 and 1000 calls, each ending in one missing call. Propagating facts through a chain used to
+ * take time quadratic in its length. Besides the expected errors, this test checks the work done
+ * for each file, as reported by {@code -AocStats}: the invocation records inspected while walking
+ * the chains, and the queries to the Returns Receiver Checker. Each may be at most a constant
+ * number per call, where quadratic behavior would inspect about half of the chain per call.
+ *
+ * <p>javac itself recurses once per call of a chain, so the files are checked on a thread with a
+ * large stack.
+ */
+public class FluentChainTest extends CheckerFrameworkPerDirectoryTest {
+
+  /** How many invocation records may be inspected per call. */
+  private static final int MAX_CHAIN_LINKS_PER_CALL = 32;
+
+  /** How many times the Returns Receiver Checker may be asked about each call. */
+  private static final int MAX_RETURNS_RECEIVER_PER_CALL = 2;
+
+  private static final long STACK_SIZE = 256L << 20;
+
+  /** A call without arguments, which is what the chains consist of. */
+  private static final Pattern CALL = Pattern.compile("\\.\\w+\\(\\)");
+
+  public FluentChainTest(List<File> testFiles) {
+    super(testFiles, ObjectConstructionChecker.class, "chains", "-Anomsgtext", "-nowarn");
+  }
+
+  @Parameterized.Parameters
+  public static String[] getTestDirs() {
+    return new String[] {"chains"};
+  }
+
+  @Override
+  @Test
+  public void run() {
+    try {
+      runWithLargeStack(super::run);
+    } catch (Exception e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  @Test
+  public void chainWorkIsLinearInChainLength() throws Exception {
+    runWithLargeStack(
+        () -> {
+          for (String file :
+              Arrays.asList("FluentChain10.java", "FluentChain100.java", "FluentChain1000.java")) {
+            checkWork(new File("tests/chains", file));
+          }
+        });
+  }
+
+  /** Checks a file of "tests/chains" and verifies the work counters of {@code -AocStats}. */
+  private static void checkWork(File file) throws Exception {
+    Path stats = Files.createTempFile("chains", ".json");
+    try {
+      // The stats are written when type processing is over, which the Checker Framework skips if
+      // there are errors, so the expected error is suppressed.
+      TestCompiler.checkWithoutErrors(
+          Arrays.asList(file),
+          "-AsuppressWarnings=finalizer.invocation.invalid",
+          "-AocStats=" + stats,
+          "-nowarn");
+      String json = new String(Files.readAllBytes(stats), StandardCharsets.UTF_8);
+      long calls =
+          count(CALL, new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+      long chainLinks = counter(json, "\"chainLinks\": (\\d+)");
+      long returnsReceiver = counter(json, "\"returnsReceiver\": \\{\"calls\": (\\d+)");
+      String message =
+          String.format(
+              "%s: %d calls, %d chain links, %d returns receiver queries",
+              file.getName(), calls, chainLinks, returnsReceiver);
+      assertTrue(message, chainLinks <= MAX_CHAIN_LINKS_PER_CALL * calls);
+      assertTrue(message, returnsReceiver <= MAX_RETURNS_RECEIVER_PER_CALL * calls);
+    } finally {
+      Files.delete(stats);
+    }
+  }
+
+  /** @return the number of matches of a pattern in a string */
+  private static long count(Pattern pattern, String s) {
+    Matcher matcher = pattern.matcher(s);
+    long count = 0;
+    while (matcher.find()) {
+      count++;
+    }
+    return count;
+  }
+
+  /** @return the number in the first group of the first match of a regular expression */
+  private static long counter(String json, String regex) {
+    Matcher matcher = Pattern.compile(regex).matcher(json);
+    assertTrue(regex + " in " + json, matcher.find());
+    return Long.parseLong(matcher.group(1));
+  }
+
+  private interface Action {
+    void run() throws Exception;
+  }
+
+  private static void runWithLargeStack(Action action) throws Exception {
+    Throwable[] failure = new Throwable[1];
+    Thread thread =
+        new Thread(
+            null,
+            () -> {
+              try {
+                action.run();
+              } catch (Throwable t) {
+                failure[0] = t;
+              }
+            },
+            "fluent-chains",
+            STACK_SIZE);
+    thread.start();
+    thread.join();
+    if (failure[0] instanceof Exception) {
+      throw (Exception) failure[0];
+    } else if (failure[0] != null) {
+      throw (Error) failure[0];
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks "tests/events/Events.java" while a Java Flight Recorder recording is running, and verifies
+ * the events of the checker in the recording. Skipped if the JVM cannot record.
+ */
+public class JfrEventsTest {
+
+  private static final String PREFIX = "org.checkerframework.objectconstruction.";
+
+  private static final List<String> EVENTS =
+      Arrays.asList(
+          "ClassCheck", "Dataflow", "FrameworkSummary", "PredicateEvaluation", "Transfer");
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Before
+  public void assumeFlightRecorder() {
+    Assume.assumeTrue(FlightRecorder.isAvailable());
+  }
+
+  @Test
+  public void eventsAreRegistered() throws Exception {
+    check();
+    Set<String> registered = new TreeSet<>();
+    for (EventType type : FlightRecorder.getFlightRecorder().getEventTypes()) {
+      if (type.getName().startsWith(PREFIX)) {
+        registered.add(type.getName().substring(PREFIX.length()));
+        assertEquals("Object Construction Checker", type.getCategoryNames().get(0));
+      }
+    }
+    assertEquals(new TreeSet<>(EVENTS), registered);
+  }
+
+  @Test
+  public void eventsAreCommitted() throws Exception {
+    List<RecordedEvent> events = record();
+    Set<String> committed = new TreeSet<>();
+    for (RecordedEvent event : events) {
+      committed.add(event.getEventType().getName().substring(PREFIX.length()));
+    }
+    assertEquals(new TreeSet<>(EVENTS), committed);
+
+    assertTrue(has(events, "ClassCheck", "className", "Events"));
+    assertTrue(has(events, "Transfer", "methodName", "name"));
+    // Lombok builders are summarized by the class that they build.
+    assertTrue(has(events, "FrameworkSummary", "builderName", "Events"));
+    assertTrue(has(events, "PredicateEvaluation", "predicate", "a || b"));
+    for (RecordedEvent event : events) {
+      String name = event.getEventType().getName();
+      if (name.equals(PREFIX + "PredicateEvaluation")) {
+        // The only predicate depends on a and b, and is evaluated against the set of a.
+        assertEquals(2, event.getInt("predicateMethods"));
+        assertEquals(1, event.getInt("otherMethods"));
+      } else if (name.equals(PREFIX + "Transfer")) {
+        assertTrue(event.getInt("calledMethods") >= 0);
+      }
+    }
+
+    RecordedEvent build = find(events, "METHOD", "Events#build()");
+    assertTrue(build.getInt("blocks") > 0);
+    // The calls of builder(), name() and build().
+    assertEquals(3, build.getInt("transfers"));
+    // A lambda is named by the method that contains it, which is analyzed separately.
+    assertEquals(0, find(events, "METHOD", "Events#supplier()").getInt("transfers"));
+    assertTrue(find(events, "LAMBDA", "Events#supplier()").getInt("transfers") >= 3);
+  }
+
+  /** Checks the file with all the events of the checker enabled, and returns their records. */
+  private List<RecordedEvent> record() throws Exception {
+    Path file = temporaryFolder.getRoot().toPath().resolve("checker.jfr");
+    try (Recording recording = new Recording()) {
+      for (String event : EVENTS) {
+        recording.enable(PREFIX + event).withoutThreshold();
+      }
+      recording.start();
+      check();
+      recording.stop();
+      recording.dump(file);
+    }
+    List<RecordedEvent> result = new ArrayList<>();
+    for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+      if (event.getEventType().getName().startsWith(PREFIX)) {
+        result.add(event);
+      }
+    }
+    return result;
+  }
+
+  private static boolean has(List<RecordedEvent> events, String name, String field, String value) {
+    for (RecordedEvent event : events) {
+      if (event.getEventType().getName().equals(PREFIX + name)
+          && value.equals(event.getString(field))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the only dataflow event of some code.
+   *
+   * @param events the events
+   * @param kind the kind of the code
+   * @param code the name of the code
+   * @return the event
+   */
+  private static RecordedEvent find(List<RecordedEvent> events, String kind, String code) {
+    List<RecordedEvent> found = new ArrayList<>();
+    for (RecordedEvent event : events) {
+      if (event.getEventType().getName().equals(PREFIX + "Dataflow")
+          && kind.equals(event.getString("kind"))
+          && code.equals(event.getString("code"))) {
+        found.add(event);
+      }
+    }
+    assertEquals(kind + " " + code, 1, found.size());
+    return found.get(0);
+  }
+
+  /** Checks the file, and fails if there are errors. */
+  private static void check() throws Exception {
+    TestCompiler.checkWithoutErrors(Arrays.asList(new File("tests/events/Events.java")));
+  }
+}
@@ -0,0 +1,62 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.checkerframework.checker.objectconstruction.ObjectConstructionChecker;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks "tests/stats/Stats.java" with {@link ObjectConstructionChecker#OC_STATS}, and verifies the
+ * phases and counters of the statistics that it writes.
+ */
+public class OcStatsTest {
+
+  private static final List<String> PHASES =
+      Arrays.asList(
+          "typeAnnotator",
+          "treeAnnotator",
+          "transfer",
+          "qualifierHierarchy",
+          "predicateEvaluation",
+          "frameworkSupport",
+          "valueChecker",
+          "returnsReceiver");
+
+  private static final Pattern PHASE =
+      Pattern.compile(
+          "\"(\\w+)\": \\{\"calls\": (\\d+), \"wallNanos\": (\\d+), \"cpuNanos\": -?\\d+\\}");
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void statsCountTheCallsOfEachPhase() throws Exception {
+    Path stats = temporaryFolder.getRoot().toPath().resolve("stats.json");
+    TestCompiler.checkWithoutErrors(
+        Arrays.asList(new File("tests/stats/Stats.java")), "-AocStats=" + stats);
+    String json = new String(Files.readAllBytes(stats), StandardCharsets.UTF_8);
+    Map<String, Long> calls = new LinkedHashMap<>();
+    Matcher phase = PHASE.matcher(json);
+    while (phase.find()) {
+      calls.put(phase.group(1), Long.parseLong(phase.group(2)));
+    }
+    assertEquals(json, PHASES, new ArrayList<>(calls.keySet()));
+    assertTrue(json, calls.get("transfer") > 0);
+    assertTrue(json, calls.get("typeAnnotator") > 0);
+    assertTrue(json, json.contains("\"buildCalls\": "));
+    assertTrue(json, json.contains("\"chainLinks\": "));
+  }
+}
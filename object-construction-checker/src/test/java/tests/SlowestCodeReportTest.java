@@ -0,0 +1,125 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.checkerframework.checker.objectconstruction.ObjectConstructionChecker;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks the files in "tests/slowest" with {@link ObjectConstructionChecker#REPORT_SLOWEST}, and
+ * verifies the report written to {@link ObjectConstructionChecker#REPORT_SLOWEST_OUTPUT}.
+ */
+public class SlowestCodeReportTest {
+
+  private static final List<File> FILES =
+      Arrays.asList(new File("tests/slowest/Chains.java"), new File("tests/slowest/Small.java"));
+
+  private static final Pattern HEADER = Pattern.compile("Slowest (\\d+) (.+):");
+
+  private static final Pattern ENTRY = Pattern.compile(" *(\\d+)\\. +(\\d+\\.\\d) ms  (.+)");
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void rankingKeepsTheSlowestEntries() throws Exception {
+    // Warm up the JIT and the classes of javac and the checker, which the first method checked
+    // would otherwise pay for.
+    report("-AreportSlowest=2");
+    Map<String, List<String>> report = report("-AreportSlowest=2");
+    assertEquals(
+        Arrays.asList("compilation units", "classes", "methods"), new ArrayList<>(report.keySet()));
+    assertEquals(
+        Arrays.asList("tests/slowest/Chains.java", "tests/slowest/Small.java"),
+        names(report.get("compilation units")));
+    assertEquals(Arrays.asList("Chains", "Small"), names(report.get("classes")));
+    List<String> methods = report.get("methods");
+    assertEquals(2, methods.size());
+    assertTrue(methods.get(0), methods.get(0).startsWith("Chains#longChain() (check "));
+    assertTrue(methods.get(0), methods.get(0).contains(", 150 transfers, "));
+  }
+
+  @Test
+  public void headersCountTheRankedEntries() throws Exception {
+    Path file = temporaryFolder.getRoot().toPath().resolve("slowest.txt");
+    check("-AreportSlowest", "-AreportSlowestOutput=" + file);
+    List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+    assertEquals("Slowest 2 compilation units:", lines.get(0));
+    assertEquals("Slowest 2 classes:", lines.get(3));
+    // The methods, including the default constructors, are fewer than the default of 20.
+    assertEquals("Slowest 7 methods:", lines.get(6));
+    assertEquals(14, lines.size());
+  }
+
+  @Test
+  public void lambdasCountTowardsTheirMethod() throws Exception {
+    List<String> methods = report("-AreportSlowest").get("methods");
+    String inLambda = null;
+    for (String method : methods) {
+      if (method.startsWith("Chains#inLambda() ")) {
+        inLambda = method;
+      }
+    }
+    assertTrue(methods.toString(), inLambda != null);
+    Matcher transfers = Pattern.compile(", (\\d+) transfers, ").matcher(inLambda);
+    assertTrue(inLambda, transfers.find());
+    // At least the three calls of next() in the lambda.
+    assertTrue(inLambda, Integer.parseInt(transfers.group(1)) >= 3);
+  }
+
+  /**
+   * Checks the files and reads the report.
+   *
+   * @param reportSlowest the option that requests the report
+   * @return the entries of each section of the report, slowest first, by title
+   */
+  private Map<String, List<String>> report(String reportSlowest) throws Exception {
+    Path file = temporaryFolder.newFile().toPath();
+    check(reportSlowest, "-AreportSlowestOutput=" + file);
+    Map<String, List<String>> result = new LinkedHashMap<>();
+    List<String> section = null;
+    double previous = 0;
+    for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+      Matcher header = HEADER.matcher(line);
+      Matcher entry = ENTRY.matcher(line);
+      if (header.matches()) {
+        section = new ArrayList<>();
+        result.put(header.group(2), section);
+        previous = Double.MAX_VALUE;
+      } else {
+        assertTrue(line, entry.matches() && section != null);
+        assertEquals(line, section.size() + 1, Integer.parseInt(entry.group(1)));
+        double millis = Double.parseDouble(entry.group(2));
+        assertTrue("not ranked: " + line, millis <= previous);
+        previous = millis;
+        section.add(entry.group(3));
+      }
+    }
+    return result;
+  }
+
+  /** @return the names of the entries of a section, in alphabetical order */
+  private static List<String> names(List<String> entries) {
+    List<String> result = new ArrayList<>(entries);
+    result.sort(null);
+    return result;
+  }
+
+  /** Checks the files, and fails if there are errors. */
+  private static void check(String... extraOptions) throws Exception {
+    TestCompiler.checkWithoutErrors(FILES, extraOptions);
+  }
+}
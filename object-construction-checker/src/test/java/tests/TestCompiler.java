@@ -0,0 +1,76 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.checkerframework.checker.objectconstruction.ObjectConstructionChecker;
+
+/**
+ * Runs the Object Construction Checker on some files, for the tests that verify more than the
+ * expected diagnostics of the files, such as the reports of the checker.
+ */
+final class TestCompiler {
+
+  private TestCompiler() {}
+
+  /**
+   * Checks some files, without generating class files.
+   *
+   * @param files the files to check, in this order
+   * @param extraOptions further options of the compiler
+   * @return the diagnostics of the compiler and the checker
+   */
+  static List<Diagnostic<? extends JavaFileObject>> check(List<File> files, String... extraOptions)
+      throws Exception {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    try (StandardJavaFileManager fileManager =
+        compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+      List<String> options =
+          new ArrayList<>(
+              Arrays.asList(
+                  "-proc:only",
+                  "-processor",
+                  ObjectConstructionChecker.class.getName(),
+                  "-classpath",
+                  System.getProperty("java.class.path")));
+      options.addAll(Arrays.asList(extraOptions));
+      compiler
+          .getTask(
+              null,
+              fileManager,
+              diagnostics,
+              options,
+              null,
+              fileManager.getJavaFileObjectsFromFiles(files))
+          .call();
+    }
+    return diagnostics.getDiagnostics();
+  }
+
+  /**
+   * Checks some files, and fails if there are errors.
+   *
+   * @param files the files to check, in this order
+   * @param extraOptions further options of the compiler
+   */
+  static void checkWithoutErrors(List<File> files, String... extraOptions) throws Exception {
+    List<String> errors = new ArrayList<>();
+    for (Diagnostic<? extends JavaFileObject> diagnostic : check(files, extraOptions)) {
+      if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+        errors.add(diagnostic.toString());
+      }
+    }
+    assertEquals(new ArrayList<String>(), errors);
+  }
+}
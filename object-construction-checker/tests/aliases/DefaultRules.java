@@ -0,0 +1,28 @@
+import com.amazonaws.services.ec2.model.DescribeImagesRequest;
+import com.amazonaws.services.ec2.model.Filter;
+import org.checkerframework.checker.objectconstruction.qual.*;
+
+// The rules for DescribeImagesRequest apply without -Astubs.
+class DefaultRules {
+
+    void describe(@CalledMethodsPredicate("withOwners || withImageIds") DescribeImagesRequest request) {}
+
+    void withOwnerFilter() {
+        DescribeImagesRequest request = new DescribeImagesRequest();
+        request.withFilters(new Filter("owner-id").withValues("12345"));
+        describe(request);
+    }
+
+    void withImageIdFilter() {
+        DescribeImagesRequest request = new DescribeImagesRequest();
+        request.withFilters(new Filter().withName("image-id").withValues("12345"));
+        describe(request);
+    }
+
+    void withNameFilter() {
+        DescribeImagesRequest request = new DescribeImagesRequest();
+        request.withFilters(new Filter("name").withValues("my_image_name"));
+        // :: error: argument.type.incompatible
+        describe(request);
+    }
+}
@@ -171,9 +171,9 @@ class CmPredicate {
             cAble.c();
             // :: error: method.invocation.invalid
             cAble.d();
-            // :: error: method.invocation.invalid
+            // a || b held before, and c and d have since been called, so a || (b && c) holds.
             cAble.e();
-            // :: error: method.invocation.invalid
+            // c has been called.
             cAble.f();
         }
     }
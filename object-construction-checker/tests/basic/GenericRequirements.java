@@ -0,0 +1,22 @@
+import org.checkerframework.checker.objectconstruction.qual.*;
+
+/* Requirements on type variables and arrays, used from another compilation unit. */
+class GenericRequirements {
+
+    static class Plain {
+        void a() {}
+        void b() {}
+        void c() {}
+    }
+
+    static <T extends Plain> void needsA(@CalledMethods("a") T t) {}
+
+    static <T extends @CalledMethods("b") Plain> void needsB(T t) {}
+
+    static void needsC(@CalledMethods("c") Plain[] ps) {}
+
+    static class Buildable {
+        void x() {}
+        Object build(@CalledMethods("x") Buildable this) { return this; }
+    }
+}
@@ -0,0 +1,54 @@
+import org.checkerframework.checker.objectconstruction.qual.*;
+
+/* A @CalledMethodsPredicate type is a subtype of whatever its predicate implies. */
+class PredicateImplication {
+
+    class Foo {
+        void a() {}
+        void b() {}
+        void c() {}
+        void needsA(@CalledMethods("a") Foo this) {}
+        void needsAOrB(@CalledMethodsPredicate("a || b") Foo this) {}
+        void needsAAndC(@CalledMethodsPredicate("a && c") Foo this) {}
+        void needsC(@CalledMethods("c") Foo this) {}
+    }
+
+    static void takesAOrB(@CalledMethodsPredicate("a || b") Foo f) {}
+
+    void stronger(@CalledMethodsPredicate("a && b") Foo f) {
+        f.needsAOrB();
+        f.needsA();
+    }
+
+    void equivalent(@CalledMethodsPredicate("b || a") Foo f) {
+        f.needsAOrB();
+        takesAOrB(f);
+    }
+
+    void weaker(@CalledMethodsPredicate("a || b") Foo f) {
+        // :: error: method.invocation.invalid
+        f.needsA();
+    }
+
+    void strengthenedByCall(@CalledMethodsPredicate("a || b") Foo f) {
+        f.c();
+        f.needsC();
+        f.needsAOrB();
+        takesAOrB(f);
+    }
+
+    void strengthenedToCalledMethods(@CalledMethodsPredicate("a") Foo f) {
+        f.c();
+        f.needsAAndC();
+    }
+
+    void strengthenedButNotEnough(@CalledMethodsPredicate("a || b") Foo f) {
+        f.c();
+        // :: error: method.invocation.invalid
+        f.needsAAndC();
+    }
+
+    @CalledMethodsPredicate("a || b") Foo lubOfImplied(boolean choice, @CalledMethodsPredicate("a && b") Foo f, @CalledMethodsPredicate("a || b") Foo g) {
+        return choice ? f : g;
+    }
+}
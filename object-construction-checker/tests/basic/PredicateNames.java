@@ -0,0 +1,35 @@
+import org.checkerframework.checker.objectconstruction.qual.*;
+
+/* Method names in predicates are matched as whole identifiers, never as substrings. */
+class PredicateNames {
+
+    class Foo {
+        void a() {}
+        void ab() {}
+        void set_b() {}
+        void needsAb(@CalledMethodsPredicate("ab") Foo this) {}
+        void needsAOrSetB(@CalledMethodsPredicate("a || set_b") Foo this) {}
+    }
+
+    void prefixIsNotEnough(Foo f) {
+        f.a();
+        // :: error: method.invocation.invalid
+        f.needsAb();
+    }
+
+    void wholeName(Foo f) {
+        f.ab();
+        f.needsAb();
+    }
+
+    void longerNameIsNotEnough(Foo f) {
+        f.ab();
+        // :: error: method.invocation.invalid
+        f.needsAOrSetB();
+    }
+
+    void underscore(Foo f) {
+        f.set_b();
+        f.needsAOrSetB();
+    }
+}
@@ -0,0 +1,71 @@
+import org.checkerframework.checker.objectconstruction.qual.*;
+
+/* Facts are only tracked for types that some requirement may mention. */
+class RelevanceFilter {
+
+    interface Builder {
+        Builder setX();
+    }
+
+    static class FooBuilder implements Builder {
+        public FooBuilder setX() { return this; }
+        Object build(@CalledMethods("setX") FooBuilder this) { return this; }
+    }
+
+    static class Plain {
+        void a() {}
+    }
+
+    static void needsA(@CalledMethods("a") Plain p) {}
+
+    @CalledMethods("a") Plain field;
+
+    // Builder has no requirements itself, but its subtype FooBuilder does.
+    void viaSupertype() {
+        Builder b = new FooBuilder();
+        b.setX();
+        ((FooBuilder) b).build();
+    }
+
+    // Plain is only mentioned by the requirement on a parameter.
+    void mentionedByParameter() {
+        Plain p = new Plain();
+        p.a();
+        needsA(p);
+    }
+
+    void mentionedByField() {
+        Plain p = new Plain();
+        p.a();
+        field = p;
+    }
+
+    void mentionedByLocal() {
+        Plain p = new Plain();
+        p.a();
+        @CalledMethods("a") Plain q = p;
+    }
+
+    void notCalled() {
+        Plain p = new Plain();
+        // :: error: argument.type.incompatible
+        needsA(p);
+    }
+
+    static class Helper {
+        void c() {}
+    }
+
+    // Helper is only mentioned by the postcondition, which must still be verified.
+    @EnsuresCalledMethods(value = "#1", methods = "c")
+    void postcondition(Helper h) {
+        h.c();
+    }
+
+    // No requirement mentions String, so nothing is recorded about s.
+    void ordinaryCalls(String s) {
+        s.length();
+        s.trim();
+        String t = s;
+    }
+}
@@ -0,0 +1,39 @@
+import org.checkerframework.checker.objectconstruction.qual.*;
+
+/* Requirements on type variables and arrays apply to their bounds and components. */
+class RelevanceFilterGenerics {
+
+    void typeVariable() {
+        GenericRequirements.Plain p = new GenericRequirements.Plain();
+        p.a();
+        GenericRequirements.needsA(p);
+    }
+
+    void typeVariableNotCalled() {
+        GenericRequirements.Plain p = new GenericRequirements.Plain();
+        p.b();
+        // :: error: argument.type.incompatible
+        GenericRequirements.needsA(p);
+    }
+
+    void typeVariableBound() {
+        GenericRequirements.Plain p = new GenericRequirements.Plain();
+        p.b();
+        GenericRequirements.needsB(p);
+    }
+
+    void arrayComponent() {
+        GenericRequirements.Plain p = new GenericRequirements.Plain();
+        p.c();
+        GenericRequirements.needsC(new GenericRequirements.Plain[] {p});
+    }
+
+    <B extends GenericRequirements.Buildable> void genericReceiver(@CalledMethods("x") B b) {
+        b.build();
+    }
+
+    <B extends GenericRequirements.Buildable> void genericReceiverNotCalled(B b) {
+        // :: error: finalizer.invocation.invalid
+        b.build();
+    }
+}
@@ -6,8 +6,7 @@ class Xor {
         void a() {}
         void b() {}
         void c() {}
-        // SPEL doesn't support XOR directly (it represents exponentiation as ^ instead),
-        // so use a standard gate encoding
+        // The predicate grammar doesn't support XOR directly, so use a standard gate encoding
         void aXorB(@CalledMethodsPredicate("(a || b) && !(a && b)") Foo this) {}
     }
 
@@ -0,0 +1,76 @@
+
+
+import javax.annotation.Generated;
+
+@Generated("com.google.auto.value.processor.AutoValueProcessor")
+abstract class $AutoValue_FooParcelable extends FooParcelable {
+
+  private final String name;
+
+  $AutoValue_FooParcelable(
+      String name) {
+    if (name == null) {
+      throw new NullPointerException("Null name");
+    }
+    this.name = name;
+  }
+
+  @Override
+  String name() {
+    return name;
+  }
+
+  @Override
+  public String toString() {
+    return "FooParcelable{"
+         + "name=" + name
+        + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof FooParcelable) {
+      FooParcelable that = (FooParcelable) o;
+      return this.name.equals(that.name());
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int h$ = 1;
+    h$ *= 1000003;
+    h$ ^= name.hashCode();
+    return h$;
+  }
+
+  static final class Builder extends FooParcelable.Builder {
+    private String name;
+    Builder() {
+    }
+    @Override
+    FooParcelable.Builder setName(String name) {
+      if (name == null) {
+        throw new NullPointerException("Null name");
+      }
+      this.name = name;
+      return this;
+    }
+    @Override
+    FooParcelable build() {
+      String missing = "";
+      if (this.name == null) {
+        missing += " name";
+      }
+      if (!missing.isEmpty()) {
+        throw new IllegalStateException("Missing required properties:" + missing);
+      }
+      return new AutoValue_FooParcelable(
+          this.name);
+    }
+  }
+
+}
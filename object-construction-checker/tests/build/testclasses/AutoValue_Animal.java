@@ -0,0 +1,149 @@
+
+
+import java.util.Optional;
+import javax.annotation.Generated;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+@Generated("com.google.auto.value.processor.AutoValueProcessor")
+final class AutoValue_Animal extends Animal {
+
+  private final String name;
+
+  private final @Nullable String habitat;
+
+  private final int numberOfLegs;
+
+  private final Optional<String> extra;
+
+  private AutoValue_Animal(
+      String name,
+      @Nullable String habitat,
+      int numberOfLegs,
+      Optional<String> extra) {
+    this.name = name;
+    this.habitat = habitat;
+    this.numberOfLegs = numberOfLegs;
+    this.extra = extra;
+  }
+
+  @Override
+  String name() {
+    return name;
+  }
+
+  @Override
+  @Nullable String habitat() {
+    return habitat;
+  }
+
+  @Override
+  int numberOfLegs() {
+    return numberOfLegs;
+  }
+
+  @Override
+  Optional<String> extra() {
+    return extra;
+  }
+
+  @Override
+  public String toString() {
+    return "Animal{"
+         + "name=" + name + ", "
+         + "habitat=" + habitat + ", "
+         + "numberOfLegs=" + numberOfLegs + ", "
+         + "extra=" + extra
+        + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof Animal) {
+      Animal that = (Animal) o;
+      return this.name.equals(that.name())
+          && (this.habitat == null ? that.habitat() == null : this.habitat.equals(that.habitat()))
+          && this.numberOfLegs == that.numberOfLegs()
+          && this.extra.equals(that.extra());
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int h$ = 1;
+    h$ *= 1000003;
+    h$ ^= name.hashCode();
+    h$ *= 1000003;
+    h$ ^= (habitat == null) ? 0 : habitat.hashCode();
+    h$ *= 1000003;
+    h$ ^= numberOfLegs;
+    h$ *= 1000003;
+    h$ ^= extra.hashCode();
+    return h$;
+  }
+
+  @Override
+  public Animal.Builder toBuilder() {
+    return new Builder(this);
+  }
+
+  static final class Builder extends Animal.Builder {
+    private String name;
+    private @Nullable String habitat;
+    private Integer numberOfLegs;
+    private Optional<String> extra = Optional.empty();
+    Builder() {
+    }
+    private Builder(Animal source) {
+      this.name = source.name();
+      this.habitat = source.habitat();
+      this.numberOfLegs = source.numberOfLegs();
+      this.extra = source.extra();
+    }
+    @Override
+    Animal.Builder setName(String name) {
+      if (name == null) {
+        throw new NullPointerException("Null name");
+      }
+      this.name = name;
+      return this;
+    }
+    @Override
+    Animal.Builder setHabitat(String habitat) {
+      this.habitat = habitat;
+      return this;
+    }
+    @Override
+    Animal.Builder setNumberOfLegs(int numberOfLegs) {
+      this.numberOfLegs = numberOfLegs;
+      return this;
+    }
+    @Override
+    Animal.Builder setExtra(String extra) {
+      this.extra = Optional.of(extra);
+      return this;
+    }
+    @Override
+    Animal build() {
+      String missing = "";
+      if (this.name == null) {
+        missing += " name";
+      }
+      if (this.numberOfLegs == null) {
+        missing += " numberOfLegs";
+      }
+      if (!missing.isEmpty()) {
+        throw new IllegalStateException("Missing required properties:" + missing);
+      }
+      return new AutoValue_Animal(
+          this.name,
+          this.habitat,
+          this.numberOfLegs,
+          this.extra);
+    }
+  }
+
+}
@@ -0,0 +1,117 @@
+
+
+import javax.annotation.Generated;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+@Generated("com.google.auto.value.processor.AutoValueProcessor")
+final class AutoValue_AnimalNoSet extends AnimalNoSet {
+
+  private final String name;
+
+  private final @Nullable String habitat;
+
+  private final int numberOfLegs;
+
+  private AutoValue_AnimalNoSet(
+      String name,
+      @Nullable String habitat,
+      int numberOfLegs) {
+    this.name = name;
+    this.habitat = habitat;
+    this.numberOfLegs = numberOfLegs;
+  }
+
+  @Override
+  String name() {
+    return name;
+  }
+
+  @Override
+  @Nullable String habitat() {
+    return habitat;
+  }
+
+  @Override
+  int numberOfLegs() {
+    return numberOfLegs;
+  }
+
+  @Override
+  public String toString() {
+    return "AnimalNoSet{"
+         + "name=" + name + ", "
+         + "habitat=" + habitat + ", "
+         + "numberOfLegs=" + numberOfLegs
+        + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof AnimalNoSet) {
+      AnimalNoSet that = (AnimalNoSet) o;
+      return this.name.equals(that.name())
+          && (this.habitat == null ? that.habitat() == null : this.habitat.equals(that.habitat()))
+          && this.numberOfLegs == that.numberOfLegs();
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int h$ = 1;
+    h$ *= 1000003;
+    h$ ^= name.hashCode();
+    h$ *= 1000003;
+    h$ ^= (habitat == null) ? 0 : habitat.hashCode();
+    h$ *= 1000003;
+    h$ ^= numberOfLegs;
+    return h$;
+  }
+
+  static final class Builder extends AnimalNoSet.Builder {
+    private String name;
+    private @Nullable String habitat;
+    private Integer numberOfLegs;
+    Builder() {
+    }
+    @Override
+    AnimalNoSet.Builder name(String name) {
+      if (name == null) {
+        throw new NullPointerException("Null name");
+      }
+      this.name = name;
+      return this;
+    }
+    @Override
+    AnimalNoSet.Builder habitat(String habitat) {
+      this.habitat = habitat;
+      return this;
+    }
+    @Override
+    AnimalNoSet.Builder numberOfLegs(int numberOfLegs) {
+      this.numberOfLegs = numberOfLegs;
+      return this;
+    }
+    @Override
+    AnimalNoSet build() {
+      String missing = "";
+      if (this.name == null) {
+        missing += " name";
+      }
+      if (this.numberOfLegs == null) {
+        missing += " numberOfLegs";
+      }
+      if (!missing.isEmpty()) {
+        throw new IllegalStateException("Missing required properties:" + missing);
+      }
+      return new AutoValue_AnimalNoSet(
+          this.name,
+          this.habitat,
+          this.numberOfLegs);
+    }
+  }
+
+}
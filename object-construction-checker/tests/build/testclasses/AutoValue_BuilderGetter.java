@@ -0,0 +1,80 @@
+
+
+import javax.annotation.Generated;
+
+@Generated("com.google.auto.value.processor.AutoValueProcessor")
+final class AutoValue_BuilderGetter extends BuilderGetter {
+
+  private final String name;
+
+  private AutoValue_BuilderGetter(
+      String name) {
+    this.name = name;
+  }
+
+  @Override
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public String toString() {
+    return "BuilderGetter{"
+         + "name=" + name
+        + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof BuilderGetter) {
+      BuilderGetter that = (BuilderGetter) o;
+      return this.name.equals(that.name());
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int h$ = 1;
+    h$ *= 1000003;
+    h$ ^= name.hashCode();
+    return h$;
+  }
+
+  static final class Builder extends BuilderGetter.Builder {
+    private String name;
+    Builder() {
+    }
+    @Override
+    BuilderGetter.Builder setName(String name) {
+      if (name == null) {
+        throw new NullPointerException("Null name");
+      }
+      this.name = name;
+      return this;
+    }
+    @Override
+    String name() {
+      if (name == null) {
+        throw new IllegalStateException("Property \"name\" has not been set");
+      }
+      return name;
+    }
+    @Override
+    BuilderGetter build() {
+      String missing = "";
+      if (this.name == null) {
+        missing += " name";
+      }
+      if (!missing.isEmpty()) {
+        throw new IllegalStateException("Missing required properties:" + missing);
+      }
+      return new AutoValue_BuilderGetter(
+          this.name);
+    }
+  }
+
+}
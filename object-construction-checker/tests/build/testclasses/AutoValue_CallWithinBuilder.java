@@ -0,0 +1,72 @@
+
+
+import com.google.common.collect.ImmutableList;
+import javax.annotation.Generated;
+
+@Generated("com.google.auto.value.processor.AutoValueProcessor")
+final class AutoValue_CallWithinBuilder extends CallWithinBuilder {
+
+  private final ImmutableList<String> names;
+
+  private AutoValue_CallWithinBuilder(
+      ImmutableList<String> names) {
+    this.names = names;
+  }
+
+  @Override
+  public ImmutableList<String> names() {
+    return names;
+  }
+
+  @Override
+  public String toString() {
+    return "CallWithinBuilder{"
+         + "names=" + names
+        + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof CallWithinBuilder) {
+      CallWithinBuilder that = (CallWithinBuilder) o;
+      return this.names.equals(that.names());
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int h$ = 1;
+    h$ *= 1000003;
+    h$ ^= names.hashCode();
+    return h$;
+  }
+
+  static final class Builder extends CallWithinBuilder.Builder {
+    private ImmutableList.Builder<String> namesBuilder$;
+    private ImmutableList<String> names;
+    Builder() {
+    }
+    @Override
+    ImmutableList.Builder<String> namesBuilder() {
+      if (namesBuilder$ == null) {
+        namesBuilder$ = ImmutableList.builder();
+      }
+      return namesBuilder$;
+    }
+    @Override
+    CallWithinBuilder build() {
+      if (namesBuilder$ != null) {
+        this.names = namesBuilder$.build();
+      } else if (this.names == null) {
+        this.names = ImmutableList.of();
+      }
+      return new AutoValue_CallWithinBuilder(
+          this.names);
+    }
+  }
+
+}
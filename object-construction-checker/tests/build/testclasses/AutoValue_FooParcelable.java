@@ -0,0 +1,33 @@
+import android.os.Parcel;
+import android.os.Parcelable;
+import java.lang.Override;
+import java.lang.String;
+
+final class AutoValue_FooParcelable extends $AutoValue_FooParcelable {
+  public static final Parcelable.Creator<AutoValue_FooParcelable> CREATOR = new Parcelable.Creator<AutoValue_FooParcelable>() {
+    @Override
+    public AutoValue_FooParcelable createFromParcel(Parcel in) {
+      return new AutoValue_FooParcelable(
+          in.readString()
+      );
+    }
+    @Override
+    public AutoValue_FooParcelable[] newArray(int size) {
+      return new AutoValue_FooParcelable[size];
+    }
+  };
+
+  AutoValue_FooParcelable(String name) {
+    super(name);
+  }
+
+  @Override
+  public void writeToParcel(Parcel dest, int flags) {
+    dest.writeString(name());
+  }
+
+  @Override
+  public int describeContents() {
+    return 0;
+  }
+}
@@ -0,0 +1,96 @@
+
+
+import javax.annotation.Generated;
+
+@Generated("com.google.auto.value.processor.AutoValueProcessor")
+final class AutoValue_GetAndIs extends GetAndIs {
+
+  private final String get;
+
+  private final boolean is;
+
+  private AutoValue_GetAndIs(
+      String get,
+      boolean is) {
+    this.get = get;
+    this.is = is;
+  }
+
+  @Override
+  String get() {
+    return get;
+  }
+
+  @Override
+  boolean is() {
+    return is;
+  }
+
+  @Override
+  public String toString() {
+    return "GetAndIs{"
+         + "get=" + get + ", "
+         + "is=" + is
+        + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof GetAndIs) {
+      GetAndIs that = (GetAndIs) o;
+      return this.get.equals(that.get())
+          && this.is == that.is();
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int h$ = 1;
+    h$ *= 1000003;
+    h$ ^= get.hashCode();
+    h$ *= 1000003;
+    h$ ^= is ? 1231 : 1237;
+    return h$;
+  }
+
+  static final class Builder extends GetAndIs.Builder {
+    private String get;
+    private Boolean is;
+    Builder() {
+    }
+    @Override
+    GetAndIs.Builder setGet(String get) {
+      if (get == null) {
+        throw new NullPointerException("Null get");
+      }
+      this.get = get;
+      return this;
+    }
+    @Override
+    GetAndIs.Builder setIs(boolean is) {
+      this.is = is;
+      return this;
+    }
+    @Override
+    GetAndIs build() {
+      String missing = "";
+      if (this.get == null) {
+        missing += " get";
+      }
+      if (this.is == null) {
+        missing += " is";
+      }
+      if (!missing.isEmpty()) {
+        throw new IllegalStateException("Missing required properties:" + missing);
+      }
+      return new AutoValue_GetAndIs(
+          this.get,
+          this.is);
+    }
+  }
+
+}
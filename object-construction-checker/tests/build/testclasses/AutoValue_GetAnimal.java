@@ -0,0 +1,140 @@
+
+
+import javax.annotation.Generated;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+@Generated("com.google.auto.value.processor.AutoValueProcessor")
+final class AutoValue_GetAnimal extends GetAnimal {
+
+  private final String name;
+
+  private final @Nullable String habitat;
+
+  private final int numberOfLegs;
+
+  private final boolean hasArms;
+
+  private AutoValue_GetAnimal(
+      String name,
+      @Nullable String habitat,
+      int numberOfLegs,
+      boolean hasArms) {
+    this.name = name;
+    this.habitat = habitat;
+    this.numberOfLegs = numberOfLegs;
+    this.hasArms = hasArms;
+  }
+
+  @Override
+  String getName() {
+    return name;
+  }
+
+  @Override
+  @Nullable String getHabitat() {
+    return habitat;
+  }
+
+  @Override
+  int getNumberOfLegs() {
+    return numberOfLegs;
+  }
+
+  @Override
+  boolean isHasArms() {
+    return hasArms;
+  }
+
+  @Override
+  public String toString() {
+    return "GetAnimal{"
+         + "name=" + name + ", "
+         + "habitat=" + habitat + ", "
+         + "numberOfLegs=" + numberOfLegs + ", "
+         + "hasArms=" + hasArms
+        + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof GetAnimal) {
+      GetAnimal that = (GetAnimal) o;
+      return this.name.equals(that.getName())
+          && (this.habitat == null ? that.getHabitat() == null : this.habitat.equals(that.getHabitat()))
+          && this.numberOfLegs == that.getNumberOfLegs()
+          && this.hasArms == that.isHasArms();
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int h$ = 1;
+    h$ *= 1000003;
+    h$ ^= name.hashCode();
+    h$ *= 1000003;
+    h$ ^= (habitat == null) ? 0 : habitat.hashCode();
+    h$ *= 1000003;
+    h$ ^= numberOfLegs;
+    h$ *= 1000003;
+    h$ ^= hasArms ? 1231 : 1237;
+    return h$;
+  }
+
+  static final class Builder extends GetAnimal.Builder {
+    private String name;
+    private @Nullable String habitat;
+    private Integer numberOfLegs;
+    private Boolean hasArms;
+    Builder() {
+    }
+    @Override
+    GetAnimal.Builder setName(String name) {
+      if (name == null) {
+        throw new NullPointerException("Null name");
+      }
+      this.name = name;
+      return this;
+    }
+    @Override
+    GetAnimal.Builder setHabitat(String habitat) {
+      this.habitat = habitat;
+      return this;
+    }
+    @Override
+    GetAnimal.Builder setNumberOfLegs(int numberOfLegs) {
+      this.numberOfLegs = numberOfLegs;
+      return this;
+    }
+    @Override
+    GetAnimal.Builder setHasArms(boolean hasArms) {
+      this.hasArms = hasArms;
+      return this;
+    }
+    @Override
+    GetAnimal build() {
+      String missing = "";
+      if (this.name == null) {
+        missing += " name";
+      }
+      if (this.numberOfLegs == null) {
+        missing += " numberOfLegs";
+      }
+      if (this.hasArms == null) {
+        missing += " hasArms";
+      }
+      if (!missing.isEmpty()) {
+        throw new IllegalStateException("Missing required properties:" + missing);
+      }
+      return new AutoValue_GetAnimal(
+          this.name,
+          this.habitat,
+          this.numberOfLegs,
+          this.hasArms);
+    }
+  }
+
+}
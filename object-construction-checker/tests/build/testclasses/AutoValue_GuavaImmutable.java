@@ -0,0 +1,74 @@
+
+
+import com.google.common.collect.ImmutableList;
+import javax.annotation.Generated;
+
+@Generated("com.google.auto.value.processor.AutoValueProcessor")
+final class AutoValue_GuavaImmutable extends GuavaImmutable {
+
+  private final ImmutableList<String> names;
+
+  private AutoValue_GuavaImmutable(
+      ImmutableList<String> names) {
+    this.names = names;
+  }
+
+  @Override
+  public ImmutableList<String> names() {
+    return names;
+  }
+
+  @Override
+  public String toString() {
+    return "GuavaImmutable{"
+         + "names=" + names
+        + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof GuavaImmutable) {
+      GuavaImmutable that = (GuavaImmutable) o;
+      return this.names.equals(that.names());
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int h$ = 1;
+    h$ *= 1000003;
+    h$ ^= names.hashCode();
+    return h$;
+  }
+
+  static final class Builder extends GuavaImmutable.Builder {
+    private ImmutableList<String> names;
+    Builder() {
+    }
+    @Override
+    GuavaImmutable.Builder names(ImmutableList<String> names) {
+      if (names == null) {
+        throw new NullPointerException("Null names");
+      }
+      this.names = names;
+      return this;
+    }
+    @Override
+    GuavaImmutable build() {
+      String missing = "";
+      if (this.names == null) {
+        missing += " names";
+      }
+      if (!missing.isEmpty()) {
+        throw new IllegalStateException("Missing required properties:" + missing);
+      }
+      return new AutoValue_GuavaImmutable(
+          this.names);
+    }
+  }
+
+}
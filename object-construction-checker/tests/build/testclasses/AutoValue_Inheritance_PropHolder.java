@@ -0,0 +1,96 @@
+
+
+import javax.annotation.Generated;
+
+@Generated("com.google.auto.value.processor.AutoValueProcessor")
+final class AutoValue_Inheritance_PropHolder extends Inheritance.PropHolder {
+
+  private final String name;
+
+  private final int size;
+
+  private AutoValue_Inheritance_PropHolder(
+      String name,
+      int size) {
+    this.name = name;
+    this.size = size;
+  }
+
+  @Override
+  public String name() {
+    return name;
+  }
+
+  @Override
+  int size() {
+    return size;
+  }
+
+  @Override
+  public String toString() {
+    return "PropHolder{"
+         + "name=" + name + ", "
+         + "size=" + size
+        + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof Inheritance.PropHolder) {
+      Inheritance.PropHolder that = (Inheritance.PropHolder) o;
+      return this.name.equals(that.name())
+          && this.size == that.size();
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int h$ = 1;
+    h$ *= 1000003;
+    h$ ^= name.hashCode();
+    h$ *= 1000003;
+    h$ ^= size;
+    return h$;
+  }
+
+  static final class Builder extends Inheritance.PropHolder.Builder {
+    private String name;
+    private Integer size;
+    Builder() {
+    }
+    @Override
+    public Inheritance.PropHolder.Builder name(String name) {
+      if (name == null) {
+        throw new NullPointerException("Null name");
+      }
+      this.name = name;
+      return this;
+    }
+    @Override
+    public Inheritance.PropHolder.Builder size(int size) {
+      this.size = size;
+      return this;
+    }
+    @Override
+    public Inheritance.PropHolder build() {
+      String missing = "";
+      if (this.name == null) {
+        missing += " name";
+      }
+      if (this.size == null) {
+        missing += " size";
+      }
+      if (!missing.isEmpty()) {
+        throw new IllegalStateException("Missing required properties:" + missing);
+      }
+      return new AutoValue_Inheritance_PropHolder(
+          this.name,
+          this.size);
+    }
+  }
+
+}
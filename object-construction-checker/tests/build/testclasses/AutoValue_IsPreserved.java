@@ -0,0 +1,122 @@
+
+
+import javax.annotation.Generated;
+
+@Generated("com.google.auto.value.processor.AutoValueProcessor")
+final class AutoValue_IsPreserved extends IsPreserved {
+
+  private final String name;
+
+  private final String getAddress;
+
+  private final boolean isPresent;
+
+  private AutoValue_IsPreserved(
+      String name,
+      String getAddress,
+      boolean isPresent) {
+    this.name = name;
+    this.getAddress = getAddress;
+    this.isPresent = isPresent;
+  }
+
+  @Override
+  String name() {
+    return name;
+  }
+
+  @Override
+  String getAddress() {
+    return getAddress;
+  }
+
+  @Override
+  boolean isPresent() {
+    return isPresent;
+  }
+
+  @Override
+  public String toString() {
+    return "IsPreserved{"
+         + "name=" + name + ", "
+         + "getAddress=" + getAddress + ", "
+         + "isPresent=" + isPresent
+        + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof IsPreserved) {
+      IsPreserved that = (IsPreserved) o;
+      return this.name.equals(that.name())
+          && this.getAddress.equals(that.getAddress())
+          && this.isPresent == that.isPresent();
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int h$ = 1;
+    h$ *= 1000003;
+    h$ ^= name.hashCode();
+    h$ *= 1000003;
+    h$ ^= getAddress.hashCode();
+    h$ *= 1000003;
+    h$ ^= isPresent ? 1231 : 1237;
+    return h$;
+  }
+
+  static final class Builder extends IsPreserved.Builder {
+    private String name;
+    private String getAddress;
+    private Boolean isPresent;
+    Builder() {
+    }
+    @Override
+    IsPreserved.Builder name(String name) {
+      if (name == null) {
+        throw new NullPointerException("Null name");
+      }
+      this.name = name;
+      return this;
+    }
+    @Override
+    IsPreserved.Builder getAddress(String getAddress) {
+      if (getAddress == null) {
+        throw new NullPointerException("Null getAddress");
+      }
+      this.getAddress = getAddress;
+      return this;
+    }
+    @Override
+    IsPreserved.Builder isPresent(boolean isPresent) {
+      this.isPresent = isPresent;
+      return this;
+    }
+    @Override
+    IsPreserved build() {
+      String missing = "";
+      if (this.name == null) {
+        missing += " name";
+      }
+      if (this.getAddress == null) {
+        missing += " getAddress";
+      }
+      if (this.isPresent == null) {
+        missing += " isPresent";
+      }
+      if (!missing.isEmpty()) {
+        throw new IllegalStateException("Missing required properties:" + missing);
+      }
+      return new AutoValue_IsPreserved(
+          this.name,
+          this.getAddress,
+          this.isPresent);
+    }
+  }
+
+}
@@ -0,0 +1,50 @@
+
+
+import javax.annotation.Generated;
+
+@Generated("com.google.auto.value.processor.AutoValueProcessor")
+final class AutoValue_NonAVBuilder extends NonAVBuilder {
+
+  private final String name;
+
+  AutoValue_NonAVBuilder(
+      String name) {
+    if (name == null) {
+      throw new NullPointerException("Null name");
+    }
+    this.name = name;
+  }
+
+  @Override
+  String name() {
+    return name;
+  }
+
+  @Override
+  public String toString() {
+    return "NonAVBuilder{"
+         + "name=" + name
+        + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof NonAVBuilder) {
+      NonAVBuilder that = (NonAVBuilder) o;
+      return this.name.equals(that.name());
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int h$ = 1;
+    h$ *= 1000003;
+    h$ ^= name.hashCode();
+    return h$;
+  }
+
+}
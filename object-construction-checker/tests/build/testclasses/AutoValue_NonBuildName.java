@@ -0,0 +1,73 @@
+
+
+import javax.annotation.Generated;
+
+@Generated("com.google.auto.value.processor.AutoValueProcessor")
+final class AutoValue_NonBuildName extends NonBuildName {
+
+  private final String name;
+
+  private AutoValue_NonBuildName(
+      String name) {
+    this.name = name;
+  }
+
+  @Override
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public String toString() {
+    return "NonBuildName{"
+         + "name=" + name
+        + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof NonBuildName) {
+      NonBuildName that = (NonBuildName) o;
+      return this.name.equals(that.name());
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int h$ = 1;
+    h$ *= 1000003;
+    h$ ^= name.hashCode();
+    return h$;
+  }
+
+  static final class Builder extends NonBuildName.Builder {
+    private String name;
+    Builder() {
+    }
+    @Override
+    NonBuildName.Builder setName(String name) {
+      if (name == null) {
+        throw new NullPointerException("Null name");
+      }
+      this.name = name;
+      return this;
+    }
+    @Override
+    NonBuildName makeIt() {
+      String missing = "";
+      if (this.name == null) {
+        missing += " name";
+      }
+      if (!missing.isEmpty()) {
+        throw new IllegalStateException("Missing required properties:" + missing);
+      }
+      return new AutoValue_NonBuildName(
+          this.name);
+    }
+  }
+
+}
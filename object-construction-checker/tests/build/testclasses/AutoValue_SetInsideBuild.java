@@ -0,0 +1,96 @@
+
+
+import javax.annotation.Generated;
+
+@Generated("com.google.auto.value.processor.AutoValueProcessor")
+final class AutoValue_SetInsideBuild extends SetInsideBuild {
+
+  private final String name;
+
+  private final int size;
+
+  private AutoValue_SetInsideBuild(
+      String name,
+      int size) {
+    this.name = name;
+    this.size = size;
+  }
+
+  @Override
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public String toString() {
+    return "SetInsideBuild{"
+         + "name=" + name + ", "
+         + "size=" + size
+        + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof SetInsideBuild) {
+      SetInsideBuild that = (SetInsideBuild) o;
+      return this.name.equals(that.name())
+          && this.size == that.size();
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int h$ = 1;
+    h$ *= 1000003;
+    h$ ^= name.hashCode();
+    h$ *= 1000003;
+    h$ ^= size;
+    return h$;
+  }
+
+  static final class Builder extends SetInsideBuild.Builder {
+    private String name;
+    private Integer size;
+    Builder() {
+    }
+    @Override
+    SetInsideBuild.Builder setName(String name) {
+      if (name == null) {
+        throw new NullPointerException("Null name");
+      }
+      this.name = name;
+      return this;
+    }
+    @Override
+    SetInsideBuild.Builder setSize(int size) {
+      this.size = size;
+      return this;
+    }
+    @Override
+    SetInsideBuild autoBuild() {
+      String missing = "";
+      if (this.name == null) {
+        missing += " name";
+      }
+      if (this.size == null) {
+        missing += " size";
+      }
+      if (!missing.isEmpty()) {
+        throw new IllegalStateException("Missing required properties:" + missing);
+      }
+      return new AutoValue_SetInsideBuild(
+          this.name,
+          this.size);
+    }
+  }
+
+}
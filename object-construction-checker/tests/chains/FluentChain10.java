@@ -0,0 +1,58 @@
+import org.checkerframework.checker.objectconstruction.qual.*;
+import org.checkerframework.checker.returnsrcvr.qual.*;
+
+/* A chain of 10 fluent calls, as found in generated SDK clients. */
+class FluentChain10 {
+    @This FluentChain10 a() { return this; }
+    @This FluentChain10 b() { return this; }
+    @This FluentChain10 c() { return this; }
+
+    FluentChain10 build(@CalledMethods({"a", "b", "c"}) FluentChain10 this) { return this; }
+
+    static void newChain() {
+        new FluentChain10()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .build();
+    }
+
+    static void variableChain() {
+        FluentChain10 builder = new FluentChain10();
+        builder
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a();
+        builder.build();
+    }
+
+    static void missingCall() {
+        new FluentChain10()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                // :: error: finalizer.invocation.invalid
+                .build();
+    }
+}
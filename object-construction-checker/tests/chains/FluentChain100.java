@@ -0,0 +1,328 @@
+import org.checkerframework.checker.objectconstruction.qual.*;
+import org.checkerframework.checker.returnsrcvr.qual.*;
+
+/* A chain of 100 fluent calls, as found in generated SDK clients. */
+class FluentChain100 {
+    @This FluentChain100 a() { return this; }
+    @This FluentChain100 b() { return this; }
+    @This FluentChain100 c() { return this; }
+
+    FluentChain100 build(@CalledMethods({"a", "b", "c"}) FluentChain100 this) { return this; }
+
+    static void newChain() {
+        new FluentChain100()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .build();
+    }
+
+    static void variableChain() {
+        FluentChain100 builder = new FluentChain100();
+        builder
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a();
+        builder.build();
+    }
+
+    static void missingCall() {
+        new FluentChain100()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                // :: error: finalizer.invocation.invalid
+                .build();
+    }
+}
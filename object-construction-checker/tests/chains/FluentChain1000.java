@@ -0,0 +1,3028 @@
+import org.checkerframework.checker.objectconstruction.qual.*;
+import org.checkerframework.checker.returnsrcvr.qual.*;
+
+/* A chain of 1000 fluent calls, as found in generated SDK clients. */
+class FluentChain1000 {
+    @This FluentChain1000 a() { return this; }
+    @This FluentChain1000 b() { return this; }
+    @This FluentChain1000 c() { return this; }
+
+    FluentChain1000 build(@CalledMethods({"a", "b", "c"}) FluentChain1000 this) { return this; }
+
+    static void newChain() {
+        new FluentChain1000()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .build();
+    }
+
+    static void variableChain() {
+        FluentChain1000 builder = new FluentChain1000();
+        builder
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a()
+                .b()
+                .c()
+                .a();
+        builder.build();
+    }
+
+    static void missingCall() {
+        new FluentChain1000()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                .a()
+                .b()
+                // :: error: finalizer.invocation.invalid
+                .build();
+    }
+}
@@ -40,4 +40,12 @@ class MorePreciseFilters {
         request.withFilters(new Filter().withName("image-id").withValues("12345"));
         DescribeImagesResult result = ec2Client.describeImages(request);
     }
-}
\ No newline at end of file
+
+    // A filter without a name does not count as any other method.
+    void withoutName(AmazonEC2 ec2Client) {
+        DescribeImagesRequest request = new DescribeImagesRequest();
+        request.withFilters(new Filter().withValues("12345"));
+        // :: error: argument.type.incompatible
+        DescribeImagesResult result = ec2Client.describeImages(request);
+    }
+}
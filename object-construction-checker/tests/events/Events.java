@@ -0,0 +1,63 @@
+import java.util.function.Supplier;
+import org.checkerframework.checker.objectconstruction.qual.*;
+
+// The input of JfrEventsTest: a delomboked builder, a method with a predicate, and a lambda.
+class Events {
+  @lombok.NonNull Object name;
+
+  @java.lang.SuppressWarnings("all")
+  @lombok.Generated
+  Events(@lombok.NonNull final Object name) {
+    this.name = name;
+  }
+
+  @java.lang.SuppressWarnings("all")
+  @lombok.Generated
+  public static class EventsBuilder {
+    @java.lang.SuppressWarnings("all")
+    @lombok.Generated
+    private Object name;
+
+    @java.lang.SuppressWarnings("all")
+    @lombok.Generated
+    EventsBuilder() {}
+
+    @java.lang.SuppressWarnings("all")
+    @lombok.Generated
+    public EventsBuilder name(@lombok.NonNull final Object name) {
+      this.name = name;
+      return this;
+    }
+
+    @java.lang.SuppressWarnings("all")
+    @lombok.Generated
+    public Events build() {
+      return new Events(name);
+    }
+  }
+
+  @java.lang.SuppressWarnings("all")
+  @lombok.Generated
+  public static EventsBuilder builder() {
+    return new EventsBuilder();
+  }
+
+  void a() {}
+
+  void b() {}
+
+  void c(@CalledMethodsPredicate("a || b") Events this) {}
+
+  static Events build() {
+    return builder().name("events").build();
+  }
+
+  static Supplier<Events> supplier() {
+    return () -> builder().name("lambda").build();
+  }
+
+  static void predicate(Events events) {
+    events.a();
+    events.c();
+  }
+}
@@ -0,0 +1,29 @@
+import org.checkerframework.checker.objectconstruction.qual.*;
+import org.checkerframework.checker.returnsrcvr.qual.*;
+
+class Findings {
+  @This Findings a() {
+    return this;
+  }
+
+  @This Findings b() {
+    return this;
+  }
+
+  @This Findings c() {
+    return this;
+  }
+
+  Object build(@CalledMethods({"a", "b", "c"}) Findings this) {
+    return this;
+  }
+
+  static Object missingTwo() {
+    return new Findings().b().build();
+  }
+
+  @SuppressWarnings("objectconstruction")
+  static Object suppressed() {
+    return new Findings().build();
+  }
+}
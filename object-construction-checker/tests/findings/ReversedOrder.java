@@ -0,0 +1,9 @@
+import org.checkerframework.checker.objectconstruction.qual.*;
+
+/**
+ * Names the methods of {@link Findings} in the reverse order, so that when this class is checked
+ * first, the missing methods of the finding in Findings are in that order too.
+ */
+class ReversedOrder {
+  static void reversed(@CalledMethods({"c", "b", "a"}) Findings findings) {}
+}
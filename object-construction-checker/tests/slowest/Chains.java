@@ -0,0 +1,166 @@
+import org.checkerframework.checker.returnsrcvr.qual.*;
+
+/* The input of SlowestCodeReportTest: a long chain of calls, calls in a lambda, and no calls. */
+class Chains {
+    @This Chains next() { return this; }
+
+    static Chains longChain() {
+        return new Chains()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next()
+        .next();
+    }
+
+    static Runnable inLambda() {
+        return () -> new Chains().next().next().next();
+    }
+
+    static void noCalls() {}
+}
@@ -0,0 +1,4 @@
+/* The input of SlowestCodeReportTest: a class with little code. */
+class Small {
+    void nothing() {}
+}
@@ -0,0 +1,26 @@
+import org.checkerframework.checker.objectconstruction.qual.*;
+import org.checkerframework.checker.returnsrcvr.qual.*;
+
+// The input of OcStatsTest: a fluent builder whose finalizer is called correctly, so that the
+// checker reports no error and writes its statistics.
+class Stats {
+  @This Stats a() {
+    return this;
+  }
+
+  @This Stats b() {
+    return this;
+  }
+
+  void build(@CalledMethods({"a", "b"}) Stats this) {}
+
+  static void fluent() {
+    new Stats().a().b().build();
+  }
+
+  static void sequential(Stats stats) {
+    stats.a();
+    stats.b();
+    stats.build();
+  }
+}
@@ -0,0 +1,281 @@
+package org.checkerframework.checker.framework;
+
+import com.sun.tools.javac.processing.JavacProcessingEnvironment;
+import com.sun.tools.javac.util.Context;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.javacutil.UserError;
+
+/**
+ * Stub annotations in the binary form that {@link StubCompiler} produces from {@code .astub} files.
+ * A binary stub file starts with an index of the classes it annotates, which is read when the file
+ * is loaded; the annotations of a class are only decoded when a method of the class is first looked
+ * up. Files are read by mapping them into memory.
+ *
+ * <p>Only the qualifiers of the Returns Receiver Checker and of the Object Construction Checker are
+ * kept: @This, @CalledMethods and @CalledMethodsPredicate. Methods are identified by name and by
+ * the binary names of their erased parameter types, so that overloads whose parameter types have
+ * the same simple name are told apart.
+ *
+ * <p>There is a single instance per compilation, shared by a checker and its subcheckers.
+ */
+public final class BinaryStubs {
+
+  private static final Context.Key<BinaryStubs> KEY = new Context.Key<>();
+
+  /** The first bytes of a binary stub file. */
+  static final int MAGIC = 0x4F43_4253;
+
+  /** The version of the format. Files of other versions must be recompiled. */
+  static final int VERSION = 2;
+
+  /** The position of an annotation on the return type. */
+  public static final int RETURN = 0;
+
+  /** The position of an annotation on the receiver. */
+  public static final int RECEIVER = 1;
+
+  /** The position of an annotation on the first parameter; later parameters follow. */
+  public static final int FIRST_PARAMETER = 2;
+
+  /** The kinds of annotations, in the order of their codes in binary stub files. */
+  public enum Kind {
+    THIS,
+    CALLED_METHODS,
+    CALLED_METHODS_PREDICATE
+  }
+
+  private final Elements elements;
+
+  private final Types types;
+
+  /** The location of the annotations of each class, by qualified name. */
+  private final Map<String, Location> locations = new HashMap<>();
+
+  /** The annotations of the methods of each class that has been looked up, by method key. */
+  private final Map<String, Map<String, List<StubAnnotation>>> classes = new HashMap<>();
+
+  private BinaryStubs(Elements elements, Types types) {
+    this.elements = elements;
+    this.types = types;
+  }
+
+  /**
+   * Returns the binary stubs of the current compilation, loading them on first use.
+   *
+   * @param processingEnv the processing environment of a checker
+   * @param files the binary stub files, separated by the path separator, or null if there are none
+   * @return the binary stubs shared by all checkers of the compilation
+   */
+  public static BinaryStubs instance(ProcessingEnvironment processingEnv, @Nullable String files) {
+    Context context = ((JavacProcessingEnvironment) processingEnv).getContext();
+    BinaryStubs result = context.get(KEY);
+    if (result == null) {
+      result = new BinaryStubs(processingEnv.getElementUtils(), processingEnv.getTypeUtils());
+      if (files != null) {
+        for (String file : files.split(File.pathSeparator)) {
+          if (!file.isEmpty()) {
+            result.load(Paths.get(file));
+          }
+        }
+      }
+      context.put(KEY, result);
+    }
+    return result;
+  }
+
+  /** @return whether no binary stubs were loaded */
+  public boolean isEmpty() {
+    return locations.isEmpty();
+  }
+
+  private void load(Path file) {
+    ByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } catch (IOException e) {
+      throw new UserError("Cannot read binary stub file %s: %s", file, e.getMessage());
+    }
+    try {
+      if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+        throw new UserError(
+            "%s is not a binary stub file of version %d; recompile it with %s",
+            file, VERSION, StubCompiler.class.getName());
+      }
+      int classCount = buffer.getInt();
+      List<String> names = new ArrayList<>(classCount);
+      int[] offsets = new int[classCount];
+      for (int i = 0; i < classCount; i++) {
+        names.add(readString(buffer));
+        offsets[i] = buffer.getInt();
+      }
+      int dataStart = buffer.position();
+      for (int i = 0; i < classCount; i++) {
+        // The first file that annotates a class wins, as for the classes on a class path.
+        locations.putIfAbsent(names.get(i), new Location(file, buffer, dataStart + offsets[i]));
+      }
+    } catch (RuntimeException e) {
+      if (e instanceof UserError) {
+        throw e;
+      }
+      throw new UserError("Malformed binary stub file %s: %s", file, e);
+    }
+  }
+
+  /**
+   * Returns the stub annotations of a method.
+   *
+   * @param method a method or constructor
+   * @return the annotations of {@code method} in the binary stubs, which are empty if there are
+   *     none
+   */
+  public List<StubAnnotation> getAnnotations(ExecutableElement method) {
+    if (locations.isEmpty()) {
+      return Collections.emptyList();
+    }
+    String className = ((TypeElement) method.getEnclosingElement()).getQualifiedName().toString();
+    Map<String, List<StubAnnotation>> methods = classes.get(className);
+    if (methods == null) {
+      Location location = locations.get(className);
+      methods = location == null ? Collections.emptyMap() : location.decode();
+      classes.put(className, methods);
+    }
+    if (methods.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<StubAnnotation> result = methods.get(methodKey(method));
+    return result == null ? Collections.emptyList() : result;
+  }
+
+  /**
+   * @param method a method
+   * @return the name of {@code method} and the binary names of its erased parameter types, which is
+   *     how binary stub files identify methods
+   */
+  private String methodKey(ExecutableElement method) {
+    StringJoiner result = new StringJoiner(",", method.getSimpleName() + "(", ")");
+    for (VariableElement parameter : method.getParameters()) {
+      result.add(binaryName(types.erasure(parameter.asType())));
+    }
+    return result.toString();
+  }
+
+  private String binaryName(TypeMirror type) {
+    switch (type.getKind()) {
+      case ARRAY:
+        return binaryName(((ArrayType) type).getComponentType()) + "[]";
+      case DECLARED:
+        return elements.getBinaryName((TypeElement) ((DeclaredType) type).asElement()).toString();
+      default:
+        return type.toString();
+    }
+  }
+
+  static String readString(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public String toString() {
+    return "binary stubs: " + locations.size() + " classes, " + classes.size() + " decoded";
+  }
+
+  /** An annotation from a binary stub file. */
+  public static final class StubAnnotation {
+
+    /** {@link #RETURN}, {@link #RECEIVER}, or {@link #FIRST_PARAMETER} plus a parameter index. */
+    public final int position;
+
+    public final Kind kind;
+
+    /** The values of the annotation's {@code value} element. */
+    public final List<String> values;
+
+    StubAnnotation(int position, Kind kind, List<String> values) {
+      this.position = position;
+      this.kind = kind;
+      this.values = values;
+    }
+  }
+
+  /** Where the annotations of a class are stored in a mapped binary stub file. */
+  private static final class Location {
+
+    /** The binary stub file, for error messages. */
+    final Path file;
+
+    final ByteBuffer buffer;
+
+    final int offset;
+
+    Location(Path file, ByteBuffer buffer, int offset) {
+      this.file = file;
+      this.buffer = buffer;
+      this.offset = offset;
+    }
+
+    /** @return the annotations of the methods of the class, by method key */
+    Map<String, List<StubAnnotation>> decode() {
+      try {
+        return decode(buffer.duplicate());
+      } catch (RuntimeException e) {
+        if (e instanceof UserError) {
+          throw e;
+        }
+        throw new UserError("Malformed binary stub file %s: %s", file, e);
+      }
+    }
+
+    private Map<String, List<StubAnnotation>> decode(ByteBuffer in) {
+      in.position(offset);
+      int methodCount = in.getInt();
+      Map<String, List<StubAnnotation>> methods = new HashMap<>(methodCount * 2);
+      for (int i = 0; i < methodCount; i++) {
+        String key = readString(in);
+        int annotationCount = in.get() & 0xFF;
+        List<StubAnnotation> annotations = new ArrayList<>(annotationCount);
+        for (int j = 0; j < annotationCount; j++) {
+          int position = in.get() & 0xFF;
+          int code = in.get() & 0xFF;
+          if (code >= Kind.values().length) {
+            throw new UserError(
+                "Malformed binary stub file %s: unknown annotation kind %d", file, code);
+          }
+          Kind kind = Kind.values()[code];
+          int valueCount = in.getShort() & 0xFFFF;
+          List<String> values = new ArrayList<>(valueCount);
+          for (int k = 0; k < valueCount; k++) {
+            values.add(readString(in));
+          }
+          annotations.add(new StubAnnotation(position, kind, values));
+        }
+        methods.put(key, annotations);
+      }
+      return methods;
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package org.checkerframework.checker.framework;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A memo table with hit and miss counters. When it reaches its capacity, the whole table is
+ * flushed, which is cheaper than tracking recency and is good enough for caches whose entries are
+ * cheap to recompute. The owner should also {@link #clear} the cache when the objects in its keys
+ * stop being valid, e.g. when type processing is over.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of cached values; must not be null
+ */
+public final class BoundedCache<K, V> {
+
+  private final int capacity;
+
+  private final Map<K, V> map = new HashMap<>();
+
+  private long hits = 0;
+
+  private long misses = 0;
+
+  /** @param capacity the number of entries at which the cache is flushed */
+  public BoundedCache(int capacity) {
+    this.capacity = capacity;
+  }
+
+  /**
+   * Returns the cached value for a key, computing and caching it on a miss. {@code compute} may
+   * itself use this cache.
+   *
+   * @param key the key
+   * @param compute computes the value for a key
+   * @return the value for {@code key}
+   */
+  public V get(K key, Function<? super K, ? extends V> compute) {
+    V value = map.get(key);
+    if (value != null) {
+      hits++;
+      return value;
+    }
+    misses++;
+    value = compute.apply(key);
+    if (map.size() >= capacity) {
+      map.clear();
+    }
+    map.put(key, value);
+    return value;
+  }
+
+  /** Removes every entry, but keeps the counters. */
+  public void clear() {
+    map.clear();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d hits, %d misses, %d entries", hits, misses, map.size());
+  }
+}
@@ -0,0 +1,979 @@
+package org.checkerframework.checker.framework;
+
+import com.google.auto.value.AutoValue;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.Trees;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.processing.JavacProcessingEnvironment;
+import com.sun.tools.javac.util.Context;
+import java.beans.Introspector;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.StringJoiner;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager;
+import javax.tools.StandardLocation;
+import org.checkerframework.checker.framework.FrameworkSupportUtils.Framework;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.javacutil.AnnotationUtils;
+import org.checkerframework.javacutil.TypesUtils;
+import org.checkerframework.javacutil.UserError;
+
+/**
+ * The facts about the builders generated by the supported frameworks that the Returns Receiver
+ * Checker and the Object Construction Checker need: which methods of a builder return the receiver,
+ * which methods are build() and toBuilder() methods, and which setters must be called before
+ * build(). The framework supports of both checkers are thin wrappers around this class.
+ *
+ * <p>There is a single instance per compilation, which is stored in the compiler's context, so a
+ * checker and its subcheckers share it and each builder is analyzed only once however many checkers
+ * ask about it. Use {@link #instance} to obtain it. The instance keeps elements of the compilation
+ * alive, so the checkers {@link #clear} it when type processing is over.
+ *
+ * <p>A library can record the facts about its builders in summaries, which are resources under
+ * {@value #SUMMARY_DIRECTORY} in its class output; see {@link #emitSummaries}. When a builder comes
+ * from a class file, the facts are read from its library's summary, if there is one, instead of
+ * being derived from the elements again in every compilation that uses the library. A summary also
+ * records which fields of a Lombok builder have initializers, which cannot be seen in class files.
+ */
+public final class BuilderMetadata {
+
+  private static final Context.Key<BuilderMetadata> KEY = new Context.Key<>();
+
+  /** The version of the format of summaries. Summaries of other versions are ignored. */
+  public static final int SUMMARY_VERSION = 1;
+
+  /** The directory of the summaries, relative to the class output and the class path. */
+  public static final String SUMMARY_DIRECTORY = "META-INF/builder-summaries/";
+
+  // The list is copied from lombok.core.handlers.HandlerUtil. The list cannot be used from that
+  // class directly because Lombok does not provide class files for its own implementation, to
+  // prevent itself from being accidentally added to clients' compile classpaths. This design
+  // decision means that it is impossible to depend directly on Lombok internals.
+  /** The list of annotations that Lombok treats as non-null. */
+  public static final List<String> LOMBOK_NONNULL_ANNOTATIONS =
+      Collections.unmodifiableList(
+          Arrays.asList(
+              "android.annotation.NonNull",
+              "android.support.annotation.NonNull",
+              "com.sun.istack.internal.NotNull",
+              "edu.umd.cs.findbugs.annotations.NonNull",
+              "javax.annotation.Nonnull",
+              // "javax.validation.constraints.NotNull", // The field might contain a null value
+              // until it is persisted.
+              "lombok.NonNull",
+              "org.checkerframework.checker.nullness.qual.NonNull",
+              "org.eclipse.jdt.annotation.NonNull",
+              "org.eclipse.jgit.annotations.NonNull",
+              "org.jetbrains.annotations.NotNull",
+              "org.jmlspecs.annotation.NonNull",
+              "org.netbeans.api.annotations.common.NonNull",
+              "org.springframework.lang.NonNull"));
+
+  /** {@link #LOMBOK_NONNULL_ANNOTATIONS}, for fast lookup. */
+  private static final Set<String> LOMBOK_NONNULL_ANNOTATION_NAMES =
+      new HashSet<>(LOMBOK_NONNULL_ANNOTATIONS);
+
+  /**
+   * Ignore java.lang.Object overrides, constructors, and toBuilder method in AutoValue classes.
+   *
+   * <p>Strictly speaking we should probably be checking return types, etc. here to handle strange
+   * overloads and other corner cases. They seem unlikely enough that we are skipping for now.
+   */
+  private static final Set<String> IGNORED_METHOD_NAMES =
+      new HashSet<>(Arrays.asList("equals", "hashCode", "toString", "<init>", "toBuilder"));
+
+  /** Taken from AutoValue source code */
+  private static final Set<String> OPTIONAL_CLASS_NAMES =
+      new HashSet<>(
+          Arrays.asList(
+              "com.google.common.base.Optional",
+              "java.util.Optional",
+              "java.util.OptionalDouble",
+              "java.util.OptionalInt",
+              "java.util.OptionalLong"));
+
+  private final Elements elements;
+
+  private final Types types;
+
+  private final com.sun.tools.javac.code.Types javacTypes;
+
+  private final Trees trees;
+
+  private final JavaFileManager fileManager;
+
+  private final Map<TypeElement, TypeFacts> typeFacts = new HashMap<>();
+
+  /** The index of the jars on the class path, or null if it is not in use. */
+  private @Nullable ClasspathIndex classpathIndex;
+
+  private final Map<TypeElement, AutoValueBuilderFacts> autoValueBuilders = new HashMap<>();
+
+  private final Map<TypeElement, LombokBuilderFacts> lombokBuilders = new HashMap<>();
+
+  /**
+   * The summary of each class that owns builder facts (an AutoValue builder or a @lombok.Builder
+   * class), or null if the class was compiled from source or its library has no summary.
+   */
+  private final Map<TypeElement, @Nullable Summary> summaries = new HashMap<>();
+
+  // Keep a record of these so that when the tree of a builder field is not available, e.g.
+  // because the facts about a class had to be recomputed after its trees were discarded, we can
+  // still default correctly. Each entry is the qualified name of a builder class, '#', and the
+  // name of a field of the builder that has an initializer. Names are recorded rather than
+  // elements, so that the elements of the compilation are not kept alive.
+  private final Set<String> initializedLombokBuilderFields = new HashSet<>();
+
+  private BuilderMetadata(ProcessingEnvironment processingEnv) {
+    Context context = ((JavacProcessingEnvironment) processingEnv).getContext();
+    this.elements = processingEnv.getElementUtils();
+    this.types = processingEnv.getTypeUtils();
+    this.javacTypes = com.sun.tools.javac.code.Types.instance(context);
+    this.trees = Trees.instance(processingEnv);
+    // The file manager is used rather than the Filer, because the checkers run after annotation
+    // processing is over.
+    this.fileManager = context.get(JavaFileManager.class);
+  }
+
+  /**
+   * Returns the builder metadata of the current compilation, creating it on first use.
+   *
+   * @param processingEnv the processing environment of a checker
+   * @return the builder metadata shared by all checkers of the compilation
+   */
+  public static BuilderMetadata instance(ProcessingEnvironment processingEnv) {
+    Context context = ((JavacProcessingEnvironment) processingEnv).getContext();
+    BuilderMetadata result = context.get(KEY);
+    if (result == null) {
+      result = new BuilderMetadata(processingEnv);
+      context.put(KEY, result);
+    }
+    return result;
+  }
+
+  /**
+   * Builds the index of the jars on the class path, unless it has been built already. The facts
+   * about the classes in the jars are then read from the index, rather than from their elements.
+   *
+   * @param cacheDirectory the directory in which the index of each jar is cached
+   */
+  public void useClasspathIndex(Path cacheDirectory) {
+    if (classpathIndex == null) {
+      classpathIndex = ClasspathIndex.build(cacheDirectory, fileManager, elements, types);
+    }
+  }
+
+  /** @return the index of the jars on the class path, or null if it is not in use */
+  public @Nullable ClasspathIndex getClasspathIndex() {
+    return classpathIndex;
+  }
+
+  /** Forgets everything, because the elements of the compilation are no longer needed. */
+  public void clear() {
+    typeFacts.clear();
+    autoValueBuilders.clear();
+    lombokBuilders.clear();
+    summaries.clear();
+    classpathIndex = null;
+    initializedLombokBuilderFields.clear();
+  }
+
+  /**
+   * Returns the facts about a type that decide whether it may be part of the code of a framework.
+   *
+   * @param type a type
+   * @return the facts about {@code type}
+   */
+  public TypeFacts getTypeFacts(TypeElement type) {
+    TypeFacts result = typeFacts.get(type);
+    if (result == null) {
+      result = new TypeFacts(type, classpathIndex);
+      typeFacts.put(type, result);
+    }
+    return result;
+  }
+
+  /**
+   * Returns whether a method is known to return its receiver because the framework generated it: a
+   * setter of a builder.
+   *
+   * @param method a method
+   * @param framework the framework
+   * @return {@code true} if the method is generated by the framework and returns {@code this}
+   */
+  public boolean knownToReturnThis(ExecutableElement method, Framework framework) {
+    TypeElement enclosingElement = (TypeElement) method.getEnclosingElement();
+    TypeFacts facts = getTypeFacts(enclosingElement);
+    Summary summary = getBuilderSummary(enclosingElement, facts, framework);
+    if (summary != null) {
+      return summary.receiverMethods.contains(signature(method));
+    }
+    TypeElement returnType = TypesUtils.getTypeElement(method.getReturnType());
+    switch (framework) {
+      case AUTO_VALUE:
+        TypeElement autoValueBuilder = facts.getAutoValueBuilder();
+        return autoValueBuilder != null && autoValueBuilder.equals(returnType);
+      case LOMBOK:
+        return facts.isLombokBuilderMethod(method) && enclosingElement.equals(returnType);
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Determines if a method is a {@code build} method on a {@code Builder} type for the framework
+   *
+   * @param method a method
+   * @param framework the framework
+   * @return {@code true} if {@code method} is a {@code build} method on a {@code Builder} type for
+   *     the framework, {@code false} otherwise
+   */
+  public boolean isBuildMethod(ExecutableElement method, Framework framework) {
+    TypeElement enclosingElement = (TypeElement) method.getEnclosingElement();
+    TypeFacts facts = getTypeFacts(enclosingElement);
+    Summary summary = getBuilderSummary(enclosingElement, facts, framework);
+    if (summary != null) {
+      return summary.buildMethods.contains(signature(method));
+    }
+    switch (framework) {
+      case AUTO_VALUE:
+        if (facts.isAutoValueBuilder) {
+          Element nextEnclosingElement = enclosingElement.getEnclosingElement();
+          assert FrameworkSupportUtils.hasAnnotation(nextEnclosingElement, AutoValue.class)
+              : "class "
+                  + nextEnclosingElement.getSimpleName()
+                  + " is missing @AutoValue annotation";
+          // it is a build method if it is an abstract method that returns the type with the
+          // @AutoValue annotation
+          return method.getModifiers().contains(Modifier.ABSTRACT)
+              && nextEnclosingElement.equals(TypesUtils.getTypeElement(method.getReturnType()));
+        }
+        return false;
+      case LOMBOK:
+        return facts.isLombokBuilderMethod(method) && "build".contentEquals(method.getSimpleName());
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Determines if a method is a {@code toBuilder} method generated by, or implemented for, the
+   * framework, whose result has all of its required setters called.
+   *
+   * @param method a method
+   * @param framework the framework
+   * @return {@code true} if {@code method} is a {@code toBuilder} method for the framework
+   */
+  public boolean isToBuilderMethod(ExecutableElement method, Framework framework) {
+    if (!"toBuilder".contentEquals(method.getSimpleName())) {
+      return false;
+    }
+    TypeFacts facts = getTypeFacts((TypeElement) method.getEnclosingElement());
+    switch (framework) {
+      case AUTO_VALUE:
+        return (facts.isAutoValueClass && method.getModifiers().contains(Modifier.ABSTRACT))
+            || facts.autoValueSuperclass != null;
+      case LOMBOK:
+        return facts.isLombokGenerated
+            || FrameworkSupportUtils.hasAnnotationByName(method, "lombok.Generated");
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Returns the facts about an AutoValue builder, computing them on first use.
+   *
+   * @param builderElement an @AutoValue.Builder class
+   * @return the facts about {@code builderElement}
+   */
+  public AutoValueBuilderFacts getAutoValueBuilderFacts(TypeElement builderElement) {
+    AutoValueBuilderFacts result = autoValueBuilders.get(builderElement);
+    if (result == null) {
+      Summary summary = getSummary(builderElement);
+      result =
+          summary != null && summary.autoValueFacts != null
+              ? summary.autoValueFacts
+              : computeAutoValueBuilderFacts(builderElement);
+      autoValueBuilders.put(builderElement, result);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the facts about a @lombok.Builder class, computing them on first use.
+   *
+   * @param lombokClassElement the class with the @lombok.Builder annotation
+   * @return the facts about {@code lombokClassElement}
+   */
+  public LombokBuilderFacts getLombokBuilderFacts(TypeElement lombokClassElement) {
+    LombokBuilderFacts result = lombokBuilders.get(lombokClassElement);
+    if (result == null) {
+      Summary summary = getSummary(lombokClassElement);
+      result =
+          summary != null && summary.lombokFacts != null
+              ? summary.lombokFacts
+              : computeLombokBuilderFacts(lombokClassElement);
+      lombokBuilders.put(lombokClassElement, result);
+    }
+    return result;
+  }
+
+  private AutoValueBuilderFacts computeAutoValueBuilderFacts(TypeElement builderElement) {
+    // AutoValue requires the builder to be nested in its @AutoValue class.
+    Element classElement = builderElement.getEnclosingElement();
+    Set<String> setterNames = new HashSet<>();
+    for (ExecutableElement member : getAllAbstractMethods(builderElement)) {
+      if (isAutoValueBuilderSetter(member, builderElement)) {
+        setterNames.add(member.getSimpleName().toString());
+      }
+    }
+    List<String> requiredProperties = new ArrayList<>();
+    List<String> requiredSetters = new ArrayList<>();
+    for (ExecutableElement member : getAllAbstractMethods(classElement)) {
+      if (isAutoValueRequiredProperty(member, setterNames)) {
+        String property = member.getSimpleName().toString();
+        requiredProperties.add(property);
+        String setter = autoValuePropToBuilderSetterName(property, setterNames);
+        if (setter != null) {
+          requiredSetters.add(setter);
+        }
+      }
+    }
+    return new AutoValueBuilderFacts(setterNames, requiredProperties, requiredSetters);
+  }
+
+  private static @Nullable String autoValuePropToBuilderSetterName(
+      String prop, Set<String> builderSetterNames) {
+    // we have two cases, depending on whether AutoValue strips JavaBean-style prefixes 'get' and
+    // 'is'
+    Set<String> possiblePropNames = new LinkedHashSet<>();
+    possiblePropNames.add(prop);
+    if (prop.startsWith("get") && prop.length() > 3 && Character.isUpperCase(prop.charAt(3))) {
+      possiblePropNames.add(Introspector.decapitalize(prop.substring(3)));
+    } else if (prop.startsWith("is")
+        && prop.length() > 2
+        && Character.isUpperCase(prop.charAt(2))) {
+      possiblePropNames.add(Introspector.decapitalize(prop.substring(2)));
+    }
+
+    for (String propName : possiblePropNames) {
+      // in each case, the setter may be the property name itself, or prefixed by 'set'
+      if (builderSetterNames.contains(propName)) {
+        return propName;
+      }
+      String setterName = "set" + FrameworkSupportUtils.capitalize(propName);
+      if (builderSetterNames.contains(setterName)) {
+        return setterName;
+      }
+    }
+
+    // Could not find a corresponding setter.  This is likely because an AutoValue Extension is in
+    // use.  See https://github.com/kelloggm/object-construction-checker/issues/110
+    // For now we return null, but once that bug is fixed, this should be changed to an assertion
+    // failure.
+    return null;
+  }
+
+  /**
+   * Does member represent a required property of an AutoValue class?
+   *
+   * @param member member of an AutoValue class or superclass
+   * @param allBuilderMethodNames names of methods in corresponding AutoValue builder
+   * @return {@code true} if member is required, {@code false} otherwise
+   */
+  private boolean isAutoValueRequiredProperty(
+      ExecutableElement member, Set<String> allBuilderMethodNames) {
+    String name = member.getSimpleName().toString();
+    if (IGNORED_METHOD_NAMES.contains(name)) {
+      return false;
+    }
+    TypeMirror returnType = member.getReturnType();
+    if (returnType.getKind().equals(TypeKind.VOID)) {
+      return false;
+    }
+    // shouldn't have a nullable return
+    for (AnnotationMirror anm : elements.getAllAnnotationMirrors(member)) {
+      if (AnnotationUtils.annotationName(anm).endsWith(".Nullable")) {
+        return false;
+      }
+    }
+    for (AnnotationMirror anm : returnType.getAnnotationMirrors()) {
+      if (AnnotationUtils.annotationName(anm).endsWith(".Nullable")) {
+        return false;
+      }
+    }
+    // if return type of foo() is a Guava Immutable type, not required if there is a
+    // builder method fooBuilder()
+    if (FrameworkSupportUtils.isGuavaImmutableType(returnType)
+        && allBuilderMethodNames.contains(name + "Builder")) {
+      return false;
+    }
+    // if it's an Optional, the Builder will automatically initialize it
+    if (isOptional(returnType)) {
+      return false;
+    }
+    // it's required!
+    return true;
+  }
+
+  /**
+   * adapted from AutoValue source code
+   *
+   * @param type some type
+   * @return true if type is an Optional type
+   */
+  private static boolean isOptional(TypeMirror type) {
+    if (type.getKind() != TypeKind.DECLARED) {
+      return false;
+    }
+    DeclaredType declaredType = (DeclaredType) type;
+    TypeElement typeElement = (TypeElement) declaredType.asElement();
+    return OPTIONAL_CLASS_NAMES.contains(typeElement.getQualifiedName().toString())
+        && typeElement.getTypeParameters().size() == declaredType.getTypeArguments().size();
+  }
+
+  /**
+   * Is member a setter for an AutoValue builder?
+   *
+   * @param member member of builder or one of its supertypes
+   * @param builderElement element for the AutoValue builder
+   * @return {@code true} if e is a setter for the builder, {@code false} otherwise
+   */
+  private boolean isAutoValueBuilderSetter(ExecutableElement member, TypeElement builderElement) {
+    TypeMirror retType = member.getReturnType();
+    if (retType.getKind().equals(TypeKind.TYPEVAR)) {
+      // instantiate the type variable for the Builder class
+      retType =
+          ((ExecutableType) types.asMemberOf((DeclaredType) builderElement.asType(), member))
+              .getReturnType();
+    }
+    // either the return type should be the builder itself, or it should be a Guava immutable type
+    return FrameworkSupportUtils.isGuavaImmutableType(retType)
+        || builderElement.equals(TypesUtils.getTypeElement(retType));
+  }
+
+  /**
+   * Get all the abstract methods for a class. This should include those inherited abstract methods
+   * that are not overridden by the class or a superclass.
+   *
+   * @param classElement the class
+   * @return list of all abstract methods
+   */
+  private List<ExecutableElement> getAllAbstractMethods(Element classElement) {
+    // The class and all its supertypes, with a guarantee that subtypes appear before supertypes.
+    List<TypeElement> supertypes = new ArrayList<>();
+    for (com.sun.tools.javac.code.Type t : javacTypes.closure(((Symbol) classElement).type)) {
+      supertypes.add((TypeElement) t.tsym);
+    }
+    List<ExecutableElement> abstractMethods = new ArrayList<>();
+    Set<ExecutableElement> overriddenMethods = new HashSet<>();
+    for (int i = 0; i < supertypes.size(); i++) {
+      TypeElement t = supertypes.get(i);
+      for (ExecutableElement member : ElementFilter.methodsIn(t.getEnclosedElements())) {
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.STATIC)) {
+          continue;
+        }
+        if (modifiers.contains(Modifier.ABSTRACT)) {
+          // make sure it's not overridden
+          if (!overriddenMethods.contains(member)) {
+            abstractMethods.add(member);
+          }
+        } else {
+          // exclude any methods that this overrides
+          addOverriddenMethods(
+              member, t, supertypes.subList(i + 1, supertypes.size()), overriddenMethods);
+        }
+      }
+    }
+    return abstractMethods;
+  }
+
+  /** Adds to {@code result} the methods of {@code supertypes} that {@code method} overrides. */
+  private void addOverriddenMethods(
+      ExecutableElement method,
+      TypeElement type,
+      List<TypeElement> supertypes,
+      Set<ExecutableElement> result) {
+    for (TypeElement supertype : supertypes) {
+      for (ExecutableElement candidate : ElementFilter.methodsIn(supertype.getEnclosedElements())) {
+        if (candidate.getSimpleName().equals(method.getSimpleName())
+            && elements.overrides(method, candidate, type)) {
+          result.add(candidate);
+        }
+      }
+    }
+  }
+
+  /**
+   * Computes the facts about a @lombok.Builder class in a single pass over its members. The
+   * required properties are the names of the fields with non-null annotations, except those that
+   * Lombok defaults.
+   */
+  private LombokBuilderFacts computeLombokBuilderFacts(final TypeElement lombokClassElement) {
+    List<String> nonNullFieldNames = new ArrayList<>();
+    Set<String> defaultedPropertyNames = new HashSet<>();
+    for (Element member : lombokClassElement.getEnclosedElements()) {
+      if (member.getKind() == ElementKind.FIELD) {
+        for (AnnotationMirror anm : elements.getAllAnnotationMirrors(member)) {
+          if (LOMBOK_NONNULL_ANNOTATION_NAMES.contains(AnnotationUtils.annotationName(anm))) {
+            nonNullFieldNames.add(member.getSimpleName().toString());
+          }
+        }
+      } else if (member.getKind() == ElementKind.METHOD
+          && FrameworkSupportUtils.hasAnnotationByName(member, "lombok.Generated")) {
+        String methodName = member.getSimpleName().toString();
+        // Handle fields with @Builder.Default annotations.
+        // If a field foo has an @Builder.Default annotation, Lombok always generates a method
+        // called $default$foo.
+        if (methodName.startsWith("$default$")) {
+          String propName = methodName.substring(9); // $default$ has 9 characters
+          defaultedPropertyNames.add(propName);
+        }
+      } else if (member.getKind().isClass()
+          && member.getSimpleName().toString().endsWith("Builder")) {
+        // If a field bar has an @Singular annotation, Lombok always generates a method called
+        // clearBar in the builder class itself. Therefore, search the builder for such a method,
+        // and extract the appropriate property name to treat as defaulted.
+        for (Element builderMember : member.getEnclosedElements()) {
+          if (builderMember.getKind() == ElementKind.METHOD
+              && FrameworkSupportUtils.hasAnnotationByName(builderMember, "lombok.Generated")) {
+            String methodName = builderMember.getSimpleName().toString();
+            if (methodName.startsWith("clear")) {
+              String propName =
+                  Introspector.decapitalize(methodName.substring(5)); // clear has 5 characters
+              defaultedPropertyNames.add(propName);
+            }
+          } else if (builderMember.getKind() == ElementKind.FIELD) {
+            String propName = builderMember.getSimpleName().toString();
+            String key = ((TypeElement) member).getQualifiedName() + "#" + propName;
+            Tree tree = trees.getTree(builderMember);
+            if (tree instanceof VariableTree && ((VariableTree) tree).getInitializer() != null) {
+              defaultedPropertyNames.add(propName);
+              initializedLombokBuilderFields.add(key);
+            } else if (initializedLombokBuilderFields.contains(key)) {
+              defaultedPropertyNames.add(propName);
+            }
+          }
+        }
+      }
+    }
+    List<String> requiredPropertyNames = new ArrayList<>(nonNullFieldNames);
+    requiredPropertyNames.removeAll(defaultedPropertyNames);
+    return new LombokBuilderFacts(nonNullFieldNames, defaultedPropertyNames, requiredPropertyNames);
+  }
+
+  /**
+   * Writes the summaries of the builders declared in a class and its nested classes to the class
+   * output, so that they are packaged with the class files of the library. Each summary is named
+   * after the binary name of the class that owns the facts: the AutoValue builder, or the
+   * {@literal @}lombok.Builder class.
+   *
+   * @param type a class of the compilation
+   */
+  public void emitSummaries(TypeElement type) {
+    for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+      emitSummaries(nested);
+    }
+    TypeFacts facts = getTypeFacts(type);
+    Map<String, String> entries = new LinkedHashMap<>();
+    TypeElement owner;
+    Framework framework;
+    if (facts.isAutoValueBuilder) {
+      owner = type;
+      framework = Framework.AUTO_VALUE;
+      AutoValueBuilderFacts builderFacts = getAutoValueBuilderFacts(type);
+      entries.put("setters", String.join(",", builderFacts.setterNames));
+      entries.put("requiredProperties", String.join(",", builderFacts.requiredProperties));
+      entries.put("requiredSetters", String.join(",", builderFacts.requiredSetters));
+    } else if (facts.isNamedLikeBuilder
+        && facts.hasLombokGeneratedCode()
+        && type.getEnclosingElement() instanceof TypeElement) {
+      owner = (TypeElement) type.getEnclosingElement();
+      framework = Framework.LOMBOK;
+      LombokBuilderFacts builderFacts = getLombokBuilderFacts(owner);
+      entries.put("nonNullFields", String.join(",", builderFacts.nonNullFieldNames));
+      entries.put("defaultedProperties", String.join(",", builderFacts.defaultedPropertyNames));
+      entries.put("requiredProperties", String.join(",", builderFacts.requiredPropertyNames));
+    } else {
+      return;
+    }
+    StringJoiner receiverMethods = new StringJoiner(";");
+    StringJoiner buildMethods = new StringJoiner(";");
+    for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+      if (knownToReturnThis(method, framework)) {
+        receiverMethods.add(signature(method));
+      }
+      if (isBuildMethod(method, framework)) {
+        buildMethods.add(signature(method));
+      }
+    }
+    String name = SUMMARY_DIRECTORY + elements.getBinaryName(owner);
+    try {
+      FileObject file = fileManager.getFileForOutput(StandardLocation.CLASS_OUTPUT, "", name, null);
+      try (Writer writer = file.openWriter()) {
+        writer.write("version=" + SUMMARY_VERSION + "\n");
+        writer.write("framework=" + framework + "\n");
+        writer.write("builder=" + elements.getBinaryName(type) + "\n");
+        writer.write("receiverMethods=" + receiverMethods + "\n");
+        writer.write("buildMethods=" + buildMethods + "\n");
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+          writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+        }
+      }
+    } catch (IOException e) {
+      throw new UserError("Cannot write builder summary %s: %s", name, e.getMessage());
+    }
+  }
+
+  /**
+   * Returns the summary that applies to the methods of a builder, if the builder comes from a
+   * library with a summary.
+   *
+   * @param builder a class that declares a method
+   * @param facts the facts about {@code builder}
+   * @param framework the framework
+   * @return the summary that lists the methods of {@code builder}, or null if there is none
+   */
+  private @Nullable Summary getBuilderSummary(
+      TypeElement builder, TypeFacts facts, Framework framework) {
+    Element owner;
+    switch (framework) {
+      case AUTO_VALUE:
+        owner = facts.isAutoValueBuilder ? builder : null;
+        break;
+      case LOMBOK:
+        owner = facts.isNamedLikeBuilder ? builder.getEnclosingElement() : null;
+        break;
+      default:
+        owner = null;
+    }
+    if (!(owner instanceof TypeElement)) {
+      return null;
+    }
+    Summary summary = getSummary((TypeElement) owner);
+    return summary != null
+            && summary.framework == framework
+            && elements.getBinaryName(builder).contentEquals(summary.builder)
+        ? summary
+        : null;
+  }
+
+  /**
+   * Returns the summary of a class that owns builder facts, reading it on first use.
+   *
+   * @param owner an AutoValue builder or a @lombok.Builder class
+   * @return the summary of {@code owner}, or null if it was compiled from source in this
+   *     compilation, or if its library has no summary of a supported version
+   */
+  private @Nullable Summary getSummary(TypeElement owner) {
+    if (summaries.containsKey(owner)) {
+      return summaries.get(owner);
+    }
+    Summary result = trees.getTree(owner) == null ? readSummary(owner) : null;
+    summaries.put(owner, result);
+    return result;
+  }
+
+  private @Nullable Summary readSummary(TypeElement owner) {
+    String name = SUMMARY_DIRECTORY + elements.getBinaryName(owner);
+    Properties properties = new Properties();
+    try {
+      FileObject file = fileManager.getFileForInput(StandardLocation.CLASS_PATH, "", name);
+      if (file == null) {
+        return null;
+      }
+      try (InputStream in = file.openInputStream()) {
+        properties.load(in);
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      // A summary that cannot be read is ignored; the facts are derived from the elements instead.
+      return null;
+    }
+    if (!String.valueOf(SUMMARY_VERSION).equals(properties.getProperty("version"))) {
+      return null;
+    }
+    return Summary.parse(properties);
+  }
+
+  /**
+   * @param method a method
+   * @return the name and erased parameter types of {@code method}, as recorded in summaries
+   */
+  private String signature(ExecutableElement method) {
+    StringJoiner result = new StringJoiner(",", method.getSimpleName() + "(", ")");
+    for (VariableElement parameter : method.getParameters()) {
+      result.add(types.erasure(parameter.asType()).toString());
+    }
+    return result.toString();
+  }
+
+  /** The facts about a builder that a library recorded; see {@link #emitSummaries}. */
+  private static final class Summary {
+
+    final Framework framework;
+
+    /** The binary name of the builder class. */
+    final String builder;
+
+    /** The signatures of the methods of the builder that return the receiver. */
+    final Set<String> receiverMethods;
+
+    /** The signatures of the build methods of the builder. */
+    final Set<String> buildMethods;
+
+    final @Nullable AutoValueBuilderFacts autoValueFacts;
+
+    final @Nullable LombokBuilderFacts lombokFacts;
+
+    private Summary(
+        Framework framework,
+        String builder,
+        Set<String> receiverMethods,
+        Set<String> buildMethods,
+        @Nullable AutoValueBuilderFacts autoValueFacts,
+        @Nullable LombokBuilderFacts lombokFacts) {
+      this.framework = framework;
+      this.builder = builder;
+      this.receiverMethods = receiverMethods;
+      this.buildMethods = buildMethods;
+      this.autoValueFacts = autoValueFacts;
+      this.lombokFacts = lombokFacts;
+    }
+
+    /**
+     * @param properties the entries of a summary of the current version
+     * @return the summary, or null if it is incomplete
+     */
+    static @Nullable Summary parse(Properties properties) {
+      String framework = properties.getProperty("framework");
+      String builder = properties.getProperty("builder");
+      if (framework == null || builder == null) {
+        return null;
+      }
+      Set<String> receiverMethods = new HashSet<>(split(properties, "receiverMethods", ";"));
+      Set<String> buildMethods = new HashSet<>(split(properties, "buildMethods", ";"));
+      switch (framework) {
+        case "AUTO_VALUE":
+          return new Summary(
+              Framework.AUTO_VALUE,
+              builder,
+              receiverMethods,
+              buildMethods,
+              new AutoValueBuilderFacts(
+                  new HashSet<>(split(properties, "setters", ",")),
+                  split(properties, "requiredProperties", ","),
+                  split(properties, "requiredSetters", ",")),
+              null);
+        case "LOMBOK":
+          return new Summary(
+              Framework.LOMBOK,
+              builder,
+              receiverMethods,
+              buildMethods,
+              null,
+              new LombokBuilderFacts(
+                  split(properties, "nonNullFields", ","),
+                  new HashSet<>(split(properties, "defaultedProperties", ",")),
+                  split(properties, "requiredProperties", ",")));
+        default:
+          return null;
+      }
+    }
+
+    private static List<String> split(Properties properties, String key, String separator) {
+      String value = properties.getProperty(key, "");
+      return value.isEmpty()
+          ? new ArrayList<>()
+          : new ArrayList<>(Arrays.asList(value.split(separator)));
+    }
+  }
+
+  /** The facts about a type that decide whether it may be part of the code of a framework. */
+  public static final class TypeFacts {
+
+    private final TypeElement type;
+
+    /** Whether the type is annotated with @AutoValue. */
+    public final boolean isAutoValueClass;
+
+    /** Whether the type is annotated with @AutoValue.Builder. */
+    public final boolean isAutoValueBuilder;
+
+    /** The superclass, if it is annotated with @AutoValue, as for the class AutoValue generates. */
+    public final @Nullable TypeElement autoValueSuperclass;
+
+    /**
+     * The superclass, if it is annotated with @AutoValue.Builder, as for the builder AutoValue
+     * generates.
+     */
+    public final @Nullable TypeElement autoValueBuilderSuperclass;
+
+    /** Whether the type is annotated with @lombok.Generated. */
+    public final boolean isLombokGenerated;
+
+    /** Whether one of the methods of the type is annotated with @lombok.Generated. */
+    public final boolean hasLombokGeneratedMethods;
+
+    /** Whether the simple name of the type ends with "Builder", as Lombok's builders' names do. */
+    public final boolean isNamedLikeBuilder;
+
+    /**
+     * @param type a type
+     * @param index the classpath index, or null if it is not in use; the facts about the classes
+     *     that it knows are read from it rather than from their elements
+     */
+    private TypeFacts(TypeElement type, @Nullable ClasspathIndex index) {
+      this.type = type;
+      ClasspathIndex.Entry entry = index == null ? null : index.get(type);
+      this.isAutoValueClass =
+          entry != null
+              ? entry.has(ClasspathIndex.AUTO_VALUE)
+              : FrameworkSupportUtils.hasAnnotation(type, AutoValue.class);
+      this.isAutoValueBuilder =
+          entry != null
+              ? entry.has(ClasspathIndex.AUTO_VALUE_BUILDER)
+              : FrameworkSupportUtils.hasAnnotation(type, AutoValue.Builder.class);
+      TypeElement autoValueSuperclass = null;
+      TypeElement autoValueBuilderSuperclass = null;
+      TypeMirror superclass = type.getSuperclass();
+      // if the type is an interface, the superclass has TypeKind NONE
+      if (superclass.getKind() != TypeKind.NONE) {
+        TypeElement superElement = TypesUtils.getTypeElement(superclass);
+        if (superElement != null) {
+          ClasspathIndex.Entry superEntry = index == null ? null : index.get(superElement);
+          if (superEntry != null
+              ? superEntry.has(ClasspathIndex.AUTO_VALUE)
+              : FrameworkSupportUtils.hasAnnotation(superElement, AutoValue.class)) {
+            autoValueSuperclass = superElement;
+          }
+          if (superEntry != null
+              ? superEntry.has(ClasspathIndex.AUTO_VALUE_BUILDER)
+              : FrameworkSupportUtils.hasAnnotation(superElement, AutoValue.Builder.class)) {
+            autoValueBuilderSuperclass = superElement;
+          }
+        }
+      }
+      this.autoValueSuperclass = autoValueSuperclass;
+      this.autoValueBuilderSuperclass = autoValueBuilderSuperclass;
+      if (entry != null) {
+        this.isLombokGenerated = entry.has(ClasspathIndex.LOMBOK_GENERATED);
+        this.hasLombokGeneratedMethods = entry.has(ClasspathIndex.LOMBOK_GENERATED_METHOD);
+      } else {
+        this.isLombokGenerated =
+            FrameworkSupportUtils.hasAnnotationByName(type, "lombok.Generated");
+        boolean hasLombokGeneratedMethods = false;
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+          if (FrameworkSupportUtils.hasAnnotationByName(method, "lombok.Generated")) {
+            hasLombokGeneratedMethods = true;
+            break;
+          }
+        }
+        this.hasLombokGeneratedMethods = hasLombokGeneratedMethods;
+      }
+      this.isNamedLikeBuilder = type.getSimpleName().toString().endsWith("Builder");
+    }
+
+    /** @return the AutoValue Builder that the type is or, as in the generated code, extends */
+    public @Nullable TypeElement getAutoValueBuilder() {
+      return isAutoValueBuilder ? type : autoValueBuilderSuperclass;
+    }
+
+    /** @return whether the type or one of its methods is annotated with @lombok.Generated */
+    public boolean hasLombokGeneratedCode() {
+      return isLombokGenerated || hasLombokGeneratedMethods;
+    }
+
+    /**
+     * Returns whether a method of the type is a method of a Lombok builder that Lombok generated.
+     *
+     * @param method a method of the type
+     * @return whether the type is a Lombok builder and Lombok generated the method
+     */
+    boolean isLombokBuilderMethod(ExecutableElement method) {
+      return isNamedLikeBuilder
+          && (isLombokGenerated
+              || (hasLombokGeneratedMethods
+                  && FrameworkSupportUtils.hasAnnotationByName(method, "lombok.Generated")));
+    }
+  }
+
+  /** The facts about an AutoValue builder. */
+  public static final class AutoValueBuilderFacts {
+
+    /** The names of the setters of the builder. */
+    public final Set<String> setterNames;
+
+    /** The required properties of the AutoValue class. */
+    public final List<String> requiredProperties;
+
+    /** The setters of the required properties, which must be called before build(). */
+    public final List<String> requiredSetters;
+
+    private AutoValueBuilderFacts(
+        Set<String> setterNames, List<String> requiredProperties, List<String> requiredSetters) {
+      this.setterNames = Collections.unmodifiableSet(setterNames);
+      this.requiredProperties = Collections.unmodifiableList(requiredProperties);
+      this.requiredSetters = Collections.unmodifiableList(requiredSetters);
+    }
+  }
+
+  /** The facts about a @lombok.Builder class. */
+  public static final class LombokBuilderFacts {
+
+    /** The names of the fields with non-null annotations. */
+    public final List<String> nonNullFieldNames;
+
+    /**
+     * The properties that Lombok defaults, because of @Builder.Default, @Singular, or an
+     * initializer in the builder class.
+     */
+    public final Set<String> defaultedPropertyNames;
+
+    /**
+     * The names of the non-null fields that are not defaulted, whose setters must be called before
+     * build().
+     */
+    public final List<String> requiredPropertyNames;
+
+    private LombokBuilderFacts(
+        List<String> nonNullFieldNames,
+        Set<String> defaultedPropertyNames,
+        List<String> requiredPropertyNames) {
+      this.nonNullFieldNames = Collections.unmodifiableList(nonNullFieldNames);
+      this.defaultedPropertyNames = Collections.unmodifiableSet(defaultedPropertyNames);
+      this.requiredPropertyNames = Collections.unmodifiableList(requiredPropertyNames);
+    }
+  }
+}
@@ -0,0 +1,282 @@
+package org.checkerframework.checker.framework;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Reads the facts that {@link ClasspathIndex} records from the bytes of a class file, without
+ * loading the class: the framework annotations on the class and its methods, and which methods have
+ * a return type annotated with @This. Only the constant pool and the attributes of the class and of
+ * its methods are parsed; fields and method bodies are skipped, and a string constant is only
+ * decoded when an attribute refers to it.
+ */
+final class ClassFileScanner {
+
+  private static final String AUTO_VALUE = "Lcom/google/auto/value/AutoValue;";
+
+  private static final String AUTO_VALUE_BUILDER = "Lcom/google/auto/value/AutoValue$Builder;";
+
+  private static final String LOMBOK_GENERATED = "Llombok/Generated;";
+
+  private static final String THIS = "Lorg/checkerframework/checker/returnsrcvr/qual/This;";
+
+  /** The target_type of a type annotation on the return type of a method. */
+  private static final int METHOD_RETURN = 0x14;
+
+  private final ByteBuffer in;
+
+  /** The position of each Utf8 constant, or 0 for other constants. */
+  private int[] utf8Positions = new int[0];
+
+  /** The index of the name of each Class constant, or 0 for other constants. */
+  private int[] classNames = new int[0];
+
+  private ClassFileScanner(ByteBuffer in) {
+    this.in = in;
+  }
+
+  /**
+   * Scans a class file.
+   *
+   * @param bytes the contents of the class file
+   * @return the binary name of the class and its entry, or null if the bytes are not a well-formed
+   *     class file
+   */
+  static ClasspathIndex.@Nullable ScannedClass scan(ByteBuffer bytes) {
+    try {
+      return new ClassFileScanner(bytes).scan();
+    } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+      return null;
+    }
+  }
+
+  private ClasspathIndex.@Nullable ScannedClass scan() {
+    if (in.getInt() != 0xCAFEBABE) {
+      return null;
+    }
+    skip(4); // minor_version, major_version
+    readConstantPool();
+    skip(2); // access_flags
+    String name = utf8(classNames[u2()]);
+    skip(2); // super_class
+    skip(2 * u2()); // interfaces
+    int fieldCount = u2();
+    for (int i = 0; i < fieldCount; i++) {
+      skip(6); // access_flags, name_index, descriptor_index
+      int attributeCount = u2();
+      for (int j = 0; j < attributeCount; j++) {
+        skip(2);
+        skip(in.getInt());
+      }
+    }
+    int flags = 0;
+    Set<String> thisMethods = new HashSet<>();
+    int methodCount = u2();
+    for (int i = 0; i < methodCount; i++) {
+      skip(2); // access_flags
+      String methodName = utf8(u2());
+      String descriptor = utf8(u2());
+      int attributeCount = u2();
+      for (int j = 0; j < attributeCount; j++) {
+        String attributeName = utf8(u2());
+        int length = in.getInt();
+        int end = in.position() + length;
+        switch (attributeName) {
+          case "RuntimeVisibleAnnotations":
+          case "RuntimeInvisibleAnnotations":
+            flags |= methodAnnotationFlags();
+            break;
+          case "RuntimeVisibleTypeAnnotations":
+          case "RuntimeInvisibleTypeAnnotations":
+            if (returnTypeIsThis()) {
+              thisMethods.add(methodName + descriptor);
+            }
+            break;
+          default:
+            break;
+        }
+        in.position(end);
+      }
+    }
+    int attributeCount = u2();
+    for (int j = 0; j < attributeCount; j++) {
+      String attributeName = utf8(u2());
+      int length = in.getInt();
+      int end = in.position() + length;
+      if (attributeName.equals("RuntimeVisibleAnnotations")
+          || attributeName.equals("RuntimeInvisibleAnnotations")) {
+        flags |= classAnnotationFlags();
+      }
+      in.position(end);
+    }
+    return new ClasspathIndex.ScannedClass(
+        name.replace('/', '.'), ClasspathIndex.Entry.of(flags, thisMethods));
+  }
+
+  private void readConstantPool() {
+    int count = u2();
+    utf8Positions = new int[count];
+    classNames = new int[count];
+    for (int i = 1; i < count; i++) {
+      int tag = in.get() & 0xFF;
+      switch (tag) {
+        case 1: // Utf8
+          utf8Positions[i] = in.position();
+          skip(u2());
+          break;
+        case 7: // Class
+          classNames[i] = u2();
+          break;
+        case 8: // String
+        case 16: // MethodType
+        case 19: // Module
+        case 20: // Package
+          skip(2);
+          break;
+        case 15: // MethodHandle
+          skip(3);
+          break;
+        case 3: // Integer
+        case 4: // Float
+        case 9: // Fieldref
+        case 10: // Methodref
+        case 11: // InterfaceMethodref
+        case 12: // NameAndType
+        case 17: // Dynamic
+        case 18: // InvokeDynamic
+          skip(4);
+          break;
+        case 5: // Long
+        case 6: // Double
+          skip(8);
+          i++; // takes two entries
+          break;
+        default:
+          throw new IllegalArgumentException("unknown constant pool tag " + tag);
+      }
+    }
+  }
+
+  /** @return the flags for the declaration annotations of a class */
+  private int classAnnotationFlags() {
+    int flags = 0;
+    int count = u2();
+    for (int i = 0; i < count; i++) {
+      String type = utf8(u2());
+      skipElementValuePairs();
+      if (type.equals(AUTO_VALUE)) {
+        flags |= ClasspathIndex.AUTO_VALUE;
+      } else if (type.equals(AUTO_VALUE_BUILDER)) {
+        flags |= ClasspathIndex.AUTO_VALUE_BUILDER;
+      } else if (type.equals(LOMBOK_GENERATED)) {
+        flags |= ClasspathIndex.LOMBOK_GENERATED;
+      }
+    }
+    return flags;
+  }
+
+  /** @return the flags for the declaration annotations of a method */
+  private int methodAnnotationFlags() {
+    int flags = 0;
+    int count = u2();
+    for (int i = 0; i < count; i++) {
+      String type = utf8(u2());
+      skipElementValuePairs();
+      if (type.equals(LOMBOK_GENERATED)) {
+        flags |= ClasspathIndex.LOMBOK_GENERATED_METHOD;
+      }
+    }
+    return flags;
+  }
+
+  /** @return whether the type annotations of a method annotate its return type with @This */
+  private boolean returnTypeIsThis() {
+    boolean result = false;
+    int count = u2();
+    for (int i = 0; i < count; i++) {
+      int target = in.get() & 0xFF;
+      switch (target) {
+        case 0x01: // METHOD_TYPE_PARAMETER
+        case 0x16: // METHOD_FORMAL_PARAMETER
+          skip(1);
+          break;
+        case 0x12: // METHOD_TYPE_PARAMETER_BOUND
+        case 0x17: // THROWS
+          skip(2);
+          break;
+        case METHOD_RETURN:
+        case 0x15: // METHOD_RECEIVER
+          break;
+        default:
+          throw new IllegalArgumentException("unexpected type annotation target " + target);
+      }
+      int pathLength = in.get() & 0xFF;
+      skip(2 * pathLength);
+      String type = utf8(u2());
+      skipElementValuePairs();
+      if (type.equals(THIS) && target == METHOD_RETURN && pathLength == 0) {
+        result = true;
+      }
+    }
+    return result;
+  }
+
+  private void skipElementValuePairs() {
+    int count = u2();
+    for (int i = 0; i < count; i++) {
+      skip(2); // element_name_index
+      skipElementValue();
+    }
+  }
+
+  private void skipElementValue() {
+    char tag = (char) (in.get() & 0xFF);
+    switch (tag) {
+      case 'e':
+        skip(4);
+        break;
+      case '@':
+        skip(2);
+        skipElementValuePairs();
+        break;
+      case '[':
+        int count = u2();
+        for (int i = 0; i < count; i++) {
+          skipElementValue();
+        }
+        break;
+      default:
+        skip(2);
+        break;
+    }
+  }
+
+  /**
+   * @param index the index of a Utf8 constant
+   * @return the value of the constant; names and descriptors are decoded as UTF-8, which differs
+   *     from the modified UTF-8 of class files only for characters that do not occur in them
+   */
+  private String utf8(int index) {
+    int position = utf8Positions[index];
+    if (position == 0) {
+      throw new IllegalArgumentException("not a Utf8 constant: " + index);
+    }
+    ByteBuffer constant = in.duplicate();
+    constant.position(position);
+    byte[] bytes = new byte[constant.getShort() & 0xFFFF];
+    constant.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private int u2() {
+    return in.getShort() & 0xFFFF;
+  }
+
+  private void skip(int length) {
+    in.position(in.position() + length);
+  }
+}
@@ -0,0 +1,480 @@
+package org.checkerframework.checker.framework;
+
+import com.sun.tools.javac.code.Symbol;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.javacutil.TypesUtils;
+
+/**
+ * An index of the classes in the jars on the class path, built from their bytecode before the first
+ * compilation unit is analyzed. For each class, it records whether the class has a framework
+ * annotation (@AutoValue, @AutoValue.Builder, or @lombok.Generated on the class or on one of its
+ * methods) and which of its methods have a return type annotated with @This. {@link
+ * BuilderMetadata} answers questions about classes from indexed jars from the index, rather than by
+ * inspecting their elements.
+ *
+ * <p>The jars are scanned in parallel, and the index of each jar is stored in a cache directory, in
+ * a file named after a hash of the jar's contents, so a jar that has not changed is never scanned
+ * again. The hash is computed from the jar's central directory, which holds the name, size and CRC
+ * of every entry, so computing it does not require reading the whole jar. Cache files are read by
+ * mapping them into memory.
+ */
+public final class ClasspathIndex {
+
+  /** The class is annotated with @AutoValue. */
+  public static final int AUTO_VALUE = 1;
+
+  /** The class is annotated with @AutoValue.Builder. */
+  public static final int AUTO_VALUE_BUILDER = 1 << 1;
+
+  /** The class is annotated with @lombok.Generated. */
+  public static final int LOMBOK_GENERATED = 1 << 2;
+
+  /** A method of the class is annotated with @lombok.Generated. */
+  public static final int LOMBOK_GENERATED_METHOD = 1 << 3;
+
+  /** The first bytes of a cache file. */
+  private static final int CACHE_MAGIC = 0x4F43_4349;
+
+  /** The version of the format of cache files. Files of other versions are rescanned. */
+  private static final int CACHE_VERSION = 2;
+
+  private final Elements elements;
+
+  private final Types types;
+
+  /** The index of each jar, by the URI of the jar. */
+  private final Map<String, Map<String, Entry>> jars = new HashMap<>();
+
+  /** The index of the jar of each class file seen so far, by the URI of the class file's jar. */
+  private final Map<String, @Nullable Map<String, Entry>> jarsByClassFileUri = new HashMap<>();
+
+  /** The number of jars that were scanned and the number that were read from the cache. */
+  private int scanned;
+
+  private int cached;
+
+  private ClasspathIndex(Elements elements, Types types) {
+    this.elements = elements;
+    this.types = types;
+  }
+
+  /**
+   * Indexes the jars on the class path.
+   *
+   * @param cacheDirectory the directory of the cache files; it is created if it does not exist
+   * @param fileManager the file manager of the compilation, which knows the class path
+   * @param elements the element utilities of the compilation
+   * @param types the type utilities of the compilation
+   * @return the index
+   */
+  static ClasspathIndex build(
+      Path cacheDirectory, JavaFileManager fileManager, Elements elements, Types types) {
+    ClasspathIndex result = new ClasspathIndex(elements, types);
+    if (!(fileManager instanceof StandardJavaFileManager)) {
+      return result;
+    }
+    Iterable<? extends File> classPath =
+        ((StandardJavaFileManager) fileManager).getLocation(StandardLocation.CLASS_PATH);
+    if (classPath == null) {
+      return result;
+    }
+    List<Path> jars = new ArrayList<>();
+    for (File file : classPath) {
+      if (file.isFile() && file.getName().endsWith(".jar")) {
+        jars.add(file.toPath().toAbsolutePath().normalize());
+      }
+    }
+    try {
+      Files.createDirectories(cacheDirectory);
+    } catch (IOException e) {
+      // Without a cache the jars are still indexed; they are just scanned again next time.
+    }
+    List<JarIndex> indexes =
+        jars.parallelStream()
+            .map(jar -> JarIndex.load(jar, cacheDirectory))
+            .collect(Collectors.toList());
+    for (JarIndex index : indexes) {
+      if (index != null) {
+        result.jars.put(index.jar.toUri().toString(), index.classes);
+        if (index.fromCache) {
+          result.cached++;
+        } else {
+          result.scanned++;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the entry of a class, if the class was read from an indexed jar.
+   *
+   * @param type a class
+   * @return the entry of {@code type}, or null if it was not read from a jar that is indexed
+   */
+  public @Nullable Entry get(TypeElement type) {
+    JavaFileObject classFile = ((Symbol.ClassSymbol) type).classfile;
+    if (classFile == null || classFile.getKind() != JavaFileObject.Kind.CLASS) {
+      return null;
+    }
+    // The URI of an entry of a jar is "jar:" + the URI of the jar + "!/" + the entry name.
+    String uri = classFile.toUri().toString();
+    int separator = uri.indexOf("!/");
+    if (!uri.startsWith("jar:") || separator < 0) {
+      return null;
+    }
+    String jarUri = uri.substring("jar:".length(), separator);
+    Map<String, Entry> classes;
+    if (jarsByClassFileUri.containsKey(jarUri)) {
+      classes = jarsByClassFileUri.get(jarUri);
+    } else {
+      classes = jars.get(normalize(jarUri));
+      jarsByClassFileUri.put(jarUri, classes);
+    }
+    return classes == null ? null : classes.get(elements.getBinaryName(type).toString());
+  }
+
+  /**
+   * Returns whether the bytecode of a method of a class from an indexed jar annotates its return
+   * type with @This.
+   *
+   * @param method a method
+   * @return true if the index records that the return type of {@code method} is @This; false if it
+   *     does not, or if the method is not from an indexed jar
+   */
+  public boolean returnsThis(ExecutableElement method) {
+    Entry entry = get((TypeElement) method.getEnclosingElement());
+    return entry != null
+        && !entry.thisMethods.isEmpty()
+        && entry.thisMethods.contains(method.getSimpleName() + descriptor(method));
+  }
+
+  private static String normalize(String jarUri) {
+    try {
+      return Paths.get(URI.create(jarUri)).toAbsolutePath().normalize().toUri().toString();
+    } catch (IllegalArgumentException | FileSystemNotFoundException e) {
+      return jarUri;
+    }
+  }
+
+  /**
+   * @param method a method
+   * @return the descriptor of {@code method}, as in a class file
+   */
+  private String descriptor(ExecutableElement method) {
+    StringBuilder result = new StringBuilder("(");
+    for (VariableElement parameter : method.getParameters()) {
+      appendDescriptor(result, types.erasure(parameter.asType()));
+    }
+    result.append(')');
+    appendDescriptor(result, types.erasure(method.getReturnType()));
+    return result.toString();
+  }
+
+  private void appendDescriptor(StringBuilder result, TypeMirror type) {
+    switch (type.getKind()) {
+      case BOOLEAN:
+        result.append('Z');
+        break;
+      case BYTE:
+        result.append('B');
+        break;
+      case CHAR:
+        result.append('C');
+        break;
+      case SHORT:
+        result.append('S');
+        break;
+      case INT:
+        result.append('I');
+        break;
+      case LONG:
+        result.append('J');
+        break;
+      case FLOAT:
+        result.append('F');
+        break;
+      case DOUBLE:
+        result.append('D');
+        break;
+      case VOID:
+        result.append('V');
+        break;
+      case ARRAY:
+        result.append('[');
+        appendDescriptor(result, ((ArrayType) type).getComponentType());
+        break;
+      default:
+        TypeElement element = TypesUtils.getTypeElement(type);
+        String name =
+            element == null ? "java.lang.Object" : elements.getBinaryName(element).toString();
+        result.append('L').append(name.replace('.', '/')).append(';');
+        break;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "classpath index: "
+        + jars.size()
+        + " jars ("
+        + scanned
+        + " scanned, "
+        + cached
+        + " from the cache)";
+  }
+
+  /** What the index records about a class. */
+  public static final class Entry {
+
+    /** The entry of a class without framework annotations or annotated methods. */
+    private static final Entry NONE = new Entry(0, Collections.emptySet());
+
+    /** The flags of the class, such as {@link #AUTO_VALUE}. */
+    private final int flags;
+
+    /** The name and descriptor of each method whose return type is annotated with @This. */
+    private final Set<String> thisMethods;
+
+    private Entry(int flags, Set<String> thisMethods) {
+      this.flags = flags;
+      this.thisMethods = thisMethods;
+    }
+
+    static Entry of(int flags, Set<String> thisMethods) {
+      return flags == 0 && thisMethods.isEmpty() ? NONE : new Entry(flags, thisMethods);
+    }
+
+    /**
+     * @param flag a flag, such as {@link #AUTO_VALUE}
+     * @return whether the class has the flag
+     */
+    public boolean has(int flag) {
+      return (flags & flag) != 0;
+    }
+  }
+
+  /** A class read by {@link ClassFileScanner}. */
+  static final class ScannedClass {
+
+    final String binaryName;
+
+    final Entry entry;
+
+    ScannedClass(String binaryName, Entry entry) {
+      this.binaryName = binaryName;
+      this.entry = entry;
+    }
+  }
+
+  /** The index of one jar. */
+  private static final class JarIndex {
+
+    final Path jar;
+
+    /** The entry of each class in the jar, by binary name. */
+    final Map<String, Entry> classes;
+
+    final boolean fromCache;
+
+    private JarIndex(Path jar, Map<String, Entry> classes, boolean fromCache) {
+      this.jar = jar;
+      this.classes = classes;
+      this.fromCache = fromCache;
+    }
+
+    /**
+     * Reads the index of a jar from the cache, or scans the jar and stores its index in the cache.
+     *
+     * @return the index, or null if the jar cannot be read
+     */
+    static @Nullable JarIndex load(Path jar, Path cacheDirectory) {
+      try (ZipFile zip = new ZipFile(jar.toFile())) {
+        Path cacheFile = cacheDirectory.resolve(contentHash(zip) + ".idx");
+        Map<String, Entry> classes = readCache(cacheFile);
+        if (classes != null) {
+          return new JarIndex(jar, classes, true);
+        }
+        classes = scan(zip);
+        writeCache(cacheFile, classes);
+        return new JarIndex(jar, classes, false);
+      } catch (IOException e) {
+        // The classes of a jar that cannot be read are not indexed, so their elements are
+        // inspected instead.
+        return null;
+      }
+    }
+
+    private static String contentHash(ZipFile zip) throws IOException {
+      MessageDigest digest;
+      try {
+        digest = MessageDigest.getInstance("SHA-256");
+      } catch (NoSuchAlgorithmException e) {
+        throw new IOException(e);
+      }
+      ByteBuffer buffer = ByteBuffer.allocate(16);
+      Enumeration<? extends ZipEntry> entries = zip.entries();
+      while (entries.hasMoreElements()) {
+        ZipEntry entry = entries.nextElement();
+        digest.update(entry.getName().getBytes(StandardCharsets.UTF_8));
+        buffer.clear();
+        buffer.putLong(entry.getCrc()).putLong(entry.getSize());
+        digest.update(buffer.array());
+      }
+      StringBuilder result = new StringBuilder();
+      for (byte b : digest.digest()) {
+        result.append(String.format("%02x", b));
+      }
+      return result.toString();
+    }
+
+    private static Map<String, Entry> scan(ZipFile zip) throws IOException {
+      Map<String, Entry> classes = new HashMap<>();
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      byte[] chunk = new byte[8192];
+      Enumeration<? extends ZipEntry> entries = zip.entries();
+      while (entries.hasMoreElements()) {
+        ZipEntry entry = entries.nextElement();
+        String name = entry.getName();
+        // Skip module descriptors and the versioned classes of multi-release jars.
+        if (!name.endsWith(".class") || name.startsWith("META-INF/") || name.contains("-info")) {
+          continue;
+        }
+        bytes.reset();
+        try (InputStream in = zip.getInputStream(entry)) {
+          for (int n = in.read(chunk); n > 0; n = in.read(chunk)) {
+            bytes.write(chunk, 0, n);
+          }
+        }
+        ScannedClass scanned = ClassFileScanner.scan(ByteBuffer.wrap(bytes.toByteArray()));
+        if (scanned != null) {
+          classes.put(scanned.binaryName, scanned.entry);
+        }
+      }
+      return classes;
+    }
+
+    /** @return the classes in the cache file, or null if it does not exist or cannot be read */
+    private static @Nullable Map<String, Entry> readCache(Path cacheFile) {
+      if (!Files.isRegularFile(cacheFile)) {
+        return null;
+      }
+      try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        DataInputStream in = new DataInputStream(new ByteBufferInputStream(buffer));
+        if (in.readInt() != CACHE_MAGIC || in.readInt() != CACHE_VERSION) {
+          return null;
+        }
+        int count = in.readInt();
+        Map<String, Entry> classes = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+          String name = in.readUTF();
+          int flags = in.readInt();
+          int methodCount = in.readUnsignedShort();
+          Set<String> thisMethods =
+              methodCount == 0 ? Collections.emptySet() : new HashSet<>(methodCount * 2);
+          for (int j = 0; j < methodCount; j++) {
+            thisMethods.add(in.readUTF());
+          }
+          classes.put(name, Entry.of(flags, thisMethods));
+        }
+        return classes;
+      } catch (IOException | RuntimeException e) {
+        // A damaged cache file is replaced.
+        return null;
+      }
+    }
+
+    private static void writeCache(Path cacheFile, Map<String, Entry> classes) {
+      try {
+        // Write to a temporary file first, so that concurrent compilations never read a
+        // partially written cache file.
+        Path temporary = Files.createTempFile(cacheFile.getParent(), "index", ".tmp");
+        try (DataOutputStream out =
+            new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+          out.writeInt(CACHE_MAGIC);
+          out.writeInt(CACHE_VERSION);
+          out.writeInt(classes.size());
+          for (Map.Entry<String, Entry> entry : classes.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue().flags);
+            out.writeShort(entry.getValue().thisMethods.size());
+            for (String method : entry.getValue().thisMethods) {
+              out.writeUTF(method);
+            }
+          }
+        }
+        Files.move(temporary, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+      } catch (IOException e) {
+        // The index is still used; the jar is just scanned again next time.
+      }
+    }
+  }
+
+  /** Reads a buffer, such as a mapped cache file, as a stream. */
+  private static final class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int n = Math.min(length, buffer.remaining());
+      buffer.get(bytes, offset, n);
+      return n;
+    }
+  }
+}
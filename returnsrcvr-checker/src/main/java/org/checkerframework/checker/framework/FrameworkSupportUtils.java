@@ -3,6 +3,8 @@ package org.checkerframework.checker.framework;
 import java.lang.annotation.Annotation;
 import java.util.EnumSet;
 import javax.lang.model.element.Element;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
 import org.checkerframework.checker.returnsrcvr.ReturnsRcvrChecker;
 import org.checkerframework.javacutil.AnnotationUtils;
 
@@ -13,8 +15,15 @@ public class FrameworkSupportUtils {
   private FrameworkSupportUtils() {}
 
   public enum Framework {
-    AUTO_VALUE,
-    LOMBOK;
+    AUTO_VALUE("com.google.auto.value.AutoValue"),
+    LOMBOK("lombok.Generated");
+
+    /** The annotation that marks the code of the framework. */
+    private final String markerAnnotation;
+
+    Framework(String markerAnnotation) {
+      this.markerAnnotation = markerAnnotation;
+    }
   }
 
   /**
@@ -42,6 +51,21 @@ public class FrameworkSupportUtils {
     return frameworkSet;
   }
 
+  /**
+   * Like {@link #getFrameworkSet(String)}, but also leaves out the frameworks whose marker
+   * annotation is not on the classpath of the compilation. Their support would never apply, but
+   * would still be consulted for every method and constructor.
+   *
+   * @param option a comma-separated list of frameworks whose support should be disabled
+   * @param elements the element utilities of the compilation
+   * @return an EnumSet of all framework supports in use
+   */
+  public static EnumSet<Framework> getFrameworkSet(String option, Elements elements) {
+    EnumSet<Framework> frameworkSet = getFrameworkSet(option);
+    frameworkSet.removeIf(framework -> elements.getTypeElement(framework.markerAnnotation) == null);
+    return frameworkSet;
+  }
+
   /**
    * Given an annotation class, return true if the element has the annotation
    *
@@ -65,4 +89,21 @@ public class FrameworkSupportUtils {
     return element.getAnnotationMirrors().stream()
         .anyMatch(anm -> AnnotationUtils.areSameByName(anm, annotClassName));
   }
+
+  /**
+   * @param type a type
+   * @return whether the type is one of Guava's immutable collections, which AutoValue builders
+   *     support with collection builder methods
+   */
+  public static boolean isGuavaImmutableType(TypeMirror type) {
+    return type.toString().startsWith("com.google.common.collect.Immutable");
+  }
+
+  /**
+   * @param prop a property name
+   * @return the property name with its first character in upper case
+   */
+  public static String capitalize(String prop) {
+    return prop.substring(0, 1).toUpperCase() + prop.substring(1);
+  }
 }
@@ -0,0 +1,504 @@
+package org.checkerframework.checker.framework;
+
+import com.sun.source.tree.AnnotatedTypeTree;
+import com.sun.source.tree.AnnotationTree;
+import com.sun.source.tree.ArrayTypeTree;
+import com.sun.source.tree.AssignmentTree;
+import com.sun.source.tree.BinaryTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.ImportTree;
+import com.sun.source.tree.LiteralTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.NewArrayTree;
+import com.sun.source.tree.ParameterizedTypeTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.TypeParameterTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.JavacTask;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import org.checkerframework.checker.framework.BinaryStubs.Kind;
+import org.checkerframework.checker.framework.BinaryStubs.StubAnnotation;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.javacutil.UserError;
+
+/**
+ * Compiles {@code .astub} files into a binary stub file that is passed to the checkers with {@code
+ * -AbinaryStubs}, so that the stub files do not have to be parsed again in every compilation. Run
+ * it as
+ *
+ * <pre>{@code
+ * java org.checkerframework.checker.framework.StubCompiler out.bstub stubs/A.astub stubs/ ...
+ * }</pre>
+ *
+ * A directory argument stands for all the {@code .astub} files in it. The stub files are only
+ * parsed, not attributed, so the classes that they annotate need not be on the class path. The
+ * parameter types of methods are resolved to binary names through the imports and the classes of
+ * the stub file, and then through the class path; a type that is not found is taken to be in the
+ * package of the stub file. Only the annotations that {@link BinaryStubs} supports are kept; other
+ * annotations are dropped, and {@literal @}EnsuresCalledMethods, which the checkers read as a
+ * declaration annotation, is rejected, so that stubs that need it stay in {@code .astub} form.
+ */
+public final class StubCompiler {
+
+  /** The start of each section of a stub file, which is parsed as a compilation unit. */
+  private static final Pattern PACKAGE = Pattern.compile("(?m)^\\s*package\\s+[\\w.]+\\s*;");
+
+  /** The annotations of the methods of each class, by qualified class name and method key. */
+  private final Map<String, Map<String, List<StubAnnotation>>> classes = new TreeMap<>();
+
+  /** Looks up the classes on the class path, to resolve the type names of stub files. */
+  private final Elements elements;
+
+  private StubCompiler() {
+    JavacTask lookup =
+        (JavacTask)
+            ToolProvider.getSystemJavaCompiler()
+                .getTask(null, null, diagnostic -> {}, null, null, null);
+    this.elements = lookup.getElements();
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println(
+          "Usage: java " + StubCompiler.class.getName() + " <output file> <stub file or dir>...");
+      System.exit(1);
+    }
+    StubCompiler compiler = new StubCompiler();
+    for (int i = 1; i < args.length; i++) {
+      for (Path stub : stubFiles(Paths.get(args[i]))) {
+        compiler.compile(stub);
+      }
+    }
+    try (OutputStream out = Files.newOutputStream(Paths.get(args[0]))) {
+      compiler.write(out);
+    }
+  }
+
+  private static List<Path> stubFiles(Path path) throws IOException {
+    if (!Files.isDirectory(path)) {
+      return Collections.singletonList(path);
+    }
+    try (Stream<Path> files = Files.walk(path)) {
+      return files
+          .filter(file -> file.toString().endsWith(".astub"))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  /** Adds the annotations in a stub file. */
+  private void compile(Path stub) throws IOException {
+    String text = new String(Files.readAllBytes(stub), StandardCharsets.UTF_8);
+    // A stub file may contain several packages, but a compilation unit may only have one.
+    List<JavaFileObject> sections = new ArrayList<>();
+    Matcher matcher = PACKAGE.matcher(text);
+    int start = 0;
+    while (matcher.find()) {
+      if (matcher.start() > start) {
+        sections.add(new Section(stub, sections.size(), text.substring(start, matcher.start())));
+      }
+      start = matcher.start();
+    }
+    sections.add(new Section(stub, sections.size(), text.substring(start)));
+
+    JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    JavacTask task = (JavacTask) javac.getTask(null, null, diagnostics, null, null, sections);
+    Iterable<? extends CompilationUnitTree> units = task.parse();
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+      if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+        throw new UserError("%s: %s", stub, diagnostic.getMessage(null));
+      }
+    }
+    for (CompilationUnitTree unit : units) {
+      String packageName =
+          unit.getPackageName() == null ? "" : unit.getPackageName().toString() + ".";
+      Names names = new Names(unit);
+      for (Tree member : unit.getTypeDecls()) {
+        if (member instanceof ClassTree) {
+          compileClass(stub, names, (ClassTree) member, packageName, Collections.emptyMap());
+        }
+      }
+    }
+  }
+
+  private void compileClass(
+      Path stub,
+      Names names,
+      ClassTree tree,
+      String prefix,
+      Map<String, String> outerTypeVariables) {
+    String name = prefix + tree.getSimpleName();
+    Map<String, String> typeVariables = new HashMap<>(outerTypeVariables);
+    addTypeVariables(names, tree.getTypeParameters(), typeVariables);
+    for (Tree member : tree.getMembers()) {
+      if (member instanceof ClassTree) {
+        compileClass(stub, names, (ClassTree) member, name + ".", typeVariables);
+      } else if (member instanceof MethodTree) {
+        compileMethod(stub, names, name, (MethodTree) member, typeVariables);
+      }
+    }
+  }
+
+  private void compileMethod(
+      Path stub,
+      Names names,
+      String className,
+      MethodTree tree,
+      Map<String, String> classTypeVariables) {
+    Map<String, String> typeVariables = new HashMap<>(classTypeVariables);
+    addTypeVariables(names, tree.getTypeParameters(), typeVariables);
+    List<StubAnnotation> annotations = new ArrayList<>();
+    addAnnotations(stub, BinaryStubs.RETURN, tree.getModifiers().getAnnotations(), annotations);
+    if (tree.getReturnType() instanceof AnnotatedTypeTree) {
+      addAnnotations(
+          stub,
+          BinaryStubs.RETURN,
+          ((AnnotatedTypeTree) tree.getReturnType()).getAnnotations(),
+          annotations);
+    }
+    if (tree.getReceiverParameter() != null) {
+      addParameterAnnotations(stub, BinaryStubs.RECEIVER, tree.getReceiverParameter(), annotations);
+    }
+    StringJoiner key = new StringJoiner(",", tree.getName() + "(", ")");
+    List<? extends VariableTree> parameters = tree.getParameters();
+    for (int i = 0; i < parameters.size(); i++) {
+      VariableTree parameter = parameters.get(i);
+      key.add(names.erasedBinaryName(parameter.getType(), typeVariables));
+      addParameterAnnotations(stub, BinaryStubs.FIRST_PARAMETER + i, parameter, annotations);
+    }
+    if (!annotations.isEmpty()) {
+      classes
+          .computeIfAbsent(className, c -> new TreeMap<>())
+          .computeIfAbsent(key.toString(), k -> new ArrayList<>())
+          .addAll(annotations);
+    }
+  }
+
+  private void addParameterAnnotations(
+      Path stub, int position, VariableTree parameter, List<StubAnnotation> annotations) {
+    addAnnotations(stub, position, parameter.getModifiers().getAnnotations(), annotations);
+    if (parameter.getType() instanceof AnnotatedTypeTree) {
+      addAnnotations(
+          stub, position, ((AnnotatedTypeTree) parameter.getType()).getAnnotations(), annotations);
+    }
+  }
+
+  private static void addTypeVariables(
+      Names names,
+      List<? extends TypeParameterTree> typeParameters,
+      Map<String, String> typeVariables) {
+    for (TypeParameterTree typeParameter : typeParameters) {
+      // A type variable is erased to its first bound.
+      String erasure =
+          typeParameter.getBounds().isEmpty()
+              ? "java.lang.Object"
+              : names.erasedBinaryName(typeParameter.getBounds().get(0), typeVariables);
+      typeVariables.put(typeParameter.getName().toString(), erasure);
+    }
+  }
+
+  /** @return the simple name of an annotation type */
+  private static String simpleName(Tree type) {
+    switch (type.getKind()) {
+      case MEMBER_SELECT:
+        return ((MemberSelectTree) type).getIdentifier().toString();
+      case IDENTIFIER:
+        return ((IdentifierTree) type).getName().toString();
+      default:
+        return type.toString();
+    }
+  }
+
+  private void addAnnotations(
+      Path stub,
+      int position,
+      List<? extends AnnotationTree> trees,
+      List<StubAnnotation> annotations) {
+    for (AnnotationTree tree : trees) {
+      String name = simpleName(tree.getAnnotationType());
+      Kind kind;
+      switch (name) {
+        case "This":
+          kind = Kind.THIS;
+          break;
+        case "CalledMethods":
+          kind = Kind.CALLED_METHODS;
+          break;
+        case "CalledMethodsPredicate":
+          kind = Kind.CALLED_METHODS_PREDICATE;
+          break;
+        case "EnsuresCalledMethods":
+          throw new UserError(
+              "%s: @EnsuresCalledMethods is not supported in binary stubs; keep this stub file"
+                  + " in .astub form",
+              stub);
+        default:
+          // An annotation of another checker.
+          continue;
+      }
+      List<String> values = new ArrayList<>();
+      for (ExpressionTree argument : tree.getArguments()) {
+        ExpressionTree value = argument;
+        if (argument instanceof AssignmentTree) {
+          AssignmentTree assignment = (AssignmentTree) argument;
+          if (!assignment.getVariable().toString().equals("value")) {
+            continue;
+          }
+          value = assignment.getExpression();
+        }
+        addValues(stub, value, values);
+      }
+      annotations.add(new StubAnnotation(position, kind, values));
+    }
+  }
+
+  private static void addValues(Path stub, ExpressionTree value, List<String> values) {
+    if (value instanceof NewArrayTree) {
+      for (ExpressionTree element : ((NewArrayTree) value).getInitializers()) {
+        addValues(stub, element, values);
+      }
+    } else {
+      values.add(constant(stub, value));
+    }
+  }
+
+  /** @return the value of a string constant, which may be a concatenation of string literals */
+  private static String constant(Path stub, ExpressionTree tree) {
+    if (tree instanceof LiteralTree && ((LiteralTree) tree).getValue() instanceof String) {
+      return (String) ((LiteralTree) tree).getValue();
+    }
+    if (tree.getKind() == Tree.Kind.PLUS) {
+      BinaryTree plus = (BinaryTree) tree;
+      return constant(stub, plus.getLeftOperand()) + constant(stub, plus.getRightOperand());
+    }
+    throw new UserError("%s: annotation value %s is not a string literal", stub, tree);
+  }
+
+  /** Writes the binary stub file: the class index, followed by the annotations of each class. */
+  private void write(OutputStream out) throws IOException {
+    ByteArrayOutputStream data = new ByteArrayOutputStream();
+    DataOutputStream dataOut = new DataOutputStream(data);
+    Map<String, Integer> offsets = new TreeMap<>();
+    for (Map.Entry<String, Map<String, List<StubAnnotation>>> c : classes.entrySet()) {
+      offsets.put(c.getKey(), dataOut.size());
+      dataOut.writeInt(c.getValue().size());
+      for (Map.Entry<String, List<StubAnnotation>> method : c.getValue().entrySet()) {
+        writeString(dataOut, method.getKey());
+        dataOut.writeByte(method.getValue().size());
+        for (StubAnnotation annotation : method.getValue()) {
+          dataOut.writeByte(annotation.position);
+          dataOut.writeByte(annotation.kind.ordinal());
+          dataOut.writeShort(annotation.values.size());
+          for (String value : annotation.values) {
+            writeString(dataOut, value);
+          }
+        }
+      }
+    }
+    DataOutputStream header = new DataOutputStream(out);
+    header.writeInt(BinaryStubs.MAGIC);
+    header.writeInt(BinaryStubs.VERSION);
+    header.writeInt(offsets.size());
+    for (Map.Entry<String, Integer> offset : offsets.entrySet()) {
+      writeString(header, offset.getKey());
+      header.writeInt(offset.getValue());
+    }
+    data.writeTo(header);
+    header.flush();
+  }
+
+  /** Writes a string as {@link BinaryStubs#readString} reads it. */
+  private static void writeString(DataOutputStream out, String s) throws IOException {
+    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    out.writeShort(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * @param canonicalName the canonical name of a class
+   * @return the binary name of the class; if the class is not on the class path, the segments after
+   *     the first that starts with an upper case letter are taken to name nested classes
+   */
+  private String binaryName(String canonicalName) {
+    TypeElement element = elements.getTypeElement(canonicalName);
+    if (element != null) {
+      return elements.getBinaryName(element).toString();
+    }
+    StringBuilder result = new StringBuilder();
+    boolean inClass = false;
+    for (String segment : canonicalName.split("\\.")) {
+      if (result.length() > 0) {
+        result.append(inClass ? '$' : '.');
+      }
+      result.append(segment);
+      inClass |= Character.isUpperCase(segment.charAt(0));
+    }
+    return result.toString();
+  }
+
+  /** Resolves the type names of a section of a stub file to binary names. */
+  private final class Names {
+
+    /** The package of the section, or the empty string. */
+    private final String packageName;
+
+    /** The binary name of each class declared in the section, by simple name. */
+    private final Map<String, String> declaredClasses = new HashMap<>();
+
+    /** The canonical name of each class imported by a single-type import, by simple name. */
+    private final Map<String, String> singleTypeImports = new HashMap<>();
+
+    /** The packages and classes imported on demand, followed by java.lang. */
+    private final List<String> onDemandImports = new ArrayList<>();
+
+    Names(CompilationUnitTree unit) {
+      packageName = unit.getPackageName() == null ? "" : unit.getPackageName().toString();
+      for (ImportTree tree : unit.getImports()) {
+        if (tree.isStatic()) {
+          continue;
+        }
+        MemberSelectTree imported = (MemberSelectTree) tree.getQualifiedIdentifier();
+        String name = imported.getIdentifier().toString();
+        if (name.equals("*")) {
+          onDemandImports.add(imported.getExpression().toString());
+        } else {
+          singleTypeImports.put(name, imported.toString());
+        }
+      }
+      onDemandImports.add("java.lang");
+      String prefix = packageName.isEmpty() ? "" : packageName + ".";
+      for (Tree member : unit.getTypeDecls()) {
+        if (member instanceof ClassTree) {
+          addDeclaredClasses((ClassTree) member, prefix);
+        }
+      }
+    }
+
+    private void addDeclaredClasses(ClassTree tree, String prefix) {
+      String name = prefix + tree.getSimpleName();
+      declaredClasses.putIfAbsent(tree.getSimpleName().toString(), name);
+      for (Tree member : tree.getMembers()) {
+        if (member instanceof ClassTree) {
+          addDeclaredClasses((ClassTree) member, name + "$");
+        }
+      }
+    }
+
+    /**
+     * @param type a type in the section
+     * @param typeVariables the binary name of the erasure of each type variable in scope
+     * @return the binary name of the erasure of {@code type}, as in {@link BinaryStubs} method keys
+     */
+    String erasedBinaryName(Tree type, Map<String, String> typeVariables) {
+      switch (type.getKind()) {
+        case ARRAY_TYPE:
+          return erasedBinaryName(((ArrayTypeTree) type).getType(), typeVariables) + "[]";
+        case PARAMETERIZED_TYPE:
+          return erasedBinaryName(((ParameterizedTypeTree) type).getType(), typeVariables);
+        case ANNOTATED_TYPE:
+          return erasedBinaryName(((AnnotatedTypeTree) type).getUnderlyingType(), typeVariables);
+        case MEMBER_SELECT:
+          // The name is qualified by a package, as in "java.util.Map", or by a class, as in
+          // "Map.Entry", whose name is resolved like a simple name.
+          String qualifiedName = type.toString();
+          int dot = qualifiedName.indexOf('.');
+          String outer = resolveClass(qualifiedName.substring(0, dot));
+          return outer != null
+              ? outer + qualifiedName.substring(dot).replace('.', '$')
+              : binaryName(qualifiedName);
+        case IDENTIFIER:
+          String name = ((IdentifierTree) type).getName().toString();
+          String typeVariable = typeVariables.get(name);
+          if (typeVariable != null) {
+            return typeVariable;
+          }
+          String resolved = resolveClass(name);
+          if (resolved != null) {
+            return resolved;
+          }
+          return packageName.isEmpty() ? name : packageName + "." + name;
+        default:
+          // A primitive type.
+          return type.toString();
+      }
+    }
+
+    /**
+     * Resolves a simple class name as the Java language does: to a class of the section, an
+     * imported class, a class of the package, or a class imported on demand.
+     *
+     * @param simpleName a simple class name
+     * @return the binary name of the class, or null if it is not found
+     */
+    private @Nullable String resolveClass(String simpleName) {
+      String declared = declaredClasses.get(simpleName);
+      if (declared != null) {
+        return declared;
+      }
+      String imported = singleTypeImports.get(simpleName);
+      if (imported != null) {
+        return binaryName(imported);
+      }
+      String inPackage = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+      TypeElement element = elements.getTypeElement(inPackage);
+      if (element != null) {
+        return elements.getBinaryName(element).toString();
+      }
+      for (String onDemand : onDemandImports) {
+        element = elements.getTypeElement(onDemand + "." + simpleName);
+        if (element != null) {
+          return elements.getBinaryName(element).toString();
+        }
+      }
+      return null;
+    }
+  }
+
+  /** A section of a stub file, which starts with a package declaration. */
+  private static final class Section extends SimpleJavaFileObject {
+
+    private final String text;
+
+    Section(Path stub, int index, String text) {
+      super(URI.create(stub.toUri() + "#" + index), JavaFileObject.Kind.SOURCE);
+      this.text = text;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return text;
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package org.checkerframework.checker.returnsrcvr;
 
 import java.lang.annotation.Annotation;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumSet;
@@ -9,6 +10,10 @@ import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import org.checkerframework.checker.framework.AutoValueSupport;
+import org.checkerframework.checker.framework.BinaryStubs;
+import org.checkerframework.checker.framework.BoundedCache;
+import org.checkerframework.checker.framework.BuilderMetadata;
+import org.checkerframework.checker.framework.ClasspathIndex;
 import org.checkerframework.checker.framework.FrameworkSupport;
 import org.checkerframework.checker.framework.FrameworkSupportUtils;
 import org.checkerframework.checker.framework.LombokSupport;
@@ -23,6 +28,7 @@ import org.checkerframework.framework.type.typeannotator.ListTypeAnnotator;
 import org.checkerframework.framework.type.typeannotator.TypeAnnotator;
 import org.checkerframework.javacutil.AnnotationBuilder;
 import org.checkerframework.javacutil.AnnotationUtils;
+import org.checkerframework.javacutil.ElementUtils;
 
 public class ReturnsRcvrAnnotatedTypeFactory extends BaseAnnotatedTypeFactory {
 
@@ -30,22 +36,48 @@ public class ReturnsRcvrAnnotatedTypeFactory extends BaseAnnotatedTypeFactory {
   // the collection of the built-in framework supports for returns receiver checker
   Collection<FrameworkSupport> frameworkSupports;
 
+  private final BuilderMetadata builderMetadata;
+
+  private final BinaryStubs binaryStubs;
+
+  /**
+   * Whether a framework support knows that each method returns this. Every executable type of a
+   * method is annotated the same way, so the framework supports are consulted once per method.
+   * Cleared by {@link #clearCaches}.
+   */
+  private final BoundedCache<ExecutableElement, Boolean> knownToReturnThisCache =
+      new BoundedCache<>(1 << 16);
+
+  /**
+   * Whether the return type of each method is @This; see {@link #returnsThis}. Cleared by {@link
+   * #clearCaches}.
+   */
+  private final BoundedCache<ExecutableElement, Boolean> returnsThisCache =
+      new BoundedCache<>(1 << 16);
+
   public ReturnsRcvrAnnotatedTypeFactory(BaseTypeChecker checker) {
     super(checker);
     THIS_ANNOT = AnnotationBuilder.fromClass(elements, This.class);
 
     EnumSet<FrameworkSupportUtils.Framework> frameworkSet =
         FrameworkSupportUtils.getFrameworkSet(
-            checker.getOption(ReturnsRcvrChecker.DISABLED_FRAMEWORK_SUPPORTS));
+            checker.getOption(ReturnsRcvrChecker.DISABLED_FRAMEWORK_SUPPORTS), elements);
     frameworkSupports = new ArrayList<FrameworkSupport>();
+    builderMetadata = BuilderMetadata.instance(processingEnv);
+    String classpathIndexCache = checker.getOption(ReturnsRcvrChecker.CLASSPATH_INDEX_CACHE);
+    if (classpathIndexCache != null) {
+      builderMetadata.useClasspathIndex(Paths.get(classpathIndexCache));
+    }
+    binaryStubs =
+        BinaryStubs.instance(processingEnv, checker.getOption(ReturnsRcvrChecker.BINARY_STUBS));
 
     for (FrameworkSupportUtils.Framework framework : frameworkSet) {
       switch (framework) {
         case AUTO_VALUE:
-          frameworkSupports.add(new AutoValueSupport());
+          frameworkSupports.add(new AutoValueSupport(builderMetadata));
           break;
         case LOMBOK:
-          frameworkSupports.add(new LombokSupport());
+          frameworkSupports.add(new LombokSupport(builderMetadata));
           break;
       }
     }
@@ -54,6 +86,74 @@ public class ReturnsRcvrAnnotatedTypeFactory extends BaseAnnotatedTypeFactory {
     this.postInit();
   }
 
+  /**
+   * Returns whether the return type of a method is annotated with @This, either explicitly or
+   * because a framework generated the method. The result is cached per method, so that the Object
+   * Construction Checker can ask it for every link of every call chain.
+   *
+   * @param method a method
+   * @return whether {@code method} returns its receiver
+   */
+  public boolean returnsThis(ExecutableElement method) {
+    return returnsThisCache.get(method, this::computeReturnsThis);
+  }
+
+  private boolean computeReturnsThis(ExecutableElement method) {
+    ClasspathIndex classpathIndex = builderMetadata.getClasspathIndex();
+    if (classpathIndex != null && classpathIndex.returnsThis(method)) {
+      // The bytecode says so; there is no need to compute the annotated type.
+      return true;
+    }
+    AnnotatedTypeMirror returnType = getAnnotatedType(method).getReturnType();
+    return returnType != null && returnType.hasAnnotation(This.class);
+  }
+
+  /**
+   * Returns whether a framework support knows that a method returns this. Cached per method.
+   *
+   * @param t the type of a method
+   * @return {@code true} if the method is generated by a framework and returns {@code this}
+   */
+  private boolean knownToReturnThis(AnnotatedTypeMirror.AnnotatedExecutableType t) {
+    return knownToReturnThisCache.get(
+        t.getElement(),
+        element -> {
+          // check each supported framework
+          for (FrameworkSupport frameworkSupport : frameworkSupports) {
+            // see if the method in the framework should return this
+            if (frameworkSupport.knownToReturnThis(t)) {
+              return true;
+            }
+          }
+          return false;
+        });
+  }
+
+  /**
+   * Returns the cache of {@link #returnsThis} results, whose counters report how often it was
+   * reused.
+   */
+  public BoundedCache<ExecutableElement, Boolean> getReturnsThisCache() {
+    return returnsThisCache;
+  }
+
+  /**
+   * Returns the cache of the framework supports' decisions, whose counters report how often it was
+   * reused.
+   */
+  public BoundedCache<ExecutableElement, Boolean> getKnownToReturnThisCache() {
+    return knownToReturnThisCache;
+  }
+
+  /**
+   * Empties the per-method caches, whose keys are elements of the current compilation. Called by
+   * {@link ReturnsRcvrChecker} when type processing is over.
+   */
+  void clearCaches() {
+    knownToReturnThisCache.clear();
+    returnsThisCache.clear();
+  }
+
   @Override
   protected Set<Class<? extends Annotation>> createSupportedTypeQualifiers() {
     return getBundledTypeQualifiers(BottomThis.class, MaybeThis.class, This.class);
@@ -74,6 +174,14 @@ public class ReturnsRcvrAnnotatedTypeFactory extends BaseAnnotatedTypeFactory {
     public Void visitExecutable(AnnotatedTypeMirror.AnnotatedExecutableType t, Void p) {
 
       AnnotatedTypeMirror returnType = t.getReturnType();
+      if (ElementUtils.isElementFromByteCode(t.getElement())) {
+        for (BinaryStubs.StubAnnotation annotation : binaryStubs.getAnnotations(t.getElement())) {
+          if (annotation.kind == BinaryStubs.Kind.THIS
+              && annotation.position == BinaryStubs.RETURN) {
+            returnType.replaceAnnotation(THIS_ANNOT);
+          }
+        }
+      }
       AnnotationMirror maybeThisAnnot = AnnotationBuilder.fromClass(elements, MaybeThis.class);
       AnnotationMirror retAnnotation = returnType.getAnnotationInHierarchy(maybeThisAnnot);
       if (retAnnotation != null && AnnotationUtils.areSame(retAnnotation, THIS_ANNOT)) {
@@ -83,18 +191,11 @@ public class ReturnsRcvrAnnotatedTypeFactory extends BaseAnnotatedTypeFactory {
       }
 
       // skip constructors
-      if (!isConstructor(t)) {
-        // check each supported framework
-        for (FrameworkSupport frameworkSupport : frameworkSupports) {
-          // see if the method in the framework should return this
-          if (frameworkSupport.knownToReturnThis(t)) {
-            // add @This annotation
-            returnType.replaceAnnotation(THIS_ANNOT);
-            AnnotatedTypeMirror.AnnotatedDeclaredType receiverType = t.getReceiverType();
-            receiverType.replaceAnnotation(THIS_ANNOT);
-            break;
-          }
-        }
+      if (!isConstructor(t) && knownToReturnThis(t)) {
+        // add @This annotation
+        returnType.replaceAnnotation(THIS_ANNOT);
+        AnnotatedTypeMirror.AnnotatedDeclaredType receiverType = t.getReceiverType();
+        receiverType.replaceAnnotation(THIS_ANNOT);
       }
 
       return super.visitExecutable(t, p);
@@ -1,5 +1,8 @@
 package org.checkerframework.checker.returnsrcvr;
 
+import com.sun.source.util.TreePath;
+import javax.lang.model.element.TypeElement;
+import org.checkerframework.checker.framework.BuilderMetadata;
 import org.checkerframework.common.basetype.BaseTypeChecker;
 import org.checkerframework.framework.source.SupportedOptions;
 
@@ -9,9 +12,58 @@ import org.checkerframework.framework.source.SupportedOptions;
  * <p>This one does nothing. The Checker Framework manual tells you how to make it do something:
  * https://checkerframework.org/manual/#creating-a-checker
  */
-@SupportedOptions({ReturnsRcvrChecker.DISABLED_FRAMEWORK_SUPPORTS})
+@SupportedOptions({
+  ReturnsRcvrChecker.DISABLED_FRAMEWORK_SUPPORTS,
+  ReturnsRcvrChecker.EMIT_BUILDER_SUMMARIES,
+  ReturnsRcvrChecker.CLASSPATH_INDEX_CACHE,
+  ReturnsRcvrChecker.BINARY_STUBS
+})
 public class ReturnsRcvrChecker extends BaseTypeChecker {
   public static final String DISABLED_FRAMEWORK_SUPPORTS = "disableFrameworkSupports";
   public static final String LOMBOK_SUPPORT = "LOMBOK";
   public static final String AUTOVALUE_SUPPORT = "AUTOVALUE";
+
+  /**
+   * If this option is supplied, the summaries of the builders declared in the compiled classes are
+   * written to the class output, for the compilations that use the classes as a library. See {@link
+   * BuilderMetadata#emitSummaries}.
+   */
+  public static final String EMIT_BUILDER_SUMMARIES = "emitBuilderSummaries";
+
+  /**
+   * The directory in which the index of each jar on the class path is cached. If this option is
+   * supplied, the jars are indexed before the first compilation unit is analyzed, and the facts
+   * about their classes are read from the index. See {@link
+   * org.checkerframework.checker.framework.ClasspathIndex}.
+   */
+  public static final String CLASSPATH_INDEX_CACHE = "classpathIndexCache";
+
+  /**
+   * The binary stub files to read, separated by the path separator. They are compiled from {@code
+   * .astub} files by {@link org.checkerframework.checker.framework.StubCompiler}. See {@link
+   * org.checkerframework.checker.framework.BinaryStubs}.
+   */
+  public static final String BINARY_STUBS = "binaryStubs";
+
+  @Override
+  public void typeProcess(TypeElement element, TreePath tree) {
+    super.typeProcess(element, tree);
+    if (hasOption(EMIT_BUILDER_SUMMARIES)) {
+      BuilderMetadata.instance(processingEnv).emitSummaries(element);
+    }
+  }
+
+  @Override
+  public void typeProcessingOver() {
+    ReturnsRcvrAnnotatedTypeFactory atypeFactory =
+        (ReturnsRcvrAnnotatedTypeFactory) getTypeFactory();
+    if (atypeFactory != null) {
+      // The cached decisions refer to elements of this compilation.
+      atypeFactory.clearCaches();
+    }
+    super.typeProcessingOver();
+    // The builder metadata is shared with the checkers that use this one as a subchecker, and
+    // clearing it more than once is harmless.
+    BuilderMetadata.instance(processingEnv).clear();
+  }
 }
@@ -0,0 +1,142 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import org.checkerframework.checker.framework.BinaryStubs;
+import org.checkerframework.checker.framework.StubCompiler;
+import org.checkerframework.javacutil.UserError;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Compiles "tests/binarystubs/overloads.astub" with {@link StubCompiler}, and looks up the methods
+ * of the class it annotates, "tests/binarystubs/stubbed/Overloads.java", in the {@link BinaryStubs}
+ * read from the result.
+ */
+public class BinaryStubsTest {
+
+  private static final String STUB = "tests/binarystubs/overloads.astub";
+
+  private static final String STUBBED = "tests/binarystubs/stubbed/Overloads.java";
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void roundTrip() throws Exception {
+    Path binaryStubs = temporaryFolder.getRoot().toPath().resolve("overloads.bstub");
+    StubCompiler.main(new String[] {binaryStubs.toString(), STUB});
+    Map<String, String> annotations = new LinkedHashMap<>();
+    process(
+        processingEnv -> {
+          BinaryStubs stubs = BinaryStubs.instance(processingEnv, binaryStubs.toString());
+          for (ExecutableElement method : methodsOfOverloads(processingEnv)) {
+            StringJoiner description = new StringJoiner(", ");
+            for (BinaryStubs.StubAnnotation annotation : stubs.getAnnotations(method)) {
+              description.add(
+                  annotation.position + " " + annotation.kind + " " + annotation.values);
+            }
+            annotations.put(method.toString(), description.toString());
+          }
+        });
+    Map<String, String> expected = new LinkedHashMap<>();
+    // Overloads whose parameter types have the same simple name.
+    expected.put("date(java.util.Date)", "0 THIS []");
+    expected.put("date(java.sql.Date)", "2 CALLED_METHODS [a]");
+    // A nested class qualified by an imported class.
+    expected.put("entry(java.util.Map.Entry<K,V>)", "0 THIS []");
+    // A type variable, which is erased to its bound.
+    expected.put("<T>numbers(T[],int)", "0 THIS []");
+    // A class of the stub file.
+    expected.put("inner(stubbed.Overloads.Inner)", "2 CALLED_METHODS [x, y]");
+    assertEquals(expected, annotations);
+  }
+
+  @Test
+  public void unknownKindIsReported() throws Exception {
+    Path stub = temporaryFolder.newFile("one.astub").toPath();
+    Files.write(
+        stub,
+        Arrays.asList(
+            "package stubbed;", "class Overloads<K, V> {", "  @This Object entry();", "}"),
+        StandardCharsets.UTF_8);
+    Path binaryStubs = temporaryFolder.getRoot().toPath().resolve("one.bstub");
+    StubCompiler.main(new String[] {binaryStubs.toString(), stub.toString()});
+    // The file ends with the only annotation: its position, its kind, and no values.
+    byte[] bytes = Files.readAllBytes(binaryStubs);
+    bytes[bytes.length - 3] = 42;
+    Files.write(binaryStubs, bytes);
+    List<String> errors = new ArrayList<>();
+    process(
+        processingEnv -> {
+          BinaryStubs stubs = BinaryStubs.instance(processingEnv, binaryStubs.toString());
+          try {
+            stubs.getAnnotations(methodsOfOverloads(processingEnv).get(0));
+          } catch (UserError e) {
+            errors.add(e.getMessage());
+          }
+        });
+    assertEquals(1, errors.size());
+    assertTrue(errors.get(0), errors.get(0).contains(binaryStubs.toString()));
+    assertTrue(errors.get(0), errors.get(0).contains("unknown annotation kind 42"));
+  }
+
+  private static List<ExecutableElement> methodsOfOverloads(ProcessingEnvironment processingEnv) {
+    TypeElement overloads = processingEnv.getElementUtils().getTypeElement("stubbed.Overloads");
+    return ElementFilter.methodsIn(overloads.getEnclosedElements());
+  }
+
+  /** Runs an action in the annotation processing of a compilation of the stubbed class. */
+  private static void process(Consumer<ProcessingEnvironment> action) throws Exception {
+    TestCompiler.compileWithoutErrors(
+        Arrays.asList(new File(STUBBED)), Arrays.asList(new Probe(action)), "-proc:only");
+  }
+
+  /** Runs an action in the first round of annotation processing. */
+  @SupportedAnnotationTypes("*")
+  private static final class Probe extends AbstractProcessor {
+
+    private final Consumer<ProcessingEnvironment> action;
+
+    private boolean done;
+
+    Probe(Consumer<ProcessingEnvironment> action) {
+      this.action = action;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+      return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+      if (!done) {
+        done = true;
+        action.accept(processingEnv);
+      }
+      return false;
+    }
+  }
+}
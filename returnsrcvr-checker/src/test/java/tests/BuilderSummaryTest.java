@@ -0,0 +1,159 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import org.checkerframework.checker.framework.BuilderMetadata;
+import org.checkerframework.checker.returnsrcvr.ReturnsRcvrChecker;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Compiles the library in "tests/summaries/library" with {@link
+ * ReturnsRcvrChecker#EMIT_BUILDER_SUMMARIES}, and then the client in "tests/summaries/client"
+ * against the compiled library. The facts about the builders of the library that the client reads
+ * from the summaries must be the facts that the library computed from its source.
+ */
+public class BuilderSummaryTest {
+
+  private static final String AUTO_VALUE_BUILDER = "summaries.Animal.Builder";
+
+  private static final String LOMBOK_CLASS = "summaries.Pet";
+
+  private static final List<String> PROCESSORS =
+      Arrays.asList(
+          "com.google.auto.value.processor.AutoValueBuilderProcessor",
+          "com.google.auto.value.processor.AutoValueProcessor",
+          "lombok.launch.AnnotationProcessorHider$AnnotationProcessor",
+          ReturnsRcvrChecker.class.getName());
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void summariesAreWrittenAndReadBack() throws Exception {
+    File libraryClasses = compileLibrary();
+    Map<String, String> fromSource = new HashMap<>(FactsProbe.facts);
+    assertTrue(
+        new File(libraryClasses, "META-INF/builder-summaries/summaries.Animal$Builder").isFile());
+    assertTrue(new File(libraryClasses, "META-INF/builder-summaries/summaries.Pet").isFile());
+    assertEquals("[setName, setNumberOfLegs]", fromSource.get(AUTO_VALUE_BUILDER));
+    assertEquals("[name]", fromSource.get(LOMBOK_CLASS));
+
+    compileClient(libraryClasses);
+    assertEquals(fromSource, FactsProbe.facts);
+  }
+
+  @Test
+  public void clientUsesTheSummary() throws Exception {
+    File libraryClasses = compileLibrary();
+    // Change the summary, so that facts derived from the class files would differ from it.
+    File summary = new File(libraryClasses, "META-INF/builder-summaries/summaries.Animal$Builder");
+    List<String> lines = new ArrayList<>();
+    for (String line : Files.readAllLines(summary.toPath(), StandardCharsets.UTF_8)) {
+      lines.add(line.startsWith("requiredSetters=") ? "requiredSetters=setName" : line);
+    }
+    Files.write(summary.toPath(), lines, StandardCharsets.UTF_8);
+
+    compileClient(libraryClasses);
+    assertEquals("[setName]", FactsProbe.facts.get(AUTO_VALUE_BUILDER));
+  }
+
+  /** Compiles the library, and returns the directory of its class files and summaries. */
+  private File compileLibrary() throws Exception {
+    File classes = temporaryFolder.newFolder("library");
+    compile(
+        new File("tests/summaries/library/summaries"),
+        System.getProperty("java.class.path"),
+        classes,
+        "-AemitBuilderSummaries");
+    return classes;
+  }
+
+  /** Compiles the client against the class files of the library. */
+  private void compileClient(File libraryClasses) throws Exception {
+    compile(
+        new File("tests/summaries/client"),
+        libraryClasses.getPath() + File.pathSeparator + System.getProperty("java.class.path"),
+        temporaryFolder.newFolder("client"));
+  }
+
+  /**
+   * Compiles the Java files of a directory, and fails if there are errors.
+   *
+   * @param directory the directory
+   * @param classpath the class path
+   * @param output the directory of the class files
+   * @param extraOptions further options of the compiler
+   */
+  private static void compile(File directory, String classpath, File output, String... extraOptions)
+      throws Exception {
+    FactsProbe.facts.clear();
+    List<String> options = new ArrayList<>();
+    options.add("-classpath");
+    options.add(classpath);
+    options.add("-d");
+    options.add(output.getPath());
+    options.add("-Anomsgtext");
+    options.add("-nowarn");
+    options.addAll(Arrays.asList(extraOptions));
+    // The processors are instantiated here rather than by javac, so that the probe that records the
+    // facts is the class of this test. The probe comes first, because the checker claims all
+    // annotations.
+    List<Processor> processors = new ArrayList<>();
+    processors.add(new FactsProbe());
+    for (String processor : PROCESSORS) {
+      processors.add((Processor) Class.forName(processor).getDeclaredConstructor().newInstance());
+    }
+    TestCompiler.compileWithoutErrors(
+        Arrays.asList(directory.listFiles((dir, name) -> name.endsWith(".java"))),
+        processors,
+        options.toArray(new String[0]));
+  }
+
+  /**
+   * Records the required setters of {@link #AUTO_VALUE_BUILDER} and the required properties of
+   * {@link #LOMBOK_CLASS}, as the checkers see them, at the end of annotation processing.
+   */
+  @SupportedAnnotationTypes("*")
+  public static class FactsProbe extends AbstractProcessor {
+
+    static final Map<String, String> facts = new HashMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+      return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+      if (roundEnv.processingOver()) {
+        BuilderMetadata metadata = BuilderMetadata.instance(processingEnv);
+        TypeElement builder = processingEnv.getElementUtils().getTypeElement(AUTO_VALUE_BUILDER);
+        facts.put(
+            AUTO_VALUE_BUILDER,
+            metadata.getAutoValueBuilderFacts(builder).requiredSetters.toString());
+        TypeElement lombokClass = processingEnv.getElementUtils().getTypeElement(LOMBOK_CLASS);
+        facts.put(
+            LOMBOK_CLASS,
+            metadata.getLombokBuilderFacts(lombokClass).requiredPropertyNames.toString());
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,255 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import org.checkerframework.checker.framework.BuilderMetadata;
+import org.checkerframework.checker.framework.ClasspathIndex;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests {@link ClasspathIndex} and the class file scanner behind it on a jar of the classes in
+ * "tests/classpathindex/library", which a compilation of "tests/classpathindex/client" uses.
+ */
+public class ClasspathIndexTest {
+
+  /** What the index records about the classes of the jar. */
+  private static final Map<String, String> EXPECTED = new LinkedHashMap<>();
+
+  static {
+    EXPECTED.put("indexed.Fluent", "flags [] returnsThis [add, weigh]");
+    EXPECTED.put("indexed.Generated", "flags [LOMBOK_GENERATED_METHOD] returnsThis []");
+    EXPECTED.put("indexed.Value", "flags [AUTO_VALUE] returnsThis []");
+    EXPECTED.put("indexed.Value.Builder", "flags [AUTO_VALUE_BUILDER] returnsThis []");
+  }
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File classes;
+
+  private Path cacheDirectory;
+
+  @Before
+  public void compileLibrary() throws Exception {
+    classes = temporaryFolder.newFolder("classes");
+    cacheDirectory = temporaryFolder.getRoot().toPath().resolve("cache");
+    File[] sources =
+        new File("tests/classpathindex/library/indexed")
+            .listFiles((dir, name) -> name.endsWith(".java"));
+    TestCompiler.compileWithoutErrors(
+        Arrays.asList(sources),
+        Collections.emptyList(),
+        "-proc:none",
+        "-classpath",
+        System.getProperty("java.class.path"),
+        "-d",
+        classes.getPath());
+  }
+
+  @Test
+  public void scansTheJarAndCachesItsIndex() throws Exception {
+    File jar = jar("library.jar");
+    IndexProbe probe = index(jar, EXPECTED.keySet());
+    assertEquals("classpath index: 1 jars (1 scanned, 0 from the cache)", probe.index);
+    assertEquals(EXPECTED, probe.facts);
+    assertEquals(Arrays.asList(contentHash(jar) + ".idx"), cacheFiles());
+  }
+
+  @Test
+  public void readsTheCacheOfAnUnchangedJar() throws Exception {
+    File jar = jar("library.jar");
+    index(jar, EXPECTED.keySet());
+    // A jar with the same contents has the same cache file, even if it was written again.
+    jar = jar("library.jar");
+    IndexProbe probe = index(jar, EXPECTED.keySet());
+    assertEquals("classpath index: 1 jars (0 scanned, 1 from the cache)", probe.index);
+    assertEquals(EXPECTED, probe.facts);
+    assertEquals(1, cacheFiles().size());
+  }
+
+  @Test
+  public void rescansAChangedJar() throws Exception {
+    File jar = jar("library.jar");
+    index(jar, EXPECTED.keySet());
+    String oldCacheFile = contentHash(jar) + ".idx";
+    Files.write(
+        new File(classes, "indexed/notes.txt").toPath(),
+        "changed".getBytes(StandardCharsets.UTF_8));
+    jar = jar("library.jar");
+    IndexProbe probe = index(jar, EXPECTED.keySet());
+    assertEquals("classpath index: 1 jars (1 scanned, 0 from the cache)", probe.index);
+    assertEquals(EXPECTED, probe.facts);
+    List<String> cacheFiles = cacheFiles();
+    assertEquals(2, cacheFiles.size());
+    assertTrue(cacheFiles.contains(oldCacheFile));
+    assertTrue(cacheFiles.contains(contentHash(jar) + ".idx"));
+  }
+
+  @Test
+  public void rescansAJarWithADamagedCacheFile() throws Exception {
+    File jar = jar("library.jar");
+    index(jar, EXPECTED.keySet());
+    Path cacheFile = cacheDirectory.resolve(contentHash(jar) + ".idx");
+    byte[] bytes = Files.readAllBytes(cacheFile);
+    Files.write(cacheFile, Arrays.copyOf(bytes, bytes.length / 2));
+    IndexProbe probe = index(jar, EXPECTED.keySet());
+    assertEquals("classpath index: 1 jars (1 scanned, 0 from the cache)", probe.index);
+    assertEquals(EXPECTED, probe.facts);
+    assertEquals(bytes.length, Files.size(cacheFile));
+  }
+
+  /** Writes the compiled library to a jar in the temporary folder, replacing an earlier jar. */
+  private File jar(String name) throws IOException {
+    File jar = new File(temporaryFolder.getRoot(), name);
+    List<Path> files;
+    try (Stream<Path> walk = Files.walk(classes.toPath())) {
+      files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+    }
+    try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar.toPath()))) {
+      for (Path file : files) {
+        ZipEntry entry = new ZipEntry(classes.toPath().relativize(file).toString());
+        out.putNextEntry(entry);
+        Files.copy(file, out);
+        out.closeEntry();
+      }
+    }
+    return jar;
+  }
+
+  /**
+   * Compiles the client against a jar, indexing the jar.
+   *
+   * @return the probe that recorded what the index says about the classes
+   */
+  private IndexProbe index(File jar, Iterable<String> classNames) throws Exception {
+    IndexProbe probe = new IndexProbe(cacheDirectory, classNames);
+    TestCompiler.compileWithoutErrors(
+        Arrays.asList(new File("tests/classpathindex/client/Client.java")),
+        Arrays.asList(probe),
+        "-proc:only",
+        "-classpath",
+        jar.getPath());
+    return probe;
+  }
+
+  private List<String> cacheFiles() throws IOException {
+    try (Stream<Path> list = Files.list(cacheDirectory)) {
+      return list.map(file -> file.getFileName().toString()).collect(Collectors.toList());
+    }
+  }
+
+  /** The name and size and CRC of every entry of a jar, hashed as the cache key of the jar. */
+  private static String contentHash(File jar) throws Exception {
+    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    try (ZipFile zip = new ZipFile(jar)) {
+      Enumeration<? extends ZipEntry> entries = zip.entries();
+      while (entries.hasMoreElements()) {
+        ZipEntry entry = entries.nextElement();
+        digest.update(entry.getName().getBytes(StandardCharsets.UTF_8));
+        digest.update(
+            ByteBuffer.allocate(16).putLong(entry.getCrc()).putLong(entry.getSize()).array());
+      }
+    }
+    StringBuilder result = new StringBuilder();
+    for (byte b : digest.digest()) {
+      result.append(String.format("%02x", b));
+    }
+    return result.toString();
+  }
+
+  /**
+   * Indexes the class path of the compilation, as {@code -AclasspathIndexCache} does, and records
+   * the flags of some classes and their methods that return {@code @This}.
+   */
+  @SupportedAnnotationTypes("*")
+  private static final class IndexProbe extends AbstractProcessor {
+
+    private static final Map<String, Integer> FLAGS = new LinkedHashMap<>();
+
+    static {
+      FLAGS.put("AUTO_VALUE", ClasspathIndex.AUTO_VALUE);
+      FLAGS.put("AUTO_VALUE_BUILDER", ClasspathIndex.AUTO_VALUE_BUILDER);
+      FLAGS.put("LOMBOK_GENERATED", ClasspathIndex.LOMBOK_GENERATED);
+      FLAGS.put("LOMBOK_GENERATED_METHOD", ClasspathIndex.LOMBOK_GENERATED_METHOD);
+    }
+
+    private final Path cacheDirectory;
+
+    private final Iterable<String> classNames;
+
+    /** The summary of the index. */
+    String index;
+
+    /** What the index records about each class, by name. */
+    final Map<String, String> facts = new LinkedHashMap<>();
+
+    IndexProbe(Path cacheDirectory, Iterable<String> classNames) {
+      this.cacheDirectory = cacheDirectory;
+      this.classNames = classNames;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+      return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+      if (index != null) {
+        return false;
+      }
+      BuilderMetadata metadata = BuilderMetadata.instance(processingEnv);
+      metadata.useClasspathIndex(cacheDirectory);
+      ClasspathIndex classpathIndex = metadata.getClasspathIndex();
+      index = classpathIndex.toString();
+      for (String className : classNames) {
+        TypeElement type = processingEnv.getElementUtils().getTypeElement(className);
+        ClasspathIndex.Entry entry = classpathIndex.get(type);
+        StringJoiner flags = new StringJoiner(", ", "[", "]");
+        for (Map.Entry<String, Integer> flag : FLAGS.entrySet()) {
+          if (entry.has(flag.getValue())) {
+            flags.add(flag.getKey());
+          }
+        }
+        StringJoiner returnsThis = new StringJoiner(", ", "[", "]");
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+          if (classpathIndex.returnsThis(method)) {
+            returnsThis.add(method.getSimpleName());
+          }
+        }
+        facts.put(className, "flags " + flags + " returnsThis " + returnsThis);
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Runs javac on some files, for the tests that need more than the expected diagnostics of the
+ * files, such as class files or the state of the annotation processors.
+ */
+final class TestCompiler {
+
+  private TestCompiler() {}
+
+  /**
+   * Compiles some files, and fails if there are errors.
+   *
+   * @param files the files to compile
+   * @param processors the annotation processors to run, or none to let javac find them from its
+   *     options
+   * @param options the options of the compiler
+   */
+  static void compileWithoutErrors(
+      List<File> files, List<? extends Processor> processors, String... options) throws Exception {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    try (StandardJavaFileManager fileManager =
+        compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+      CompilationTask task =
+          compiler.getTask(
+              null,
+              fileManager,
+              diagnostics,
+              Arrays.asList(options),
+              null,
+              fileManager.getJavaFileObjectsFromFiles(files));
+      if (!processors.isEmpty()) {
+        task.setProcessors(processors);
+      }
+      task.call();
+    }
+    List<String> errors = new ArrayList<>();
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+      if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+        errors.add(diagnostic.toString());
+      }
+    }
+    assertEquals(new ArrayList<String>(), errors);
+  }
+}
@@ -0,0 +1,27 @@
+package stubbed;
+
+import java.util.Map;
+
+public class Overloads<K, V> {
+  public Overloads<K, V> date(java.util.Date date) {
+    return this;
+  }
+
+  public Overloads<K, V> date(java.sql.Date date) {
+    return this;
+  }
+
+  public Overloads<K, V> entry(Map.Entry<K, V> entry) {
+    return this;
+  }
+
+  public <T extends Number> Overloads<K, V> numbers(T[] numbers, int count) {
+    return this;
+  }
+
+  public Overloads<K, V> inner(Inner inner) {
+    return this;
+  }
+
+  public static class Inner {}
+}
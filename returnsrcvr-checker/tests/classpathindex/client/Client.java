@@ -0,0 +1,11 @@
+import indexed.Fluent;
+import indexed.Generated;
+import indexed.Value;
+
+class Client {
+  Fluent fluent;
+
+  Generated generated;
+
+  Value value;
+}
@@ -0,0 +1,29 @@
+package indexed;
+
+import java.util.function.LongSupplier;
+import org.checkerframework.checker.returnsrcvr.qual.This;
+
+/**
+ * Its constant pool has Long and Double constants, which take two entries each, and the String,
+ * MethodHandle, MethodType and InvokeDynamic constants of a lambda.
+ */
+public class Fluent {
+  private long count = 1234567890123L;
+
+  private double weight = 3.25;
+
+  public @This Fluent add(long amount) {
+    count += amount * 9876543210L;
+    return this;
+  }
+
+  public @This Fluent weigh(double factor, String unit) {
+    LongSupplier supplier = () -> count;
+    weight = weight * factor * 2.5 + supplier.getAsLong() + unit.length();
+    return this;
+  }
+
+  public Fluent copy() {
+    return new Fluent();
+  }
+}
@@ -0,0 +1,8 @@
+package indexed;
+
+public class Generated {
+  @lombok.Generated
+  public Generated self() {
+    return this;
+  }
+}
@@ -0,0 +1,15 @@
+package indexed;
+
+import com.google.auto.value.AutoValue;
+
+@AutoValue
+public abstract class Value {
+  public abstract String name();
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+    public abstract Builder setName(String name);
+
+    public abstract Value build();
+  }
+}
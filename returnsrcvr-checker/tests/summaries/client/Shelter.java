@@ -0,0 +1,12 @@
+import summaries.Animal;
+import summaries.Pet;
+
+class Shelter {
+  Animal admit() {
+    return Animal.builder().setName("Rex").setNumberOfLegs(4).build();
+  }
+
+  Pet adopt() {
+    return Pet.builder().name("Rex").build();
+  }
+}
@@ -0,0 +1,29 @@
+package summaries;
+
+import com.google.auto.value.AutoValue;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+@AutoValue
+public abstract class Animal {
+  public abstract String name();
+
+  public abstract @Nullable String habitat();
+
+  public abstract int numberOfLegs();
+
+  public static Builder builder() {
+    return new AutoValue_Animal.Builder();
+  }
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+
+    public abstract Builder setName(String value);
+
+    public abstract Builder setNumberOfLegs(int value);
+
+    public abstract Builder setHabitat(String value);
+
+    public abstract Animal build();
+  }
+}
@@ -0,0 +1,13 @@
+package summaries;
+
+import lombok.Builder;
+import lombok.NonNull;
+
+@Builder
+public class Pet {
+  @NonNull private final String name;
+
+  @Builder.Default @NonNull private final String owner = "nobody";
+
+  private final int age;
+}